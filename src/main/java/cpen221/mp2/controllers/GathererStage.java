@@ -29,7 +29,7 @@ public interface GathererStage {
     public Planet earth();
 
     /**
-     * Return the set of all planets.
+     * Return the set of all planets. The set is unmodifiable.
      */
     public Set<Planet> planets();
 
@@ -0,0 +1,210 @@
+package cpen221.mp2.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table of the shortest path distance between every pair of vertices of a
+ * frozen graph. The table is filled by one run of Dijkstra's algorithm per source,
+ * split across a ForkJoinPool by SourceTasks, like EccentricityEngine. After that distances are
+ * answered in constant time, paths in time proportional to their length times
+ * the degree of their vertices, and the diameter without any search.
+ *
+ * <p>The table takes 4 n<sup>2</sup> bytes. If that is more than the memory cap the
+ * table is not built, and every query runs a search of the graph instead; the
+ * answers are the same either way.</p>
+ *
+ * Representation Invariant:
+ * - dist is null iff 4 n^2 > maxBytes, where n is the number of vertices of graph.
+ * - If dist != null, dist[i][j] is the length of the shortest path between
+ *   graph.vertexAt(i) and graph.vertexAt(j), Integer.MAX_VALUE if there is none,
+ *   and diameter is the largest finite entry (Integer.MAX_VALUE if that is 0).
+ *
+ * Abstraction Function:
+ * Represents the shortest path distances of graph.
+ *
+ * @param <V> represents a vertex type
+ */
+public class AllPairsIndex<V extends Vertex> {
+
+    /**
+     * The default memory cap, enough for the table of a graph with 4096 vertices
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private final CsrGraph<V, ?> graph;
+    private final int[][] dist;
+    private final int diameter;
+
+    /**
+     * Build the distance table of graph on every available processor, through the
+     * common pool, if it fits in DEFAULT_MAX_BYTES.
+     *
+     * @param graph the graph to index
+     */
+    public AllPairsIndex(CsrGraph<V, ?> graph) {
+        this.graph = graph;
+        this.dist = table(DEFAULT_MAX_BYTES, SourceTasks.COMMON_POOL);
+        this.diameter = largest(dist);
+    }
+
+    /**
+     * Build the distance table of graph with at most parallelism searches at once,
+     * if it fits in maxBytes.
+     *
+     * @param graph       the graph to index
+     * @param maxBytes    the largest table to build, in bytes
+     * @param parallelism the number of worker threads, parallelism >= 1
+     * @throws IllegalArgumentException if parallelism < 1
+     */
+    public AllPairsIndex(CsrGraph<V, ?> graph, long maxBytes, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.graph = graph;
+        this.dist = table(maxBytes, parallelism);
+        this.diameter = largest(dist);
+    }
+
+    /**
+     * Fill the distance table of graph, if it fits in maxBytes.
+     *
+     * @param maxBytes    the largest table to build, in bytes
+     * @param parallelism the number of worker threads, or SourceTasks.COMMON_POOL
+     * @return the table, or null if it does not fit
+     */
+    private int[][] table(long maxBytes, int parallelism) {
+        int n = graph.vertexCount();
+        if (4L * n * n > maxBytes) {
+            return null;
+        }
+
+        int[][] table = new int[n][];
+        // the predecessors are not kept, so one buffer per worker thread serves all its searches;
+        // the queue of each search comes from the thread's scratch in graph
+        ThreadLocal<int[]> preds = ThreadLocal.withInitial(() -> new int[n]);
+        SourceTasks.forEachRange(n, parallelism, (lo, hi) -> {
+            int[] pred = preds.get();
+
+            for (int s = lo; s < hi; s++) {
+                int[] row = new int[n];
+                graph.dijkstra(s, -1, row, pred);
+                table[s] = row;
+            }
+        });
+
+        return table;
+    }
+
+    /**
+     * Find the largest finite entry of a distance table.
+     *
+     * @param table the table, or null
+     * @return the largest finite entry, Integer.MAX_VALUE if that is 0, or -1 if table is null
+     */
+    private static int largest(int[][] table) {
+        if (table == null) {
+            return -1;
+        }
+
+        int max = 0;
+        for (int[] row : table) {
+            for (int d : row) {
+                if (d != Integer.MAX_VALUE && d > max) {
+                    max = d;
+                }
+            }
+        }
+
+        return max == 0 ? Integer.MAX_VALUE : max;
+    }
+
+    /**
+     * Check if the distance table was built, or if queries search the graph instead
+     *
+     * @return true if the table fit in the memory cap and false otherwise
+     */
+    public boolean isPrecomputed() {
+        return dist != null;
+    }
+
+    /**
+     * Obtain the length of the shortest path between two vertices
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public int distance(V source, V sink) {
+        if (dist == null) {
+            return graph.distance(source, sink);
+        }
+
+        return dist[graph.index(source)][graph.index(sink)];
+    }
+
+    /**
+     * Compute a shortest path between two vertices. The path is read off the table
+     * by stepping back from sink to a neighbour that is exactly one edge closer to source.
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on a shortest path from source to sink (both end points are part of the list),
+     * or an empty list if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public List<V> shortestPath(V source, V sink) {
+        int s = graph.index(source);
+        int t = graph.index(sink);
+
+        if (dist == null) {
+            return graph.shortestPath(source, sink);
+        }
+
+        int[] row = dist[s];
+        List<V> path = new ArrayList<V>();
+        if (row[t] == Integer.MAX_VALUE) {
+            return path;
+        }
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] lengths = graph.lengths();
+
+        path.add(sink);
+        for (int x = t; x != s; ) {
+            int previous = -1;
+            for (int j = offsets[x]; j < offsets[x + 1]; j++) {
+                int w = targets[j];
+                if (row[w] < row[x] && row[w] + lengths[j] == row[x]) {
+                    previous = w;
+                    break;
+                }
+            }
+            if (previous == -1) {
+                // only zero-length edges lead back from x, so the table cannot order them
+                return graph.shortestPath(source, sink);
+            }
+            path.add(graph.vertexAt(previous));
+            x = previous;
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+
+    /**
+     * Compute the diameter of the graph, the length of the longest shortest path
+     *
+     * @return the diameter of the graph, or Integer.MAX_VALUE if the graph has no edges
+     */
+    public int diameter() {
+        if (dist == null) {
+            return graph.diameter();
+        }
+
+        return diameter;
+    }
+}
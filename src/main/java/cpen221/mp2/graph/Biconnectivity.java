@@ -0,0 +1,328 @@
+package cpen221.mp2.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The bridges, articulation points and biconnected components of a frozen graph.
+ *
+ * <p>A bridge is an edge whose removal disconnects its end points, and an articulation
+ * point is a vertex whose removal disconnects two of its neighbours. The biconnected
+ * components partition the edges: two edges are in the same component exactly when
+ * some simple cycle runs through both. A bridge is a component on its own, and the
+ * articulation points are the vertices shared by several components.</p>
+ *
+ * <p>Everything is found by a single depth-first search in the manner of Tarjan, which
+ * takes time linear in the size of the graph. The search keeps its own stack, so deep
+ * graphs do not overflow the call stack. Afterwards each query takes constant time,
+ * apart from finding the edge between two vertices in the adjacency of the first.</p>
+ *
+ * Representation Invariant:
+ * - disc, low, parentEdge, subtree and root have length n, and edgeComponent has length m,
+ *   where n and m are the numbers of vertices and edges of graph.
+ * - disc[i] is the position of vertex i in the order in which the search reached the vertices,
+ *   and root[i] is the first vertex the search reached in the connected component of i.
+ * - parentEdge[i] is -1 if root[i] == i and is otherwise the edge through which the search reached i.
+ * - subtree[i] is the number of vertices in the subtree of the search tree below and including i.
+ * - low[i] is the least disc of a vertex reached by an edge out of that subtree that is not a tree edge.
+ * - componentEdges lists the edges of component c in componentOffsets[c]..componentOffsets[c+1]-1,
+ *   in increasing order, and edgeComponent[k] == c for each of them.
+ * - articulation[i] is true exactly when vertex i is an articulation point.
+ *
+ * Abstraction Function:
+ * Represents the partition of the edges of graph into the components listed by componentEdges,
+ * with the articulation points {graph.vertexAt(i) | articulation[i]}.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class Biconnectivity<V extends Vertex, E extends Edge<V>> {
+
+    private final CsrGraph<V, E> graph;
+    private final int[] disc;
+    private final int[] low;
+    private final int[] parentEdge;
+    private final int[] subtree;
+    private final int[] root;
+    private final int[] edgeComponent;
+    private final int[] componentOffsets;
+    private final int[] componentEdges;
+    private final boolean[] articulation;
+
+    /**
+     * Find the bridges, articulation points and biconnected components of graph.
+     *
+     * @param graph the graph to analyse
+     */
+    Biconnectivity(CsrGraph<V, E> graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] slotEdgeIds = graph.slotEdgeIds();
+
+        disc = new int[n];
+        low = new int[n];
+        parentEdge = new int[n];
+        subtree = new int[n];
+        root = new int[n];
+        edgeComponent = new int[m];
+        articulation = new boolean[n];
+        Arrays.fill(disc, -1);
+
+        int[] cursor = new int[n];
+        int[] vertexStack = new int[n];
+        int[] edgeStack = new int[m];
+        int time = 0;
+        int components = 0;
+
+        for (int r = 0; r < n; r++) {
+            if (disc[r] != -1) {
+                continue;
+            }
+
+            int top = 0;
+            int edgeTop = 0;
+            int rootChildren = 0;
+            reach(r, r, -1, time++, offsets, cursor);
+            vertexStack[top++] = r;
+
+            while (top > 0) {
+                int u = vertexStack[top - 1];
+
+                if (cursor[u] < offsets[u + 1]) {
+                    int j = cursor[u]++;
+                    int w = targets[j];
+                    int k = slotEdgeIds[j];
+
+                    if (k == parentEdge[u]) {
+                        continue;
+                    }
+                    if (disc[w] == -1) {
+                        reach(w, r, k, time++, offsets, cursor);
+                        vertexStack[top++] = w;
+                        edgeStack[edgeTop++] = k;
+                        if (u == r) {
+                            rootChildren++;
+                        }
+                    } else if (disc[w] < disc[u]) {
+                        // a back edge to an ancestor; seen again from the ancestor, it is skipped
+                        low[u] = Math.min(low[u], disc[w]);
+                        edgeStack[edgeTop++] = k;
+                    }
+                    continue;
+                }
+
+                top--;
+                if (top == 0) {
+                    break;
+                }
+
+                int p = vertexStack[top - 1];
+                low[p] = Math.min(low[p], low[u]);
+                subtree[p] += subtree[u];
+
+                if (low[u] >= disc[p]) {
+                    // nothing below u climbs above p, so p cuts off the edges pushed since u's tree edge
+                    if (p != r) {
+                        articulation[p] = true;
+                    }
+                    int k;
+                    do {
+                        k = edgeStack[--edgeTop];
+                        edgeComponent[k] = components;
+                    } while (k != parentEdge[u]);
+                    components++;
+                }
+            }
+
+            if (rootChildren > 1) {
+                articulation[r] = true;
+            }
+        }
+
+        componentOffsets = new int[components + 1];
+        for (int k = 0; k < m; k++) {
+            componentOffsets[edgeComponent[k] + 1]++;
+        }
+        for (int c = 0; c < components; c++) {
+            componentOffsets[c + 1] += componentOffsets[c];
+        }
+
+        componentEdges = new int[m];
+        int[] fill = Arrays.copyOf(componentOffsets, components);
+        for (int k = 0; k < m; k++) {
+            componentEdges[fill[edgeComponent[k]]++] = k;
+        }
+    }
+
+    /**
+     * Record that the search has reached vertex i.
+     *
+     * @param i       the vertex reached
+     * @param r       the vertex the search started from
+     * @param edge    the edge through which i was reached, or -1 if i == r
+     * @param time    the number of vertices reached before i
+     * @param offsets the adjacency offsets of the graph
+     * @param cursor  the next slot to explore for each vertex
+     */
+    private void reach(int i, int r, int edge, int time, int[] offsets, int[] cursor) {
+        disc[i] = time;
+        low[i] = time;
+        parentEdge[i] = edge;
+        subtree[i] = 1;
+        root[i] = r;
+        cursor[i] = offsets[i];
+    }
+
+    /**
+     * Find the index of the edge between two vertices
+     *
+     * @param a the index of the first vertex
+     * @param b the index of the second vertex
+     * @return the index of the a-b edge
+     * @throws IllegalArgumentException if a and b are not adjacent
+     */
+    private int edgeId(int a, int b) throws IllegalArgumentException {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+
+        for (int j = offsets[a]; j < offsets[a + 1]; j++) {
+            if (targets[j] == b) {
+                return graph.slotEdgeIds()[j];
+            }
+        }
+
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Check if the v1-v2 edge is a bridge, so that removing it would disconnect v1 from v2
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true if the edge is a bridge and false otherwise
+     * @throws IllegalArgumentException if v1-v2 is not an edge of the graph
+     */
+    public boolean isBridge(V v1, V v2) throws IllegalArgumentException {
+        int c = edgeComponent[edgeId(graph.index(v1), graph.index(v2))];
+
+        return componentOffsets[c + 1] - componentOffsets[c] == 1;
+    }
+
+    /**
+     * Obtain every bridge of the graph
+     *
+     * @return the edges whose removal would disconnect their end points
+     */
+    public List<E> bridges() {
+        List<E> bridges = new ArrayList<E>();
+
+        for (int c = 0; c + 1 < componentOffsets.length; c++) {
+            if (componentOffsets[c + 1] - componentOffsets[c] == 1) {
+                bridges.add(graph.edgeAt(componentEdges[componentOffsets[c]]));
+            }
+        }
+
+        return bridges;
+    }
+
+    /**
+     * Check if v is an articulation point, so that removing it would disconnect
+     * two of its neighbours
+     *
+     * @param v a vertex in the graph
+     * @return true if v is an articulation point and false otherwise
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    public boolean isArticulationPoint(V v) throws IllegalArgumentException {
+        return articulation[graph.index(v)];
+    }
+
+    /**
+     * Obtain every articulation point of the graph
+     *
+     * @return the vertices whose removal would disconnect two of their neighbours,
+     * in increasing order of id
+     */
+    public List<V> articulationPoints() {
+        List<V> points = new ArrayList<V>();
+
+        for (int i = 0; i < articulation.length; i++) {
+            if (articulation[i]) {
+                points.add(graph.vertexAt(i));
+            }
+        }
+
+        return points;
+    }
+
+    /**
+     * Obtain the number of biconnected components of the graph
+     *
+     * @return the number of biconnected components, counting each bridge as one
+     */
+    public int componentCount() {
+        return componentOffsets.length - 1;
+    }
+
+    /**
+     * Find the biconnected component that the v1-v2 edge belongs to
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the position of the component in biconnectedComponents()
+     * @throws IllegalArgumentException if v1-v2 is not an edge of the graph
+     */
+    public int componentOf(V v1, V v2) throws IllegalArgumentException {
+        return edgeComponent[edgeId(graph.index(v1), graph.index(v2))];
+    }
+
+    /**
+     * Obtain the biconnected components of the graph
+     *
+     * @return the edges of each component; every edge of the graph is in exactly one
+     */
+    public List<List<E>> biconnectedComponents() {
+        List<List<E>> components = new ArrayList<List<E>>();
+
+        for (int c = 0; c + 1 < componentOffsets.length; c++) {
+            List<E> component = new ArrayList<E>();
+            for (int x = componentOffsets[c]; x < componentOffsets[c + 1]; x++) {
+                component.add(graph.edgeAt(componentEdges[x]));
+            }
+            components.add(Collections.unmodifiableList(component));
+        }
+
+        return components;
+    }
+
+    /**
+     * Count the vertices that can be reached from to after crossing the from-to edge,
+     * without crossing it back. If the edge is a bridge, these are the vertices on the
+     * far side of it, and a path that crosses it has to come back over it; otherwise
+     * they are all the vertices connected to to.
+     *
+     * @param from the vertex the edge is crossed from
+     * @param to   the vertex the edge is crossed to
+     * @return the number of vertices reachable from to without the from-to edge, including to
+     * @throws IllegalArgumentException if from-to is not an edge of the graph
+     */
+    public int verticesBeyond(V from, V to) throws IllegalArgumentException {
+        int a = graph.index(from);
+        int b = graph.index(to);
+        int k = edgeId(a, b);
+        int c = edgeComponent[k];
+        int connected = subtree[root[b]];
+
+        if (componentOffsets[c + 1] - componentOffsets[c] != 1) {
+            return connected;
+        }
+
+        // a bridge is always a tree edge, so one end is the parent of the other
+        return parentEdge[b] == k ? subtree[b] : connected - subtree[a];
+    }
+}
@@ -0,0 +1,408 @@
+package cpen221.mp2.graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Dependencies: Graph.java, CsrGraph.java
+ *
+ * A graph that any number of threads may read while other threads mutate it.
+ *
+ * <p>Mutations are applied one at a time, under the lock of this object, to a private Graph.
+ * A mutation that changes the graph freezes a new immutable snapshot of it and publishes
+ * the snapshot through a volatile field before releasing the lock. Reads never take the
+ * lock and never build anything: each is a single load of the published snapshot, so
+ * readers are not held up by writers or by each other. Every change costs a rebuild of
+ * the snapshot, so add a batch of vertices or edges with addVertices or addEdges, which
+ * rebuild it once.</p>
+ *
+ * <p>Every operation is linearizable. A mutation takes effect when it publishes its
+ * snapshot, and a read takes effect when it loads the snapshot. A read sees every mutation
+ * that returned before it was called. Each read method consults a single snapshot.
+ * Callers that need several queries to agree should call freeze() and query the graph
+ * it returns.</p>
+ *
+ * <p>Queries are answered by CsrGraph. Where there are several shortest paths, the one
+ * returned may differ from the one a Graph with the same edges would return.</p>
+ *
+ * Representation Invariant:
+ * - graph is not null and is only read or mutated while holding the lock of this object.
+ * - snapshot is not null, and is a Snapshot of graph as it is now whenever the lock of this
+ *   object is not held.
+ *
+ * Abstraction Function:
+ * Represents the graph held by graph.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class ConcurrentGraph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>, IGraph<V, E> {
+
+    private final Graph<V, E> graph;
+    private volatile Snapshot<V, E> snapshot;
+
+    /**
+     * Create an empty graph.
+     */
+    public ConcurrentGraph() {
+        graph = new Graph<V, E>();
+        snapshot = new Snapshot<V, E>(graph);
+    }
+
+    /**
+     * An immutable copy of the graph at one point in time. Its fields are final and
+     * never modified, so it can be read by any thread once published.
+     */
+    private static final class Snapshot<V extends Vertex, E extends Edge<V>> {
+        private final CsrGraph<V, E> csr;
+        private final Set<V> vertices;
+        private final Set<E> edges;
+        private final int edgeLengthSum;
+
+        private Snapshot(Graph<V, E> graph) {
+            csr = graph.freeze();
+            vertices = Collections.unmodifiableSet(new HashSet<V>(graph.allVertices()));
+            edges = Collections.unmodifiableSet(new HashSet<E>(graph.allEdges()));
+            edgeLengthSum = graph.edgeLengthSum();
+        }
+    }
+
+    /**
+     * Obtain a snapshot of the graph as it is now.
+     *
+     * @return the current snapshot
+     */
+    private Snapshot<V, E> read() {
+        return snapshot;
+    }
+
+    /**
+     * Publish a snapshot of the graph if a mutation changed it. Called while holding the lock.
+     *
+     * @param changed true if the graph was changed
+     * @return changed
+     */
+    private boolean changed(boolean changed) {
+        if (changed) {
+            snapshot = new Snapshot<V, E>(graph);
+        }
+        return changed;
+    }
+
+    /**
+     * Add a vertex to the graph
+     *
+     * @param v vertex to add
+     * @return true if the vertex was added successfully and false if it already exists in graph
+     */
+    @Override
+    public synchronized boolean addVertex(V v) {
+        return changed(graph.addVertex(v));
+    }
+
+    /**
+     * Add a collection of vertices to the graph, all at once
+     *
+     * @param vertices the vertices to add
+     * @return true if at least one vertex was added and false otherwise
+     */
+    public synchronized boolean addVertices(Collection<V> vertices) {
+        return changed(graph.addVertices(vertices));
+    }
+
+    /**
+     * Add an edge of the graph
+     *
+     * @param e the edge to add to the graph
+     * @return true if the edge was successfully added
+     * @return false if the edge already exists in the graph
+     * @return false if either vertex does not exist in the graph
+     */
+    @Override
+    public synchronized boolean addEdge(E e) {
+        return changed(graph.addEdge(e));
+    }
+
+    /**
+     * Add a collection of edges to the graph, all at once
+     *
+     * @param edges the edges to add
+     * @return true if at least one edge was added and false otherwise
+     */
+    public synchronized boolean addEdges(Collection<E> edges) {
+        return changed(graph.addEdges(edges));
+    }
+
+    /**
+     * Remove an edge from the graph
+     *
+     * @param e the edge to remove
+     * @return true if e was successfully removed and false otherwise
+     */
+    @Override
+    public synchronized boolean remove(E e) {
+        return changed(graph.remove(e));
+    }
+
+    /**
+     * Remove a vertex, and every edge incident on it, from the graph
+     *
+     * @param v the vertex to remove
+     * @return true if v was successfully removed and false otherwise
+     */
+    @Override
+    public synchronized boolean remove(V v) {
+        return changed(graph.remove(v));
+    }
+
+    /**
+     * Obtain an immutable copy of the graph as it is now. Queries on the copy all see
+     * the same graph, whatever mutations happen meanwhile.
+     *
+     * @return a snapshot of this graph
+     */
+    public CsrGraph<V, E> freeze() {
+        return read().csr;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true if v is part of the graph and false otherwise
+     */
+    @Override
+    public boolean vertex(V v) {
+        return read().csr.vertex(v);
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    @Override
+    public boolean edge(E e) {
+        return edge(e.v1(), e.v2());
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    @Override
+    public boolean edge(V v1, V v2) {
+        return read().csr.edge(v1, v2);
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the edge formed by v1 and v2
+     * @throws IllegalArgumentException if edge formed by v1 and v2 does not exist in the graph
+     */
+    @Override
+    public int edgeLength(V v1, V v2) throws IllegalArgumentException {
+        CsrGraph<V, E> csr = read().csr;
+
+        if (!csr.edge(v1, v2)) {
+            throw new IllegalArgumentException();
+        }
+
+        return csr.getEdge(v1, v2).length();
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    @Override
+    public int edgeLengthSum() {
+        return read().edgeLengthSum;
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * The set is unmodifiable and is not changed by later mutations of the graph.
+     *
+     * @return a set of all vertices in the graph
+     */
+    @Override
+    public Set<V> allVertices() {
+        return read().vertices;
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v, or an empty set if v is not part of the graph
+     */
+    @Override
+    public Set<E> allEdges(V v) {
+        CsrGraph<V, E> csr = read().csr;
+        Set<E> edgeSet = new HashSet<E>();
+
+        if (csr.vertex(v)) {
+            csr.forEachNeighbour(v, (w, e) -> edgeSet.add(e));
+        }
+
+        return edgeSet;
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * The set is unmodifiable and is not changed by later mutations of the graph.
+     *
+     * @return all edges in the graph
+     */
+    @Override
+    public Set<E> allEdges() {
+        return read().edges;
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w.
+     * @throws IllegalArgumentException if vertex v does not exist in the graph
+     */
+    @Override
+    public Map<V, E> getNeighbours(V v) throws IllegalArgumentException {
+        Map<V, E> neighbourMap = new HashMap<>();
+
+        read().csr.forEachNeighbour(v, neighbourMap::put);
+
+        return neighbourMap;
+    }
+
+    @Override
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> action) throws IllegalArgumentException {
+        read().csr.forEachNeighbour(v, action);
+    }
+
+    @Override
+    public int degree(V v) throws IllegalArgumentException {
+        return read().csr.degree(v);
+    }
+
+    /**
+     * Obtain the i-th neighbour of v, for 0 <= i < degree(v).
+     * The order may change whenever the graph is mutated.
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the i-th neighbour of v
+     * @throws IllegalArgumentException  if v is not part of the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
+     */
+    @Override
+    public V neighbour(V v, int i) throws IllegalArgumentException {
+        return read().csr.neighbour(v, i);
+    }
+
+    /**
+     * Obtain the edge between v and neighbour(v, i), for 0 <= i < degree(v).
+     * The order may change whenever the graph is mutated.
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the edge between v and its i-th neighbour
+     * @throws IllegalArgumentException  if v is not part of the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
+     */
+    @Override
+    public E incidentEdge(V v, int i) throws IllegalArgumentException {
+        return read().csr.incidentEdge(v, i);
+    }
+
+    @Override
+    public List<V> shortestPath(V source, V sink) {
+        return read().csr.shortestPath(source, sink);
+    }
+
+    @Override
+    public List<V> shortestPath(V source, V sink, ToDoubleFunction<? super V> heuristic) {
+        return read().csr.shortestPath(source, sink, heuristic);
+    }
+
+    @Override
+    public ShortestPathTree<V> shortestPathTree(V source) {
+        return read().csr.shortestPathTree(source);
+    }
+
+    @Override
+    public int distance(V source, V sink) {
+        return read().csr.distance(source, sink);
+    }
+
+    @Override
+    public int distance(V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound) {
+        return read().csr.distance(source, sink, lowerBound);
+    }
+
+    /**
+     * Obtain the contraction hierarchy of the graph as it is now.
+     * It is built anew for every snapshot, so build it only for a graph that has stopped changing.
+     *
+     * @return a contraction hierarchy of the current snapshot
+     */
+    @Override
+    public ContractionHierarchy<V> contractionHierarchy() {
+        return read().csr.contractionHierarchy();
+    }
+
+    /**
+     * Obtain the biconnectivity of the graph as it is now.
+     * It is found anew for every snapshot and shared by reads of the same snapshot.
+     *
+     * @return the biconnectivity of the current snapshot
+     */
+    @Override
+    public Biconnectivity<V, E> biconnectivity() {
+        return read().csr.biconnectivity();
+    }
+
+    @Override
+    public List<E> minimumSpanningTree() {
+        return read().csr.minimumSpanningTree();
+    }
+
+    @Override
+    public int pathLength(List<V> path) {
+        return read().csr.pathLength(path);
+    }
+
+    @Override
+    public Set<V> search(V v, int range) {
+        return read().csr.search(v, range);
+    }
+
+    @Override
+    public void forEachWithin(V v, int range, Consumer<? super V> consumer) {
+        read().csr.forEachWithin(v, range, consumer);
+    }
+
+    @Override
+    public int diameter() {
+        return read().csr.diameter();
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws IllegalArgumentException {
+        return read().csr.getEdge(v1, v2);
+    }
+}
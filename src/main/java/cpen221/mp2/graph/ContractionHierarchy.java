@@ -0,0 +1,610 @@
+package cpen221.mp2.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A contraction hierarchy over a frozen graph, for answering many point-to-point
+ * shortest path queries on a graph that no longer changes.
+ *
+ * <p>Preprocessing contracts the vertices one at a time, least important first.
+ * Contracting v removes it from the remaining graph and adds a shortcut u-w for every
+ * pair of its remaining neighbours whose only shortest path runs through v. Afterwards
+ * every shortest path has a counterpart that only climbs in contraction order and then
+ * only descends, so a query runs two Dijkstra searches that both move upwards and
+ * meet at the highest vertex of the path. Those searches touch a few dozen vertices
+ * even on large graphs, and shortcuts are expanded back into edges only when a path
+ * is asked for.</p>
+ *
+ * Representation Invariant:
+ * - rank is a permutation of 0..n-1, where n is the number of vertices of graph.
+ * - For every u, the slots upOffsets[u]..upOffsets[u+1]-1 hold the edges and shortcuts
+ *   from u to a vertex w with rank[w] > rank[u]; each such pair appears once.
+ * - upMiddles[j] == -1 if slot j is an edge of graph of length upLengths[j], and otherwise
+ *   is a vertex m of lower rank than both ends such that the u-m and m-w slots exist and
+ *   their lengths add up to upLengths[j].
+ *
+ * Abstraction Function:
+ * Represents the shortest path distances of graph, as the up-down paths of the
+ * hierarchy in which vertex i was contracted rank[i]-th.
+ *
+ * @param <V> represents a vertex type
+ */
+public class ContractionHierarchy<V extends Vertex> {
+
+    /* Witness searches give up after settling this many vertices and keep the shortcut */
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+    /* The cheaper limit used when only estimating how many shortcuts a contraction needs */
+    private static final int SIMULATION_SETTLE_LIMIT = 20;
+
+    private final CsrGraph<V, ?> graph;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upLengths;
+    private final int[] upMiddles;
+    private final int shortcuts;
+    private final ThreadLocal<QueryScratch> scratch;
+
+    /**
+     * Contract every vertex of graph and build the upward search graph.
+     * This takes time roughly linear in the size of sparse, planar graphs
+     * like the universes, but is much slower than a single query.
+     *
+     * @param graph the graph to index
+     */
+    ContractionHierarchy(CsrGraph<V, ?> graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+
+        Contractor contractor = new Contractor(graph);
+        rank = contractor.contractAll();
+        shortcuts = contractor.shortcuts;
+
+        upOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            upOffsets[u + 1] = upOffsets[u] + contractor.upward[u].length;
+        }
+
+        upTargets = new int[upOffsets[n]];
+        upLengths = new int[upOffsets[n]];
+        upMiddles = new int[upOffsets[n]];
+        for (int u = 0; u < n; u++) {
+            int size = contractor.upward[u].length;
+            System.arraycopy(contractor.upward[u], 0, upTargets, upOffsets[u], size);
+            System.arraycopy(contractor.upwardLength[u], 0, upLengths, upOffsets[u], size);
+            System.arraycopy(contractor.upwardMiddle[u], 0, upMiddles, upOffsets[u], size);
+        }
+
+        scratch = ThreadLocal.withInitial(() -> new QueryScratch(n));
+    }
+
+    /**
+     * Obtain the number of shortcuts preprocessing added to the graph
+     *
+     * @return the number of shortcuts
+     */
+    public int shortcutCount() {
+        return shortcuts;
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public int distance(V source, V sink) {
+        QueryScratch sc = scratch.get();
+        query(graph.index(source), graph.index(sink), sc);
+        return sc.best;
+    }
+
+    /**
+     * Compute the shortest path from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public List<V> shortestPath(V source, V sink) {
+        QueryScratch sc = scratch.get();
+        int s = graph.index(source);
+        query(s, graph.index(sink), sc);
+
+        List<V> path = new ArrayList<V>();
+        if (sc.best == Integer.MAX_VALUE) {
+            return path;
+        }
+
+        // the upward chain from source to the meeting vertex, then the downward chain to sink
+        List<Integer> up = new ArrayList<Integer>();
+        for (int i = sc.meet; i != -1; i = sc.predF[i]) {
+            up.add(i);
+        }
+        Collections.reverse(up);
+
+        path.add(source);
+        for (int k = 1; k < up.size(); k++) {
+            unpack(up.get(k - 1), up.get(k), path);
+        }
+        for (int i = sc.meet; sc.predR[i] != -1; i = sc.predR[i]) {
+            unpack(i, sc.predR[i], path);
+        }
+
+        return path;
+    }
+
+    /**
+     * Run the two upward searches from s and t, leaving the length of the shortest
+     * path in sc.best and the vertex where the searches met in sc.meet.
+     *
+     * @param s  the index of the source vertex
+     * @param t  the index of the sink vertex
+     * @param sc the buffers of this thread
+     */
+    private void query(int s, int t, QueryScratch sc) {
+        sc.reset();
+        sc.reachF(s, 0, -1);
+        sc.reachR(t, 0, -1);
+        sc.forward.push(s, 0);
+        sc.reverse.push(t, 0);
+
+        while (!sc.forward.isEmpty() || !sc.reverse.isEmpty()) {
+            boolean isForward = sc.reverse.isEmpty()
+                    || (!sc.forward.isEmpty() && sc.forward.peek() <= sc.reverse.peek());
+            LongHeap queue = isForward ? sc.forward : sc.reverse;
+
+            long top = queue.pop();
+            int d = (int) (top >>> 32);
+            int u = (int) top;
+
+            if (d != (isForward ? sc.distF[u] : sc.distR[u])) {
+                continue; // a stale entry; u was queued again with a shorter distance
+            }
+            if (d >= sc.best) {
+                queue.clear(); // nothing left on this side can improve the best path
+                continue;
+            }
+
+            int other = isForward ? sc.distR(u) : sc.distF(u);
+            if (other != Integer.MAX_VALUE && d + other < sc.best) {
+                sc.best = d + other;
+                sc.meet = u;
+            }
+
+            for (int j = upOffsets[u]; j < upOffsets[u + 1]; j++) {
+                int w = upTargets[j];
+                int distance = d + upLengths[j];
+                int known = isForward ? sc.distF(w) : sc.distR(w);
+
+                if (distance < known) {
+                    if (isForward) {
+                        sc.reachF(w, distance, u);
+                    } else {
+                        sc.reachR(w, distance, u);
+                    }
+                    queue.push(w, distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Append the vertices of the a-b edge or shortcut, after a itself, to path.
+     *
+     * @param a    one end of a slot of the upward graph
+     * @param b    the other end
+     * @param path the path to extend
+     */
+    private void unpack(int a, int b, List<V> path) {
+        // pairs still to expand, the next one on top
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = a;
+        stack[top++] = b;
+
+        while (top > 0) {
+            int y = stack[--top];
+            int x = stack[--top];
+            int m = middle(x, y);
+
+            if (m == -1) {
+                path.add(graph.vertexAt(y));
+            } else {
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[top++] = m;
+                stack[top++] = y;
+                stack[top++] = x;
+                stack[top++] = m;
+            }
+        }
+    }
+
+    /**
+     * Find the vertex a shortcut between x and y skips over
+     *
+     * @param x one end of a slot of the upward graph
+     * @param y the other end
+     * @return the middle vertex of the x-y shortcut, or -1 if x-y is an edge of the graph
+     */
+    private int middle(int x, int y) {
+        int low = rank[x] < rank[y] ? x : y;
+        int high = low == x ? y : x;
+
+        for (int j = upOffsets[low]; j < upOffsets[low + 1]; j++) {
+            if (upTargets[j] == high) {
+                return upMiddles[j];
+            }
+        }
+
+        throw new IllegalStateException("missing slot " + x + "-" + y);
+    }
+
+    /**
+     * The mutable state of preprocessing: the remaining graph with its shortcuts,
+     * the edges of the vertices contracted so far, and the buffers of the witness searches.
+     */
+    private static class Contractor {
+        private final int n;
+        /* adjacent[u][i], for i < degree[u], are the neighbours of u that are not contracted yet */
+        private final int[][] adjacent;
+        private final int[][] length;
+        private final int[][] middle;
+        private final int[] degree;
+        private final int[] contractedNeighbours;
+        /* one more than the highest level of a contracted neighbour, 0 if there is none */
+        private final int[] level;
+        /* once u is contracted, its edges and shortcuts to the vertices contracted after it */
+        private final int[][] upward;
+        private final int[][] upwardLength;
+        private final int[][] upwardMiddle;
+        private int shortcuts;
+
+        /* witness search distances, valid where stamp equals round */
+        private final int[] dist;
+        private final int[] stamp;
+        /* the vertices the running witness search is looking for are marked with round */
+        private final int[] targetStamp;
+        private int round;
+        private final LongHeap heap = new LongHeap();
+
+        Contractor(CsrGraph<?, ?> graph) {
+            n = graph.vertexCount();
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            int[] lengths = graph.lengths();
+
+            adjacent = new int[n][];
+            length = new int[n][];
+            middle = new int[n][];
+            degree = new int[n];
+            for (int u = 0; u < n; u++) {
+                int size = Math.max(4, offsets[u + 1] - offsets[u]);
+                adjacent[u] = new int[size];
+                length[u] = new int[size];
+                middle[u] = new int[size];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    if (targets[j] != u) {
+                        link(u, targets[j], lengths[j], -1);
+                    }
+                }
+            }
+
+            contractedNeighbours = new int[n];
+            level = new int[n];
+            upward = new int[n][];
+            upwardLength = new int[n][];
+            upwardMiddle = new int[n][];
+            dist = new int[n];
+            stamp = new int[n];
+            targetStamp = new int[n];
+        }
+
+        /**
+         * Contract every vertex, always choosing one whose contraction adds the fewest
+         * shortcuts relative to the edges it removes. Priorities are only brought up to
+         * date lazily, by re-evaluating the top vertex and putting it back if it is no
+         * longer the best: re-evaluating every neighbour after each contraction costs
+         * several times as much on Delaunay graphs and barely changes the order.
+         *
+         * @return the position of each vertex in the contraction order
+         */
+        int[] contractAll() {
+            int[] rank = new int[n];
+            int[] current = new int[n];
+            boolean[] done = new boolean[n];
+            LongHeap order = new LongHeap();
+            for (int v = 0; v < n; v++) {
+                current[v] = priority(v);
+                order.push(v, current[v]);
+            }
+
+            int next = 0;
+            while (!order.isEmpty()) {
+                long top = order.pop();
+                int v = (int) top;
+                if (done[v] || (int) (top >> 32) != current[v]) {
+                    continue; // a stale entry
+                }
+
+                current[v] = priority(v);
+                if (!order.isEmpty() && current[v] > (int) (order.peek() >> 32)) {
+                    order.push(v, current[v]);
+                    continue;
+                }
+
+                contract(v, false);
+                done[v] = true;
+                rank[v] = next++;
+            }
+
+            return rank;
+        }
+
+        /**
+         * Twice the edge difference of v, plus the number of its neighbours already contracted
+         * and its level, both of which spread contraction evenly over the graph and keep the
+         * upward searches shallow.
+         */
+        private int priority(int v) {
+            return 2 * (contract(v, true) - degree[v]) + contractedNeighbours[v] + level[v];
+        }
+
+        /**
+         * Contract v: for every pair u, w of remaining neighbours, add a u-w shortcut unless
+         * a witness search finds a path from u to w avoiding v that is no longer than u-v-w.
+         * Then record the remaining edges of v as its upward edges and remove v.
+         *
+         * @param v        the vertex to contract
+         * @param simulate if true, only count the shortcuts and change nothing
+         * @return the number of shortcuts needed
+         */
+        private int contract(int v, boolean simulate) {
+            int count = 0;
+            int[] around = Arrays.copyOf(adjacent[v], degree[v]);
+            int[] lengths = Arrays.copyOf(length[v], degree[v]);
+
+            for (int i = 0; i + 1 < around.length; i++) {
+                int u = around[i];
+
+                int limit = 0;
+                for (int k = i + 1; k < around.length; k++) {
+                    limit = Math.max(limit, lengths[i] + lengths[k]);
+                    targetStamp[around[k]] = round + 1;
+                }
+                witnessSearch(u, v, limit, around.length - i - 1,
+                        simulate ? SIMULATION_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+
+                for (int k = i + 1; k < around.length; k++) {
+                    int w = around[k];
+                    int via = lengths[i] + lengths[k];
+                    if (stamp[w] != round || dist[w] > via) {
+                        count++;
+                        if (!simulate) {
+                            link(u, w, via, v);
+                            link(w, u, via, v);
+                        }
+                    }
+                }
+            }
+
+            if (!simulate) {
+                shortcuts += count;
+                upward[v] = around;
+                upwardLength[v] = lengths;
+                upwardMiddle[v] = Arrays.copyOf(middle[v], degree[v]);
+                for (int u : around) {
+                    unlink(u, v);
+                    contractedNeighbours[u]++;
+                    level[u] = Math.max(level[u], level[v] + 1);
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * Run Dijkstra from u over the remaining graph without v, until every target is
+         * settled, the distance passes limit, or settleLimit vertices are settled.
+         * The targets must be marked with round + 1 in targetStamp.
+         */
+        private void witnessSearch(int u, int v, int limit, int targets, int settleLimit) {
+            round++;
+            heap.clear();
+            dist[u] = 0;
+            stamp[u] = round;
+            heap.push(u, 0);
+
+            int settled = 0;
+            while (!heap.isEmpty() && settled < settleLimit && targets > 0) {
+                long top = heap.pop();
+                int d = (int) (top >>> 32);
+                int x = (int) top;
+
+                if (d != dist[x]) {
+                    continue;
+                }
+                if (d > limit) {
+                    break;
+                }
+                settled++;
+                if (targetStamp[x] == round) {
+                    targets--;
+                }
+
+                for (int i = 0; i < degree[x]; i++) {
+                    int y = adjacent[x][i];
+                    int distance = d + length[x][i];
+                    if (y != v && distance <= limit && (stamp[y] != round || distance < dist[y])) {
+                        dist[y] = distance;
+                        stamp[y] = round;
+                        heap.push(y, distance);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Record a u-w edge of length len with the given middle vertex in the adjacency of u,
+         * keeping only the shorter one if u and w are already adjacent.
+         */
+        private void link(int u, int w, int len, int mid) {
+            for (int i = 0; i < degree[u]; i++) {
+                if (adjacent[u][i] == w) {
+                    if (len < length[u][i]) {
+                        length[u][i] = len;
+                        middle[u][i] = mid;
+                    }
+                    return;
+                }
+            }
+
+            if (degree[u] == adjacent[u].length) {
+                adjacent[u] = Arrays.copyOf(adjacent[u], 2 * degree[u]);
+                length[u] = Arrays.copyOf(length[u], 2 * degree[u]);
+                middle[u] = Arrays.copyOf(middle[u], 2 * degree[u]);
+            }
+            adjacent[u][degree[u]] = w;
+            length[u][degree[u]] = len;
+            middle[u][degree[u]] = mid;
+            degree[u]++;
+        }
+
+        /**
+         * Remove w from the adjacency of u
+         */
+        private void unlink(int u, int w) {
+            for (int i = 0; i < degree[u]; i++) {
+                if (adjacent[u][i] == w) {
+                    degree[u]--;
+                    adjacent[u][i] = adjacent[u][degree[u]];
+                    length[u][i] = length[u][degree[u]];
+                    middle[u][i] = middle[u][degree[u]];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Buffers for the two searches of a query, kept per thread so that queries
+     * do not allocate per vertex and concurrent readers do not interfere.
+     * An entry of distF, predF, distR or predR is only valid while the matching
+     * stamp equals the current query number.
+     */
+    private static class QueryScratch {
+        private final int[] distF;
+        private final int[] predF;
+        private final int[] stampF;
+        private final int[] distR;
+        private final int[] predR;
+        private final int[] stampR;
+        private final LongHeap forward = new LongHeap();
+        private final LongHeap reverse = new LongHeap();
+        private int query;
+        private int best;
+        private int meet;
+
+        QueryScratch(int n) {
+            distF = new int[n];
+            predF = new int[n];
+            stampF = new int[n];
+            distR = new int[n];
+            predR = new int[n];
+            stampR = new int[n];
+        }
+
+        void reset() {
+            query++;
+            forward.clear();
+            reverse.clear();
+            best = Integer.MAX_VALUE;
+            meet = -1;
+        }
+
+        int distF(int u) {
+            return stampF[u] == query ? distF[u] : Integer.MAX_VALUE;
+        }
+
+        int distR(int u) {
+            return stampR[u] == query ? distR[u] : Integer.MAX_VALUE;
+        }
+
+        void reachF(int u, int d, int pred) {
+            stampF[u] = query;
+            distF[u] = d;
+            predF[u] = pred;
+        }
+
+        void reachR(int u, int d, int pred) {
+            stampR[u] = query;
+            distR[u] = d;
+            predR[u] = pred;
+        }
+    }
+
+    /**
+     * A binary min-heap of (key, vertex) pairs packed into longs as key << 32 | vertex,
+     * so that entries compare by key first. Stale entries are not removed; callers
+     * skip them when popped.
+     */
+    private static class LongHeap {
+        private long[] heap = new long[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void push(int vertex, int key) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, 2 * size);
+            }
+            long entry = ((long) key << 32) | vertex;
+            int k = size++;
+            while (k > 0 && heap[(k - 1) >>> 1] > entry) {
+                heap[k] = heap[(k - 1) >>> 1];
+                k = (k - 1) >>> 1;
+            }
+            heap[k] = entry;
+        }
+
+        long pop() {
+            long result = heap[0];
+            long last = heap[--size];
+            int k = 0;
+            while (2 * k + 1 < size) {
+                int child = 2 * k + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) {
+                    break;
+                }
+                heap[k] = heap[child];
+                k = child;
+            }
+            heap[k] = last;
+            return result;
+        }
+    }
+}
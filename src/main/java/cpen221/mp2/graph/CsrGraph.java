@@ -0,0 +1,1005 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.IntIndexedHeap;
+import cpen221.mp2.util.IntPriorityQueue;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Dependencies: Vertex.java, Edge.java
+ *
+ * Represents an immutable snapshot of a graph in compressed-sparse-row (CSR) form.
+ * Vertices are compacted to dense indices 0..n-1 and adjacency is stored in
+ * primitive arrays so that read-heavy algorithms do not allocate per edge visited.
+ *
+ * Representation Invariant:
+ * - vertices has length n and contains no null and no two vertices with the same id.
+ * - indexOf maps vertices[i] to i for every i in 0..n-1 and contains nothing else.
+ * - offsets has length n + 1, offsets[0] == 0, offsets[n] == 2m and offsets is non-decreasing.
+ * - targets, lengths, slotEdges and slotEdgeIds all have length 2m.
+ * - For every i and every slot j in offsets[i]..offsets[i+1]-1,
+ *   slotEdges[j] connects vertices[i] and vertices[targets[j]] and lengths[j] == slotEdges[j].length().
+ * - edges contains each of the m edges exactly once, and slotEdges[j] == edges.get(slotEdgeIds[j]).
+ * - edges.get(k) connects vertices[edgeEnds[2k]] and vertices[edgeEnds[2k+1]].
+ * - edgesByRank lists 0..m-1 in increasing order of (length, hash code, position in edges)
+ *   and edgeRank is its inverse permutation.
+ *
+ * Abstraction Function:
+ * Represents a graph with vertex set {vertices[0], ..., vertices[n-1]}.
+ * The neighbours of vertices[i] are vertices[targets[j]] for j in offsets[i]..offsets[i+1]-1,
+ * and the edge between them is slotEdges[j].
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class CsrGraph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E> {
+
+    private final V[] vertices;
+    private final Map<V, Integer> indexOf;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] lengths;
+    private final E[] slotEdges;
+    private final int[] slotEdgeIds;
+    private final List<E> edges;
+    private final int[] edgeEnds;
+    private final int[] edgesByRank;
+    private final int[] edgeRank;
+    private final int maxEdgeLength;
+    private final ThreadLocal<SearchScratch> searchScratch;
+    private final ThreadLocal<PathScratch> pathScratch;
+    /* Built on first use; null until then */
+    private volatile ContractionHierarchy<V> contractionHierarchy;
+    /* Built on first use; null until then */
+    private volatile Biconnectivity<V, E> biconnectivity;
+    /* Built on first use; null until then */
+    private volatile EccentricityEngine<V> eccentricityEngine;
+
+    /**
+     * Build a CSR snapshot of the given vertices and edges.
+     * Vertices are indexed in increasing order of id.
+     *
+     * @param vertexSet the vertices of the graph, none of which share an id
+     * @param edgeSet   the edges of the graph, each of which connects two vertices in vertexSet
+     */
+    @SuppressWarnings("unchecked")
+    CsrGraph(Collection<V> vertexSet, Collection<E> edgeSet) {
+        int n = vertexSet.size();
+        int m = edgeSet.size();
+
+        vertices = (V[]) new Vertex[n];
+        vertexSet.toArray(vertices);
+        Arrays.sort(vertices, Comparator.comparingInt(Vertex::id));
+
+        indexOf = new HashMap<V, Integer>();
+        for (int i = 0; i < n; i++) {
+            indexOf.put(vertices[i], i);
+        }
+
+        edges = new ArrayList<E>(edgeSet);
+
+        // count the degree of each vertex, then turn the counts into offsets
+        offsets = new int[n + 1];
+        for (E edge : edges) {
+            offsets[index(edge.v1()) + 1]++;
+            offsets[index(edge.v2()) + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        targets = new int[2 * m];
+        lengths = new int[2 * m];
+        slotEdges = (E[]) new Edge<?>[2 * m];
+        slotEdgeIds = new int[2 * m];
+        edgeEnds = new int[2 * m];
+
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int k = 0; k < m; k++) {
+            E edge = edges.get(k);
+            int a = index(edge.v1());
+            int b = index(edge.v2());
+            edgeEnds[2 * k] = a;
+            edgeEnds[2 * k + 1] = b;
+
+            int slot = next[a]++;
+            targets[slot] = b;
+            lengths[slot] = edge.length();
+            slotEdges[slot] = edge;
+            slotEdgeIds[slot] = k;
+
+            slot = next[b]++;
+            targets[slot] = a;
+            lengths[slot] = edge.length();
+            slotEdges[slot] = edge;
+            slotEdgeIds[slot] = k;
+        }
+
+        searchScratch = ThreadLocal.withInitial(() -> new SearchScratch(n));
+        pathScratch = ThreadLocal.withInitial(() -> new PathScratch(n));
+
+        int longest = 0;
+        for (int k = 0; k < m; k++) {
+            longest = Math.max(longest, edges.get(k).length());
+        }
+        maxEdgeLength = longest;
+
+        // rank the edges once so that every spanning tree algorithm breaks ties the same way
+        Integer[] order = new Integer[m];
+        for (int k = 0; k < m; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(k -> edges.get(k).length())
+                .thenComparingInt(k -> edges.get(k).hashCode()));
+        edgesByRank = new int[m];
+        edgeRank = new int[m];
+        for (int r = 0; r < m; r++) {
+            edgesByRank[r] = order[r];
+            edgeRank[order[r]] = r;
+        }
+    }
+
+    /**
+     * Obtain the number of vertices in this graph
+     *
+     * @return the number of vertices in this graph
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Obtain the number of edges in this graph
+     *
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return edges.size();
+    }
+
+    /**
+     * Obtain the vertex with a given dense index
+     *
+     * @param i the index of the vertex, 0 <= i < vertexCount()
+     * @return the vertex with index i
+     */
+    V vertexAt(int i) {
+        return vertices[i];
+    }
+
+    /**
+     * Obtain the edge with a given index
+     *
+     * @param k the index of the edge, 0 <= k < edgeCount()
+     * @return the edge with index k
+     */
+    E edgeAt(int k) {
+        return edges.get(k);
+    }
+
+    /*
+     * The accessors below expose the internal arrays to the algorithms in this
+     * package without copying them. Callers must not modify the arrays.
+     */
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    int[] lengths() {
+        return lengths;
+    }
+
+    int[] slotEdgeIds() {
+        return slotEdgeIds;
+    }
+
+    int[] edgeEnds() {
+        return edgeEnds;
+    }
+
+    int[] edgesByRank() {
+        return edgesByRank;
+    }
+
+    int[] edgeRank() {
+        return edgeRank;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true if v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return indexOf.containsKey(v);
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true if v1 and v2 are part of the graph and joined by an edge, false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        Integer a = indexOf.get(v1);
+        Integer b = indexOf.get(v2);
+
+        return a != null && b != null && slot(a, b) != -1;
+    }
+
+    /**
+     * Find the dense index of a vertex
+     *
+     * @param v the vertex of interest
+     * @return the index of v in this graph
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    int index(V v) throws IllegalArgumentException {
+        Integer i = indexOf.get(v);
+
+        if (i == null) {
+            throw new IllegalArgumentException();
+        }
+
+        return i;
+    }
+
+    /**
+     * Find the slot that holds the v1-v2 edge in the adjacency of v1
+     *
+     * @param a the index of the first vertex
+     * @param b the index of the second vertex
+     * @return the slot of the edge, or -1 if a and b are not adjacent
+     */
+    private int slot(int a, int b) {
+        for (int j = offsets[a]; j < offsets[a + 1]; j++) {
+            if (targets[j] == b) {
+                return j;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Compute the shortest path from source to sink using Dijkstra's algorithm
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink) {
+        int s = index(source);
+        int t = index(sink);
+        PathScratch scratch = pathScratch.get();
+
+        try {
+            astar(s, t, null, scratch);
+            return pathTo(t, scratch);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    /**
+     * Compute the shortest path from source to sink with A* search
+     *
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic a lower bound on the distance from each vertex to sink
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink, ToDoubleFunction<? super V> heuristic) {
+        return findPath(source, sink, heuristic).path();
+    }
+
+    /**
+     * Compute the shortest path from source to sink with A* search, and count how
+     * many vertices the search expanded. A heuristic of zero everywhere turns the
+     * search into Dijkstra's algorithm, which is the baseline for that count.
+     *
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic a lower bound on the distance from each vertex to sink.
+     *                  It must not start another search of this graph.
+     * @return the shortest path, its length and the number of expanded vertices
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public PathResult<V> findPath(V source, V sink, ToDoubleFunction<? super V> heuristic) {
+        int s = index(source);
+        int t = index(sink);
+        PathScratch scratch = pathScratch.get();
+
+        try {
+            int expanded = astar(s, t, heuristic, scratch);
+            return new PathResult<V>(pathTo(t, scratch), scratch.dist[t], expanded);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    /**
+     * Run A* search from the vertex with index s until the vertex with index t is settled.
+     * Vertices are ordered by their distance from s plus the heuristic estimate of their
+     * distance to t. The heuristic is evaluated at most once per vertex. A vertex that is
+     * reached by a shorter path after it was expanded is queued again, so an admissible
+     * heuristic that is not consistent still gives a shortest path. Without a heuristic
+     * this is Dijkstra's algorithm, making the same calls on the heap as dijkstra.
+     *
+     * @param s         the index of the source vertex
+     * @param t         the index of the sink vertex
+     * @param heuristic a lower bound on the distance from each vertex to t, or null.
+     *                  It must not start another search of this graph.
+     * @param scratch   clean buffers of the calling thread, filled with the distances and
+     *                  predecessors of the reached vertices; the caller must reset them
+     * @return the number of vertices expanded
+     */
+    private int astar(int s, int t, ToDoubleFunction<? super V> heuristic, PathScratch scratch) {
+        int[] dist = scratch.dist;
+        double[] estimate = heuristic == null ? null : scratch.estimates();
+        boolean[] expanded = scratch.expanded;
+        IntIndexedHeap queue = scratch.queue;
+        int count = 0;
+
+        scratch.reach(s, 0, -1);
+        if (estimate != null) {
+            estimate[s] = heuristic.applyAsDouble(vertices[s]);
+        }
+        queue.add(s, estimate == null ? 0 : estimate[s]);
+
+        while (queue.size() > 0) {
+            int u = queue.poll();
+            expanded[u] = true;
+            count++;
+
+            if (u == t) {
+                break;
+            }
+
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int w = targets[j];
+                int distance = dist[u] + lengths[j];
+
+                if (distance < dist[w]) {
+                    double h = 0;
+                    if (estimate != null) {
+                        if (Double.isNaN(estimate[w])) {
+                            estimate[w] = heuristic.applyAsDouble(vertices[w]);
+                        }
+                        h = estimate[w];
+                    }
+                    if (dist[w] == Integer.MAX_VALUE || expanded[w]) {
+                        expanded[w] = false;
+                        queue.add(w, distance + h);
+                    } else {
+                        queue.updatePriority(w, distance + h);
+                    }
+                    scratch.reach(w, distance, u);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Read the path to the vertex with index t out of the predecessors of a search.
+     *
+     * @param t       the index of the end vertex
+     * @param scratch the buffers of a search that has settled t or run out of vertices
+     * @return the vertices, in order, on the path from the source of the search to t,
+     * or an empty list if the search did not reach t
+     */
+    private List<V> pathTo(int t, PathScratch scratch) {
+        List<V> path = new ArrayList<V>();
+
+        if (scratch.dist[t] != Integer.MAX_VALUE) {
+            for (int i = t; i != -1; i = scratch.pred[i]) {
+                path.add(vertices[i]);
+            }
+            Collections.reverse(path);
+        }
+
+        return path;
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink with bidirectional Dijkstra
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public int distance(V source, V sink) {
+        return bidirectionalPath(source, sink).length();
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink with bidirectional A* search
+     *
+     * @param source     the start vertex
+     * @param sink       the end vertex
+     * @param lowerBound a symmetric, consistent lower bound on the distance between two vertices
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public int distance(V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound) {
+        return bidirectionalPath(source, sink, lowerBound).length();
+    }
+
+    /**
+     * Compute the shortest path from source to sink with bidirectional Dijkstra,
+     * and count how many vertices the two searches expanded between them.
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the shortest path, its length and the number of expanded vertices
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public PathResult<V> bidirectionalPath(V source, V sink) {
+        return bidirectionalPath(source, sink, (v, w) -> 0);
+    }
+
+    /**
+     * Compute the shortest path from source to sink by growing one search out of source and
+     * another into sink until they meet, and count how many vertices they expanded between them.
+     *
+     * <p>Both searches are A* searches on the average potential
+     * p(v) = (lowerBound(v, sink) - lowerBound(source, v)) / 2: the forward search orders vertices
+     * by their distance from source plus p, the reverse search by their distance to sink minus p.
+     * Because the two potentials sum to zero, the usual stopping rule for bidirectional Dijkstra
+     * still holds: once the smallest keys of the two queues add up to at least the best path seen,
+     * no shorter path exists. A lower bound of zero everywhere gives plain bidirectional Dijkstra.</p>
+     *
+     * @param source     the start vertex
+     * @param sink       the end vertex
+     * @param lowerBound a symmetric lower bound on the distance between two vertices, such that
+     *                   lowerBound(u, x) and lowerBound(w, x) differ by at most the length of any u-w edge.
+     *                   It must not start another search of this graph.
+     * @return the shortest path, its length and the number of expanded vertices
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    public PathResult<V> bidirectionalPath(V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound) {
+        int s = index(source);
+        int t = index(sink);
+        PathScratch forward = pathScratch.get();
+        PathScratch reverse = forward.reverse();
+
+        try {
+            return bidirectional(s, t, lowerBound, forward, reverse);
+        } finally {
+            forward.reset();
+            reverse.reset();
+        }
+    }
+
+    /**
+     * Run the two searches of bidirectionalPath between the vertices with indices s and t.
+     * Each side keeps the potentials of the vertices it reaches, so that resetting
+     * its buffers clears them.
+     *
+     * @param s          the index of the source vertex
+     * @param t          the index of the sink vertex
+     * @param lowerBound a lower bound on the distance between two vertices.
+     *                   It must not start another search of this graph.
+     * @param forward    clean buffers for the search out of s; the caller must reset them
+     * @param reverse    clean buffers for the search into t; the caller must reset them
+     * @return the shortest path, its length and the number of expanded vertices
+     */
+    private PathResult<V> bidirectional(int s, int t, ToDoubleBiFunction<? super V, ? super V> lowerBound,
+                                        PathScratch forward, PathScratch reverse) {
+        V source = vertices[s];
+        V sink = vertices[t];
+        double[] potentialF = forward.estimates();
+        double[] potentialR = reverse.estimates();
+
+        forward.reach(s, 0, -1);
+        reverse.reach(t, 0, -1);
+        forward.queue.add(s, potential(s, source, sink, lowerBound, potentialF));
+        reverse.queue.add(t, -potential(t, source, sink, lowerBound, potentialR));
+
+        // best is the length of the shortest path found so far, through meet
+        int best = s == t ? 0 : Integer.MAX_VALUE;
+        int meet = s == t ? s : -1;
+        int expanded = 0;
+
+        while (forward.queue.size() > 0 && reverse.queue.size() > 0) {
+            double topF = forward.queue.peekPriority();
+            double topR = reverse.queue.peekPriority();
+
+            if (best != Integer.MAX_VALUE && topF + topR >= best) {
+                break;
+            }
+
+            boolean isForward = topF <= topR;
+            PathScratch side = isForward ? forward : reverse;
+            int[] dist = side.dist;
+            int[] other = isForward ? reverse.dist : forward.dist;
+            double[] potential = isForward ? potentialF : potentialR;
+            double sign = isForward ? 1 : -1;
+
+            int u = side.queue.poll();
+            expanded++;
+
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int w = targets[j];
+                int distance = dist[u] + lengths[j];
+
+                if (distance < dist[w]) {
+                    double key = distance + sign * potential(w, source, sink, lowerBound, potential);
+                    if (dist[w] == Integer.MAX_VALUE) {
+                        side.queue.add(w, key);
+                    } else {
+                        side.queue.updatePriority(w, key);
+                    }
+                    side.reach(w, distance, u);
+
+                    if (other[w] != Integer.MAX_VALUE && distance + other[w] < best) {
+                        best = distance + other[w];
+                        meet = w;
+                    }
+                }
+            }
+        }
+
+        List<V> path = new ArrayList<V>();
+        if (best != Integer.MAX_VALUE) {
+            for (int i = meet; i != -1; i = forward.pred[i]) {
+                path.add(vertices[i]);
+            }
+            Collections.reverse(path);
+            for (int i = reverse.pred[meet]; i != -1; i = reverse.pred[i]) {
+                path.add(vertices[i]);
+            }
+        }
+
+        return new PathResult<V>(path, best, expanded);
+    }
+
+    /**
+     * Obtain the average potential of the vertex with index w, evaluating it on first use.
+     *
+     * @param w          the index of the vertex
+     * @param source     the start vertex of the query
+     * @param sink       the end vertex of the query
+     * @param lowerBound a lower bound on the distance between two vertices
+     * @param cache      the potentials evaluated so far on one side, NaN where not yet evaluated
+     * @return (lowerBound(w, sink) - lowerBound(source, w)) / 2
+     */
+    private double potential(int w, V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound,
+                             double[] cache) {
+        if (Double.isNaN(cache[w])) {
+            cache[w] = (lowerBound.applyAsDouble(vertices[w], sink) - lowerBound.applyAsDouble(source, vertices[w])) / 2;
+        }
+
+        return cache[w];
+    }
+
+    /**
+     * Obtain a contraction hierarchy of this graph for fast point-to-point queries.
+     * It is built on the first call, which is slow, and shared by every later call.
+     *
+     * @return the contraction hierarchy of this graph
+     */
+    @Override
+    public ContractionHierarchy<V> contractionHierarchy() {
+        ContractionHierarchy<V> hierarchy = contractionHierarchy;
+
+        if (hierarchy == null) {
+            synchronized (this) {
+                hierarchy = contractionHierarchy;
+                if (hierarchy == null) {
+                    hierarchy = new ContractionHierarchy<V>(this);
+                    contractionHierarchy = hierarchy;
+                }
+            }
+        }
+
+        return hierarchy;
+    }
+
+    /**
+     * Obtain the bridges, articulation points and biconnected components of this graph.
+     * They are found on the first call and shared by every later call.
+     *
+     * @return the biconnectivity of this graph
+     */
+    @Override
+    public Biconnectivity<V, E> biconnectivity() {
+        Biconnectivity<V, E> analysis = biconnectivity;
+
+        if (analysis == null) {
+            synchronized (this) {
+                analysis = biconnectivity;
+                if (analysis == null) {
+                    analysis = new Biconnectivity<V, E>(this);
+                    biconnectivity = analysis;
+                }
+            }
+        }
+
+        return analysis;
+    }
+
+    /**
+     * Compute every shortest path out of source with a single run of Dijkstra's algorithm
+     *
+     * @param source the start vertex
+     * @return the shortest path tree rooted at source
+     * @throws IllegalArgumentException if source is not part of the graph
+     */
+    @Override
+    public ShortestPathTree<V> shortestPathTree(V source) {
+        return shortestPathTree(source, PriorityQueueStrategy.DEFAULT);
+    }
+
+    /**
+     * Compute every shortest path out of source with a single run of Dijkstra's algorithm,
+     * using the given priority queue. Distances do not depend on the queue, but when several
+     * shortest paths exist the tree may pick a different one.
+     *
+     * @param source   the start vertex
+     * @param strategy the priority queue to order the search with
+     * @return the shortest path tree rooted at source
+     * @throws IllegalArgumentException if source is not part of the graph
+     */
+    public ShortestPathTree<V> shortestPathTree(V source, PriorityQueueStrategy strategy) {
+        int s = index(source);
+
+        int[] dist = new int[vertices.length];
+        int[] pred = new int[vertices.length];
+
+        dijkstra(s, -1, dist, pred, strategy);
+
+        return new ShortestPathTree<V>(vertices, indexOf, s, dist, pred);
+    }
+
+    /**
+     * Run Dijkstra's algorithm from the vertex with index s with the default priority queue.
+     * The search stops as soon as the vertex with index t is settled;
+     * pass t = -1 to compute distances to every vertex.
+     *
+     * @param s    the index of the source vertex
+     * @param t    the index of the sink vertex, or -1
+     * @param dist filled with the distance from s to each vertex, Integer.MAX_VALUE if unreachable
+     * @param pred filled with the index of the previous vertex on the shortest path, -1 for none
+     */
+    void dijkstra(int s, int t, int[] dist, int[] pred) {
+        dijkstra(s, t, dist, pred, PriorityQueueStrategy.DEFAULT);
+    }
+
+    /**
+     * Run Dijkstra's algorithm from the vertex with index s.
+     * The search stops as soon as the vertex with index t is settled;
+     * pass t = -1 to compute distances to every vertex. The queue belongs to the
+     * calling thread and is emptied before returning, so a batch of searches allocates none.
+     *
+     * @param s        the index of the source vertex
+     * @param t        the index of the sink vertex, or -1
+     * @param dist     filled with the distance from s to each vertex, Integer.MAX_VALUE if unreachable
+     * @param pred     filled with the index of the previous vertex on the shortest path, -1 for none
+     * @param strategy the priority queue to order the search with
+     */
+    void dijkstra(int s, int t, int[] dist, int[] pred, PriorityQueueStrategy strategy) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(pred, -1);
+
+        IntPriorityQueue queue = searchScratch.get().queue(strategy, vertices.length, maxEdgeLength);
+        dist[s] = 0;
+        queue.add(s, 0);
+
+        try {
+            while (queue.size() > 0) {
+                int u = queue.poll();
+
+                if (u == t) {
+                    return;
+                }
+
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    int w = targets[j];
+                    int distance = dist[u] + lengths[j];
+
+                    if (distance < dist[w]) {
+                        if (dist[w] == Integer.MAX_VALUE) {
+                            queue.add(w, distance);
+                        } else {
+                            queue.decreasePriority(w, distance);
+                        }
+                        dist[w] = distance;
+                        pred[w] = u;
+                    }
+                }
+            }
+        } finally {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Compute the minimum spanning tree of the graph with the default algorithm.
+     * Edges of equal length are ranked by their hash codes.
+     * If the graph is disconnected, a minimum spanning forest is returned.
+     *
+     * @return a list of edges that forms a minimum spanning tree of the graph, in increasing order of rank
+     */
+    @Override
+    public List<E> minimumSpanningTree() {
+        return minimumSpanningTree(MstAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Compute the minimum spanning tree of the graph with the given algorithm.
+     * Every algorithm returns the same list of edges.
+     * If the graph is disconnected, a minimum spanning forest is returned.
+     *
+     * @param algorithm the algorithm to use
+     * @return a list of edges that forms a minimum spanning tree of the graph, in increasing order of rank
+     */
+    public List<E> minimumSpanningTree(MstAlgorithm algorithm) {
+        return algorithm.spanningForest(this);
+    }
+
+    /**
+     * Compute the length of a given path
+     *
+     * @param path indicates the vertices on the given path. Each pair of
+     *             contiguous Vertexes in path must form an edge within graph.
+     * @return the length of path.
+     * @throws IllegalArgumentException if two contiguous vertices in path do not form an edge
+     */
+    @Override
+    public int pathLength(List<V> path) {
+        int totalLength = 0;
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            int j = slot(index(path.get(i)), index(path.get(i + 1)));
+
+            if (j == -1) {
+                throw new IllegalArgumentException();
+            }
+
+            totalLength += lengths[j];
+        }
+
+        return totalLength;
+    }
+
+    /**
+     * Obtain all vertices w that are no more than range edges away from v.
+     *
+     * @param v     the vertex to start the search from.
+     *              v must exist in the graph.
+     * @param range the radius of the search. range >= 1
+     * @return a set of vertices that are within range of v (this set does not contain v).
+     */
+    @Override
+    public Set<V> search(V v, int range) {
+        Set<V> vertexSet = new HashSet<V>();
+
+        forEachWithin(v, range, vertexSet::add);
+
+        return vertexSet;
+    }
+
+    /**
+     * Pass every vertex that is no more than range edges away from v to consumer,
+     * nearest levels first. This runs a level-synchronous breadth-first search
+     * using a visited bitset and frontier array that are reused between calls on the same thread.
+     *
+     * @param v        the vertex to start the search from.
+     *                 v must exist in the graph.
+     * @param range    the radius of the search. range >= 1
+     * @param consumer receives each vertex within range of v exactly once (v itself is not passed).
+     *                 It must not start another search of this graph.
+     */
+    @Override
+    public void forEachWithin(V v, int range, Consumer<? super V> consumer) {
+        int s = index(v);
+        SearchScratch scratch = searchScratch.get();
+        long[] visited = scratch.visited;
+        int[] order = scratch.order;
+
+        // order[levelStart..levelEnd-1] is the current frontier, and everything
+        // before levelStart has been expanded already
+        int levelStart = 0;
+        int levelEnd = 1;
+        int tail = 1;
+        order[0] = s;
+        visited[s >>> 6] |= 1L << s;
+
+        try {
+            for (int level = 0; level < range && levelStart < levelEnd; level++) {
+                for (int q = levelStart; q < levelEnd; q++) {
+                    int u = order[q];
+
+                    for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                        int w = targets[j];
+
+                        if ((visited[w >>> 6] & (1L << w)) == 0) {
+                            visited[w >>> 6] |= 1L << w;
+                            order[tail++] = w;
+                            consumer.accept(vertices[w]);
+                        }
+                    }
+                }
+                levelStart = levelEnd;
+                levelEnd = tail;
+            }
+        } finally {
+            // clear only the bits this search set
+            for (int q = 0; q < tail; q++) {
+                visited[order[q] >>> 6] = 0;
+            }
+        }
+    }
+
+    /**
+     * Compute the diameter of the graph by finding the
+     * length of the longest shortest path in the graph.
+     * The per-source searches run in parallel on the common pool, once;
+     * later calls reuse the eccentricities they found.
+     *
+     * @return the diameter of the graph, or Integer.MAX_VALUE if the graph has no edges.
+     */
+    @Override
+    public int diameter() {
+        EccentricityEngine<V> engine = eccentricityEngine;
+
+        if (engine == null) {
+            synchronized (this) {
+                engine = eccentricityEngine;
+                if (engine == null) {
+                    engine = new EccentricityEngine<V>(this);
+                    eccentricityEngine = engine;
+                }
+            }
+        }
+
+        return engine.diameter();
+    }
+
+    /**
+     * Find the edge that connects two vertices if such an edge exists.
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the edge connecting v1 and v2.
+     * @throws IllegalArgumentException if v1, v2 don't form an edge in the graph
+     */
+    @Override
+    public E getEdge(V v1, V v2) throws IllegalArgumentException {
+        int j = slot(index(v1), index(v2));
+
+        if (j == -1) {
+            throw new IllegalArgumentException();
+        }
+
+        return slotEdges[j];
+    }
+
+    /**
+     * Pass each neighbour of v, together with the edge that joins it to v, to action.
+     * Reads the adjacency arrays directly, so nothing is allocated.
+     *
+     * @param v      is the vertex whose neighbourhood we want.
+     * @param action receives each vertex w that neighbors v and the edge between v and w.
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    @Override
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> action) throws IllegalArgumentException {
+        int u = index(v);
+
+        for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+            action.accept(vertices[targets[j]], slotEdges[j]);
+        }
+    }
+
+    /**
+     * Obtain the number of neighbours of v.
+     *
+     * @param v the vertex of interest
+     * @return the number of edges incident on v
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    @Override
+    public int degree(V v) throws IllegalArgumentException {
+        int u = index(v);
+        return offsets[u + 1] - offsets[u];
+    }
+
+    /**
+     * Obtain the i-th neighbour of v, for 0 <= i < degree(v).
+     * The order is fixed for the lifetime of this graph.
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the i-th neighbour of v
+     * @throws IllegalArgumentException  if v is not part of the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
+     */
+    public V neighbour(V v, int i) throws IllegalArgumentException {
+        return vertices[targets[cursor(v, i)]];
+    }
+
+    /**
+     * Obtain the edge between v and neighbour(v, i), for 0 <= i < degree(v).
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the edge between v and its i-th neighbour
+     * @throws IllegalArgumentException  if v is not part of the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
+     */
+    public E incidentEdge(V v, int i) throws IllegalArgumentException {
+        return slotEdges[cursor(v, i)];
+    }
+
+    /**
+     * Find the slot of the i-th neighbour of v
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the slot that holds the i-th neighbour of v
+     * @throws IllegalArgumentException  if v is not part of the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
+     */
+    private int cursor(V v, int i) throws IllegalArgumentException {
+        int u = index(v);
+
+        if (i < 0 || i >= offsets[u + 1] - offsets[u]) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return offsets[u] + i;
+    }
+
+    /**
+     * Buffers for breadth-first search and Dijkstra's algorithm, kept per thread so that
+     * searches do not allocate and concurrent readers do not interfere.
+     */
+    private static class SearchScratch {
+        /* Bit w is set iff vertex w has been reached by the running search; all clear between searches */
+        private final long[] visited;
+        /* The vertices reached by the running search, in the order they were reached */
+        private final int[] order;
+        /* The queue of each strategy, by ordinal, created on first use; all empty between searches */
+        private final IntPriorityQueue[] queues;
+
+        SearchScratch(int n) {
+            visited = new long[(n + 63) >>> 6];
+            order = new int[n];
+            queues = new IntPriorityQueue[PriorityQueueStrategy.values().length];
+        }
+
+        /**
+         * Obtain the empty queue of strategy, creating it on first use.
+         */
+        IntPriorityQueue queue(PriorityQueueStrategy strategy, int capacity, int maxEdgeLength) {
+            if (queues[strategy.ordinal()] == null) {
+                queues[strategy.ordinal()] = strategy.create(capacity, maxEdgeLength);
+            }
+            return queues[strategy.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package cpen221.mp2.graph;
+
+import java.util.*;
+
+/**
+ * Dijkstra's algorithm over the adjacency lists of a Graph with Dial's bucket queue
+ * in place of a binary heap. Edge lengths are non-negative ints no longer than
+ * maxEdgeLength, so every queued distance lies within maxEdgeLength of the one being
+ * settled, and a ring of maxEdgeLength + 1 buckets indexed by distance replaces the heap.
+ * A search then costs O(m + D), where D is the distance to the furthest vertex settled.
+ * An instance keeps its ring between searches, so it must only be used by one thread.
+ *
+ * <p>Vertices at equal distance are settled in a different order than with a heap, so
+ * where several shortest paths exist the search may find a different one.
+ * uniquePath tells when that cannot have happened.</p>
+ *
+ * Representation Invariant:
+ * - neighbours and incident hold the adjacency of the same graph, with
+ *   incident.get(v).get(i) the edge between v and neighbours.get(v).get(i)
+ * - ring is null or has length at least 1 + the length of every edge in incident,
+ *   and every bucket of it is null or empty between searches
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+class DialSearch<V extends Vertex, E extends Edge<V>> {
+
+    private final Map<V, List<V>> neighbours;
+    private final Map<V, List<E>> incident;
+    /* The buckets, indexed by distance modulo their number; allocated by the first search */
+    private List<V>[] ring;
+
+    /**
+     * Create a search over the live adjacency of a graph.
+     *
+     * @param neighbours each vertex mapped to its neighbours
+     * @param incident   each vertex mapped to its edges, in the order of its neighbours
+     */
+    DialSearch(Map<V, List<V>> neighbours, Map<V, List<E>> incident) {
+        this.neighbours = neighbours;
+        this.incident = incident;
+    }
+
+    /**
+     * Compute shortest distances from source, stopping once sink has been settled.
+     * A vertex is queued again each time its distance improves and the stale
+     * entries are skipped when their bucket comes up.
+     *
+     * @param maxEdgeLength  at least the length of every edge, maxEdgeLength >= 0
+     * @param source         the start vertex
+     * @param sink           the vertex at which to stop, or null to settle every reachable vertex
+     * @param distFromSource filled with each reached vertex and its distance from source
+     * @param previous       filled with each reached vertex (other than source) and the vertex before it on the shortest path
+     */
+    @SuppressWarnings("unchecked")
+    void search(int maxEdgeLength, V source, V sink, Map<V, Integer> distFromSource, Map<V, V> previous) {
+        if (ring == null || ring.length <= maxEdgeLength) {
+            ring = (List<V>[]) new ArrayList<?>[maxEdgeLength + 1];
+        }
+
+        try {
+            scan(source, sink, distFromSource, previous);
+        } finally {
+            // the search may stop with vertices still queued; drop them before the next search
+            for (List<V> bucket : ring) {
+                if (bucket != null) {
+                    bucket.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the search of search(), with a ring of empty buckets.
+     */
+    private void scan(V source, V sink, Map<V, Integer> distFromSource, Map<V, V> previous) {
+        int queued = 1;
+
+        distFromSource.put(source, 0);
+        if (ring[0] == null) {
+            ring[0] = new ArrayList<V>();
+        }
+        ring[0].add(source);
+
+        for (int d = 0; queued > 0; d++) {
+            List<V> bucket = ring[d % ring.length];
+            if (bucket == null) {
+                continue;
+            }
+
+            // a zero-length edge adds to the bucket being scanned, so it is walked by index
+            for (int k = 0; k < bucket.size(); k++) {
+                V u = bucket.get(k);
+                queued--;
+
+                if (distFromSource.get(u) != d) {
+                    continue;
+                }
+                if (u.equals(sink)) {
+                    return;
+                }
+
+                List<V> adjacent = neighbours.get(u);
+                List<E> edges = incident.get(u);
+                for (int i = 0; i < adjacent.size(); i++) {
+                    V w = adjacent.get(i);
+                    int distance = d + edges.get(i).length();
+                    Integer oldDistance = distFromSource.get(w);
+
+                    if (oldDistance != null && distance >= oldDistance) {
+                        continue;
+                    }
+
+                    distFromSource.put(w, distance);
+                    previous.put(w, u);
+
+                    int slot = distance % ring.length;
+                    if (ring[slot] == null) {
+                        ring[slot] = new ArrayList<V>();
+                    }
+                    ring[slot].add(w);
+                    queued++;
+                }
+            }
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Check that every vertex on the path search found from source to sink has exactly one
+     * neighbour that is a shortest way in, and that no edge at those vertices has length 0.
+     * Every shortest path search then finds this same path, whatever order it settles
+     * vertices of equal distance in.
+     *
+     * @param source         the start vertex of the search
+     * @param sink           the vertex at which the search stopped
+     * @param distFromSource the distances filled in by search
+     * @param previous       the predecessors filled in by search
+     * @return true if the path to sink is the only shortest path, or sink was not reached
+     */
+    boolean uniquePath(V source, V sink, Map<V, Integer> distFromSource, Map<V, V> previous) {
+        if (!distFromSource.containsKey(sink)) {
+            return true;
+        }
+
+        for (V x = sink; !x.equals(source); x = previous.get(x)) {
+            int dist = distFromSource.get(x);
+            List<V> adjacent = neighbours.get(x);
+            List<E> edges = incident.get(x);
+            int ways = 0;
+
+            // every neighbour closer to source than sink has been settled, so its distance is exact
+            for (int i = 0; i < adjacent.size(); i++) {
+                int length = edges.get(i).length();
+                if (length == 0) {
+                    return false;
+                }
+                Integer other = distFromSource.get(adjacent.get(i));
+                if (other != null && other + length == dist) {
+                    ways++;
+                }
+            }
+
+            if (ways != 1) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
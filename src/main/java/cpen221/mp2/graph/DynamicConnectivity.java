@@ -0,0 +1,902 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.DisjointSets;
+import cpen221.mp2.util.LongObjectMap;
+
+import java.util.*;
+
+/**
+ * Dependencies: Graph.java, DisjointSets.java, LongObjectMap.java
+ *
+ * Keeps track of which vertices of a Graph are connected while edges are added to and
+ * removed from it, using the structure of Holm, de Lichtenberg and Thorup. Every operation,
+ * including asking whether removing an edge would disconnect its ends, takes O(log^2 n)
+ * amortized time.
+ *
+ * <p>Every edge has a level between 0 and about log n. Forest i is a spanning forest of
+ * the edges of level at least i, and forest i + 1 is contained in forest i, so forest 0
+ * spans the whole graph. When a forest edge is removed, the smaller of the two halves it
+ * leaves is searched for a replacement edge one level at a time, from the level of the
+ * removed edge down. The edges looked at and not used are moved up a level. A tree of
+ * forest i holds at most n / 2^i vertices, so no edge is moved up more than log n times,
+ * and that bounds the total work.</p>
+ *
+ * <p>Each tree of each forest is kept as its Euler tour in a splay tree. The tour holds one
+ * node for each vertex and one node for each direction of each tree edge. The vertex nodes
+ * record which vertices have non-forest edges of the forest's level, and the edge nodes record
+ * which tree edges are of exactly that level. With these records, the search visits only the
+ * vertices and edges it needs.</p>
+ *
+ * <p>Edges must be added to and removed from the graph through this object, and the vertex
+ * set of the graph must not change, while it is in use.</p>
+ *
+ * Representation Invariant:
+ * - indexOf maps each vertex of graph to a distinct index in 0..n-1.
+ * - slotOf maps pack(i, j) to the slot of the edge between the vertices with indices i and j,
+ *   for every edge of graph, and no slot is in both slotOf and freeSlots; the ends and level
+ *   of the edge in slot s are endA[s], endB[s] and level[s].
+ * - forest 0 is a spanning forest of graph, and for every level i, forest i + 1 is contained
+ *   in forest i; the tree edges of forest i are the slots s with tree[s] and level[s] >= i.
+ * - the vertices of a tree of forest i number at most n / 2^i.
+ * - a slot s with !tree[s] is in the non-tree lists of both its ends at level level[s].
+ * - for every tree of every forest, the splay tree holding its nodes has them in Euler tour order,
+ *   and size, self and agg agree with the definitions given at their declarations.
+ * - components is the number of trees of forest 0.
+ *
+ * Abstraction Function:
+ * Represents the connectivity of graph: two vertices are connected iff they are in the same
+ * tree of forest 0.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class DynamicConnectivity<V extends Vertex, E extends Edge<V>> {
+
+    private static final int NONE = -1;
+    /* self and agg bit: a vertex node whose vertex has non-tree edges of the forest's level */
+    private static final byte NON_TREE = 1;
+    /* self and agg bit: an edge node of a tree edge of exactly the forest's level */
+    private static final byte TREE = 2;
+
+    private final Graph<V, E> graph;
+    private final Map<V, Integer> indexOf;
+    private final int n;
+    private final int levels;
+    private int components;
+
+    /* edge slots */
+    private final LongObjectMap<Integer> slotOf;
+    private int[] endA;
+    private int[] endB;
+    private int[] level;
+    private boolean[] tree;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int slotCount;
+
+    /* non-tree lists: half 2s + 0 is slot s at endA[s], half 2s + 1 is slot s at endB[s] */
+    private final int[][] nonTreeHead;
+    private final int[][] nonTreeCount;
+    private int[] nextHalf;
+    private int[] prevHalf;
+
+    /* splay tree nodes: node i * n + v is vertex v in forest i; edge nodes follow */
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private int[] size; // the number of vertex nodes in the subtree
+    private byte[] self; // the bits that hold for the node itself
+    private byte[] agg; // the bits that hold for some node of the subtree
+    private int[] nodeSlot; // the slot of an edge node, NONE for a vertex node
+    private int[] freeNodes;
+    private int freeNodeCount;
+    private int nodeCount;
+    /* edgeNode[i][2s] runs from endA[s] to endB[s] in forest i, edgeNode[i][2s + 1] back */
+    private final int[][] edgeNode;
+
+    /**
+     * Start tracking the connectivity of graph, as it is now.
+     *
+     * @param graph the graph, whose edges must from now on be changed through this object
+     */
+    public DynamicConnectivity(Graph<V, E> graph) {
+        this.graph = graph;
+        this.indexOf = new HashMap<V, Integer>();
+
+        List<V> vertices = new ArrayList<V>(graph.allVertices());
+        n = vertices.size();
+        for (int i = 0; i < n; i++) {
+            indexOf.put(vertices.get(i), i);
+        }
+        components = n;
+
+        // a tree of forest i holds at most n / 2^i vertices, so forest floor(log n) + 1 is empty
+        levels = 33 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+
+        Set<E> edges = graph.allEdges();
+        int capacity = Math.max(16, edges.size());
+        slotOf = new LongObjectMap<Integer>(capacity);
+        endA = new int[capacity];
+        endB = new int[capacity];
+        level = new int[capacity];
+        tree = new boolean[capacity];
+        freeSlots = new int[capacity];
+        nextHalf = new int[2 * capacity];
+        prevHalf = new int[2 * capacity];
+
+        nonTreeHead = new int[levels][n];
+        nonTreeCount = new int[levels][n];
+        edgeNode = new int[levels][2 * capacity];
+        for (int i = 0; i < levels; i++) {
+            Arrays.fill(nonTreeHead[i], NONE);
+        }
+
+        int nodes = levels * n + 2 * n;
+        left = new int[nodes];
+        right = new int[nodes];
+        parent = new int[nodes];
+        size = new int[nodes];
+        self = new byte[nodes];
+        agg = new byte[nodes];
+        nodeSlot = new int[nodes];
+        freeNodes = new int[nodes];
+        for (int x = 0; x < levels * n; x++) {
+            left[x] = NONE;
+            right[x] = NONE;
+            parent[x] = NONE;
+            size[x] = 1;
+            nodeSlot[x] = NONE;
+        }
+        nodeCount = levels * n;
+
+        build(edges);
+    }
+
+    /**
+     * Give every edge a slot at level 0, take a spanning forest of them as forest 0 and put
+     * the others in the non-tree lists. The tours of forest 0 are laid out by depth-first
+     * search and made into balanced splay trees, rather than linked one edge at a time.
+     *
+     * @param edges the edges of the graph
+     */
+    private void build(Collection<E> edges) {
+        DisjointSets sets = new DisjointSets(n);
+        int[] degree = new int[n + 1];
+
+        for (E e : edges) {
+            int s = newSlot(e);
+
+            if (sets.union(endA[s], endB[s])) {
+                tree[s] = true;
+                degree[endA[s]]++;
+                degree[endB[s]]++;
+                components--;
+            } else {
+                addNonTree(s);
+            }
+        }
+
+        // the tree slots at each vertex, in compressed-sparse-row form
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] incident = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int s = 0; s < slotCount; s++) {
+            if (tree[s]) {
+                incident[fill[endA[s]]++] = s;
+                incident[fill[endB[s]]++] = s;
+            }
+        }
+
+        boolean[] visited = new boolean[n];
+        int[] tour = new int[n + 2 * n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int[] via = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+
+            int length = 0;
+            int depth = 0;
+            stack[0] = root;
+            cursor[root] = offsets[root];
+            via[root] = NONE;
+            visited[root] = true;
+            tour[length++] = node(0, root);
+
+            while (depth >= 0) {
+                int v = stack[depth];
+
+                if (cursor[v] == offsets[v + 1]) {
+                    depth--;
+                    if (via[v] != NONE) {
+                        tour[length++] = edgeNodeFrom(via[v], v);
+                    }
+                    continue;
+                }
+
+                int s = incident[cursor[v]++];
+                int w = endA[s] == v ? endB[s] : endA[s];
+                if (!visited[w]) {
+                    visited[w] = true;
+                    via[w] = s;
+                    cursor[w] = offsets[w];
+                    stack[++depth] = w;
+
+                    int a = newNode(s);
+                    int b = newNode(s);
+                    edgeNode[0][2 * s] = endA[s] == v ? a : b;
+                    edgeNode[0][2 * s + 1] = endA[s] == v ? b : a;
+                    self[edgeNode[0][2 * s]] = TREE;
+                    tour[length++] = a;
+                    tour[length++] = node(0, w);
+                }
+            }
+
+            balance(tour, 0, length, NONE);
+        }
+    }
+
+    /**
+     * Obtain the edge node of forest 0 that runs from v back across the tree edge in slot s.
+     */
+    private int edgeNodeFrom(int s, int v) {
+        return endA[s] == v ? edgeNode[0][2 * s] : edgeNode[0][2 * s + 1];
+    }
+
+    /**
+     * Make the nodes tour[from..to-1] into a balanced splay tree in that order.
+     *
+     * @param up the parent of the root of the tree
+     * @return the root of the tree, or NONE if from == to
+     */
+    private int balance(int[] tour, int from, int to, int up) {
+        if (from == to) {
+            return NONE;
+        }
+
+        int mid = (from + to) >>> 1;
+        int x = tour[mid];
+        parent[x] = up;
+        left[x] = balance(tour, from, mid, x);
+        right[x] = balance(tour, mid + 1, to, x);
+        pull(x);
+
+        return x;
+    }
+
+    /**
+     * Find the index of a vertex
+     *
+     * @param v the vertex of interest
+     * @return the index of v
+     * @throws IllegalArgumentException if v is not a vertex of the graph
+     */
+    private int index(V v) throws IllegalArgumentException {
+        Integer i = indexOf.get(v);
+
+        if (i == null) {
+            throw new IllegalArgumentException();
+        }
+
+        return i;
+    }
+
+    /**
+     * Pack the indices of the ends of an edge into a key for slotOf.
+     */
+    private static long pack(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    /**
+     * Find the slot of an edge of the graph
+     *
+     * @param e the edge of interest
+     * @return the slot of e, or NONE if it is not an edge of the graph
+     * @throws IllegalArgumentException if an end of e is not a vertex of the graph
+     */
+    private int slot(E e) throws IllegalArgumentException {
+        Integer s = slotOf.get(pack(index(e.v1()), index(e.v2())));
+
+        return s == null ? NONE : s;
+    }
+
+    /**
+     * Check if two vertices are joined by a path
+     *
+     * @param v1 a vertex of the graph
+     * @param v2 a vertex of the graph
+     * @return true if there is a path between v1 and v2 and false otherwise
+     * @throws IllegalArgumentException if v1 or v2 is not a vertex of the graph
+     */
+    public boolean connected(V v1, V v2) throws IllegalArgumentException {
+        return connected(0, index(v1), index(v2));
+    }
+
+    /**
+     * Obtain the number of connected components of the graph
+     *
+     * @return the number of connected components
+     */
+    public int componentCount() {
+        return components;
+    }
+
+    /**
+     * Add an edge to the graph
+     *
+     * @param e the edge to add
+     * @return true if the edge was added, false if it was already part of the graph
+     * @throws IllegalArgumentException if an end of e is not a vertex of the graph
+     */
+    public boolean addEdge(E e) throws IllegalArgumentException {
+        if (slot(e) != NONE || !graph.addEdge(e)) {
+            return false;
+        }
+
+        insert(newSlot(e));
+
+        return true;
+    }
+
+    /**
+     * Remove an edge from the graph
+     *
+     * @param e the edge to remove
+     * @return true if the edge was removed, false if it was not part of the graph
+     * @throws IllegalArgumentException if an end of e is not a vertex of the graph
+     */
+    public boolean remove(E e) throws IllegalArgumentException {
+        int s = slot(e);
+
+        if (s == NONE) {
+            return false;
+        }
+
+        graph.remove(e);
+        delete(s);
+        freeSlot(s);
+
+        return true;
+    }
+
+    /**
+     * Check if removing an edge would disconnect its ends, that is, if it is a bridge.
+     *
+     * @param e an edge of the graph
+     * @return true if e is on every path between its ends and false otherwise
+     * @throws IllegalArgumentException if e is not an edge of the graph
+     */
+    public boolean isBridge(E e) throws IllegalArgumentException {
+        int s = slot(e);
+
+        if (s == NONE) {
+            throw new IllegalArgumentException();
+        }
+        if (!tree[s]) {
+            return false;
+        }
+
+        // a tree edge is a bridge iff no replacement is found for it; either way it is put back
+        boolean replaced = delete(s);
+        insert(s);
+
+        return !replaced;
+    }
+
+    /**
+     * Remove an edge from the graph, unless that would disconnect its ends.
+     *
+     * @param e an edge of the graph
+     * @return true if e was removed and false if it is a bridge
+     * @throws IllegalArgumentException if e is not an edge of the graph
+     */
+    public boolean removeIfNotBridge(E e) throws IllegalArgumentException {
+        int s = slot(e);
+
+        if (s == NONE) {
+            throw new IllegalArgumentException();
+        }
+        if (!delete(s)) {
+            insert(s);
+            return false;
+        }
+
+        graph.remove(e);
+        freeSlot(s);
+
+        return true;
+    }
+
+    /**
+     * Give an edge a slot, at level 0 and outside every forest.
+     *
+     * @param e an edge between two vertices of the graph
+     * @return the slot of e
+     */
+    private int newSlot(E e) {
+        int s;
+        if (freeSlotCount > 0) {
+            s = freeSlots[--freeSlotCount];
+        } else {
+            if (slotCount == endA.length) {
+                growSlots();
+            }
+            s = slotCount++;
+        }
+
+        endA[s] = index(e.v1());
+        endB[s] = index(e.v2());
+        level[s] = 0;
+        tree[s] = false;
+        slotOf.put(pack(endA[s], endB[s]), s);
+
+        return s;
+    }
+
+    /**
+     * Release the slot of an edge that is no longer part of any forest or non-tree list.
+     */
+    private void freeSlot(int s) {
+        slotOf.remove(pack(endA[s], endB[s]));
+        freeSlots[freeSlotCount++] = s;
+    }
+
+    /**
+     * Double the number of edge slots.
+     */
+    private void growSlots() {
+        int capacity = 2 * endA.length;
+
+        endA = Arrays.copyOf(endA, capacity);
+        endB = Arrays.copyOf(endB, capacity);
+        level = Arrays.copyOf(level, capacity);
+        tree = Arrays.copyOf(tree, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        nextHalf = Arrays.copyOf(nextHalf, 2 * capacity);
+        prevHalf = Arrays.copyOf(prevHalf, 2 * capacity);
+        for (int i = 0; i < levels; i++) {
+            edgeNode[i] = Arrays.copyOf(edgeNode[i], 2 * capacity);
+        }
+    }
+
+    /**
+     * Put the edge in slot s, at level 0, into forest 0 if it joins two of its trees,
+     * and into the non-tree lists otherwise.
+     */
+    private void insert(int s) {
+        level[s] = 0;
+
+        if (connected(0, endA[s], endB[s])) {
+            tree[s] = false;
+            addNonTree(s);
+        } else {
+            tree[s] = true;
+            link(0, s);
+            components--;
+        }
+    }
+
+    /**
+     * Take the edge in slot s out of the forests and non-tree lists, and if it was
+     * a tree edge, look for a replacement that reconnects its ends.
+     *
+     * @return true if the ends of the edge are still connected
+     */
+    private boolean delete(int s) {
+        if (!tree[s]) {
+            removeNonTree(s);
+            return true;
+        }
+
+        for (int i = 0; i <= level[s]; i++) {
+            cut(i, s);
+        }
+        tree[s] = false;
+
+        for (int i = level[s]; i >= 0; i--) {
+            if (replace(i, endA[s], endB[s])) {
+                return true;
+            }
+        }
+        components++;
+
+        return false;
+    }
+
+    /**
+     * Look for a non-tree edge of level i that reconnects the trees of forest i holding a and b,
+     * after the tree edge between them was cut. The tree edges of level i in the smaller tree,
+     * and the non-tree edges of level i found inside it, are moved up to level i + 1.
+     *
+     * @return true if a replacement was found and linked into forests 0..i
+     */
+    private boolean replace(int i, int a, int b) {
+        int small = treeSize(i, a) <= treeSize(i, b) ? a : b;
+
+        for (int x = find(node(i, small), TREE); x != NONE; x = find(node(i, small), TREE)) {
+            int s = nodeSlot[x];
+
+            setSelf(x, TREE, false);
+            level[s] = i + 1;
+            link(i + 1, s);
+        }
+
+        for (int x = find(node(i, small), NON_TREE); x != NONE; x = find(node(i, small), NON_TREE)) {
+            int w = x - i * n;
+
+            while (nonTreeHead[i][w] != NONE) {
+                int h = nonTreeHead[i][w];
+                int s = h >> 1;
+                int other = (h & 1) == 0 ? endB[s] : endA[s];
+
+                removeNonTree(s);
+                if (connected(i, w, other)) {
+                    level[s] = i + 1;
+                    addNonTree(s);
+                } else {
+                    tree[s] = true;
+                    for (int j = 0; j <= i; j++) {
+                        link(j, s);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Add the edge in slot s to the non-tree lists of both its ends at its level.
+     */
+    private void addNonTree(int s) {
+        int i = level[s];
+
+        for (int h = 2 * s; h <= 2 * s + 1; h++) {
+            int w = (h & 1) == 0 ? endA[s] : endB[s];
+            int head = nonTreeHead[i][w];
+
+            nextHalf[h] = head;
+            prevHalf[h] = NONE;
+            if (head != NONE) {
+                prevHalf[head] = h;
+            }
+            nonTreeHead[i][w] = h;
+
+            if (nonTreeCount[i][w]++ == 0) {
+                setSelf(node(i, w), NON_TREE, true);
+            }
+        }
+    }
+
+    /**
+     * Remove the edge in slot s from the non-tree lists of both its ends.
+     */
+    private void removeNonTree(int s) {
+        int i = level[s];
+
+        for (int h = 2 * s; h <= 2 * s + 1; h++) {
+            int w = (h & 1) == 0 ? endA[s] : endB[s];
+
+            if (prevHalf[h] != NONE) {
+                nextHalf[prevHalf[h]] = nextHalf[h];
+            } else {
+                nonTreeHead[i][w] = nextHalf[h];
+            }
+            if (nextHalf[h] != NONE) {
+                prevHalf[nextHalf[h]] = prevHalf[h];
+            }
+
+            if (--nonTreeCount[i][w] == 0) {
+                setSelf(node(i, w), NON_TREE, false);
+            }
+        }
+    }
+
+    /* Euler tour trees */
+
+    /**
+     * Obtain the node of vertex v in forest i.
+     */
+    private int node(int i, int v) {
+        return i * n + v;
+    }
+
+    /**
+     * Check if a and b are in the same tree of forest i.
+     */
+    private boolean connected(int i, int a, int b) {
+        if (a == b) {
+            return true;
+        }
+
+        int x = node(i, a);
+        int y = node(i, b);
+        splay(x);
+        int r = y;
+        while (parent[r] != NONE) {
+            r = parent[r];
+        }
+        splay(y);
+
+        return r == x;
+    }
+
+    /**
+     * Obtain the number of vertices of the tree of forest i holding v.
+     */
+    private int treeSize(int i, int v) {
+        int x = node(i, v);
+        splay(x);
+        return size[x];
+    }
+
+    /**
+     * Join the trees of forest i holding the ends of the edge in slot s with that edge.
+     */
+    private void link(int i, int s) {
+        int a = newNode(s);
+        int b = newNode(s);
+        edgeNode[i][2 * s] = a;
+        edgeNode[i][2 * s + 1] = b;
+        if (level[s] == i) {
+            setSelf(a, TREE, true);
+        }
+
+        // tour from endA, over the edge, around the tree of endB, and back
+        int ra = reroot(node(i, endA[s]));
+        int rb = reroot(node(i, endB[s]));
+        join(join(join(ra, a), rb), b);
+    }
+
+    /**
+     * Split the tree of forest i holding the edge in slot s in two by removing that edge.
+     * The tour X a Y b Z, where a and b are the nodes of the edge, becomes X Z and Y.
+     */
+    private void cut(int i, int s) {
+        int a = edgeNode[i][2 * s];
+        int b = edgeNode[i][2 * s + 1];
+
+        splay(a);
+        int before = detachLeft(a);
+        int after = detachRight(a);
+        freeNode(a);
+
+        int r = b;
+        while (parent[r] != NONE) {
+            r = parent[r];
+        }
+        splay(b);
+        int x = detachLeft(b);
+        int y = detachRight(b);
+        freeNode(b);
+
+        if (r == after) {
+            join(before, y);
+        } else {
+            join(x, after);
+        }
+    }
+
+    /**
+     * Rotate the tour holding vertex node x so that it starts at x.
+     *
+     * @return the root of the splay tree of the rotated tour
+     */
+    private int reroot(int x) {
+        splay(x);
+        int before = detachLeft(x);
+
+        return join(x, before);
+    }
+
+    /**
+     * Concatenate the tours of the splay trees rooted at a and b, either of which may be NONE.
+     *
+     * @return the root of the splay tree of the whole tour
+     */
+    private int join(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+
+        int x = a;
+        while (right[x] != NONE) {
+            x = right[x];
+        }
+        splay(x);
+        right[x] = b;
+        parent[b] = x;
+        pull(x);
+
+        return x;
+    }
+
+    /**
+     * Cut the left subtree off the root x.
+     *
+     * @return the root of the left subtree, or NONE
+     */
+    private int detachLeft(int x) {
+        int l = left[x];
+
+        if (l != NONE) {
+            parent[l] = NONE;
+            left[x] = NONE;
+            pull(x);
+        }
+
+        return l;
+    }
+
+    /**
+     * Cut the right subtree off the root x.
+     *
+     * @return the root of the right subtree, or NONE
+     */
+    private int detachRight(int x) {
+        int r = right[x];
+
+        if (r != NONE) {
+            parent[r] = NONE;
+            right[x] = NONE;
+            pull(x);
+        }
+
+        return r;
+    }
+
+    /**
+     * Find a node with bit in its self bits in the tour holding x, and splay it.
+     *
+     * @return the node found, or NONE if there is none
+     */
+    private int find(int x, byte bit) {
+        splay(x);
+
+        if ((agg[x] & bit) == 0) {
+            return NONE;
+        }
+        while ((self[x] & bit) == 0) {
+            x = left[x] != NONE && (agg[left[x]] & bit) != 0 ? left[x] : right[x];
+        }
+        splay(x);
+
+        return x;
+    }
+
+    /**
+     * Turn bit on or off in the self bits of node x.
+     */
+    private void setSelf(int x, byte bit, boolean on) {
+        splay(x);
+        self[x] = (byte) (on ? self[x] | bit : self[x] & ~bit);
+        pull(x);
+    }
+
+    /**
+     * Create a lone edge node for the edge in slot s.
+     */
+    private int newNode(int s) {
+        int x;
+        if (freeNodeCount > 0) {
+            x = freeNodes[--freeNodeCount];
+        } else {
+            if (nodeCount == left.length) {
+                growNodes();
+            }
+            x = nodeCount++;
+        }
+
+        left[x] = NONE;
+        right[x] = NONE;
+        parent[x] = NONE;
+        size[x] = 0;
+        self[x] = 0;
+        agg[x] = 0;
+        nodeSlot[x] = s;
+
+        return x;
+    }
+
+    /**
+     * Release a lone edge node.
+     */
+    private void freeNode(int x) {
+        freeNodes[freeNodeCount++] = x;
+    }
+
+    /**
+     * Double the number of nodes.
+     */
+    private void growNodes() {
+        int capacity = 2 * left.length;
+
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        size = Arrays.copyOf(size, capacity);
+        self = Arrays.copyOf(self, capacity);
+        agg = Arrays.copyOf(agg, capacity);
+        nodeSlot = Arrays.copyOf(nodeSlot, capacity);
+        freeNodes = Arrays.copyOf(freeNodes, capacity);
+    }
+
+    /**
+     * Recompute size and agg of x from its children.
+     */
+    private void pull(int x) {
+        int s = nodeSlot[x] == NONE ? 1 : 0;
+        byte bits = self[x];
+
+        if (left[x] != NONE) {
+            s += size[left[x]];
+            bits |= agg[left[x]];
+        }
+        if (right[x] != NONE) {
+            s += size[right[x]];
+            bits |= agg[right[x]];
+        }
+
+        size[x] = s;
+        agg[x] = bits;
+    }
+
+    /**
+     * Move x above its parent, keeping the in-order sequence.
+     */
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NONE) {
+                parent[right[x]] = p;
+            }
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NONE) {
+                parent[left[x]] = p;
+            }
+            left[x] = p;
+        }
+        parent[p] = x;
+        parent[x] = g;
+        if (g != NONE) {
+            if (left[g] == p) {
+                left[g] = x;
+            } else {
+                right[g] = x;
+            }
+        }
+
+        pull(p);
+        pull(x);
+    }
+
+    /**
+     * Move x to the root of its splay tree.
+     */
+    private void splay(int x) {
+        while (parent[x] != NONE) {
+            int p = parent[x];
+            int g = parent[p];
+
+            if (g != NONE) {
+                rotate((left[g] == p) == (left[p] == x) ? p : x);
+            }
+            rotate(x);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.Heap;
+
+import java.util.*;
+
+/**
+ * Dependencies: Graph.java, Heap.java
+ *
+ * A shortest path tree out of one source vertex of a Graph that is kept up to date
+ * as edges are added to and removed from the graph, in the manner of Ramalingam and Reps.
+ *
+ * <p>Adding an edge can only shorten paths. The distances that drop are found by a Dijkstra
+ * search that starts at the far end of the new edge and only goes on through vertices it
+ * improves. Removing an edge that is not in the tree changes nothing. Removing a tree edge
+ * can only lengthen paths to the subtree below it. Each vertex in that subtree gets a
+ * tentative distance through its neighbours outside the subtree. A Dijkstra search over the
+ * subtree then settles them. Either way the work done is proportional to the vertices whose
+ * distance or parent changes, and their edges, rather than to the size of the graph.</p>
+ *
+ * <p>The edges of the graph must be added and removed through this tree, or recompute must be
+ * called before the tree is used again. Vertices may be added to the graph directly; they are
+ * unreachable until an edge is added to them. Where there are several shortest paths, the one
+ * kept may differ from the one a fresh search would find.</p>
+ *
+ * Representation Invariant:
+ * - source is a vertex of graph.
+ * - dist maps source to 0, and every other vertex of graph reachable from source to the length
+ *   of a shortest path to it; it has no other keys.
+ * - parent maps every key of dist other than source to a neighbour p of it in graph with
+ *   dist.get(p) + (the length of the edge between them) == its distance; it has no other keys.
+ *
+ * Abstraction Function:
+ * Represents the tree rooted at source in which the parent of each reachable vertex v
+ * other than source is parent.get(v), and v is dist.get(v) away from source.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class DynamicShortestPathTree<V extends Vertex, E extends Edge<V>> {
+
+    private final Graph<V, E> graph;
+    private final V source;
+    private final Map<V, Integer> dist;
+    private final Map<V, V> parent;
+
+    /**
+     * Compute the shortest path tree of graph rooted at source and start maintaining it.
+     *
+     * @param graph  the graph, whose edges must from now on be changed through this tree
+     * @param source the root of the tree
+     * @throws IllegalArgumentException if source is not part of graph
+     */
+    public DynamicShortestPathTree(Graph<V, E> graph, V source) throws IllegalArgumentException {
+        if (!graph.vertex(source)) {
+            throw new IllegalArgumentException();
+        }
+
+        this.graph = graph;
+        this.source = source;
+        this.dist = new HashMap<V, Integer>();
+        this.parent = new HashMap<V, V>();
+
+        recompute();
+    }
+
+    /**
+     * Compute the tree from scratch, after the graph has been changed other than through this tree.
+     *
+     * @throws IllegalArgumentException if the source is no longer part of the graph
+     */
+    public void recompute() throws IllegalArgumentException {
+        if (!graph.vertex(source)) {
+            throw new IllegalArgumentException();
+        }
+
+        dist.clear();
+        parent.clear();
+
+        Heap<V> queue = new Heap<V>(true);
+        Set<V> queued = new HashSet<V>();
+        dist.put(source, 0);
+        queue.add(source, 0);
+        queued.add(source);
+
+        settle(queue, queued);
+    }
+
+    /**
+     * Add an edge to the graph and update the tree.
+     *
+     * @param e the edge to add
+     * @return true if the edge was added, false if it was already part of the graph
+     * or either of its vertices is not
+     */
+    public boolean addEdge(E e) {
+        if (!graph.addEdge(e)) {
+            return false;
+        }
+
+        Heap<V> queue = new Heap<V>(true);
+        Set<V> queued = new HashSet<V>();
+        Integer d1 = dist.get(e.v1());
+        Integer d2 = dist.get(e.v2());
+
+        if (d1 != null) {
+            relax(e.v2(), d1 + e.length(), e.v1(), queue, queued);
+        }
+        if (d2 != null) {
+            relax(e.v1(), d2 + e.length(), e.v2(), queue, queued);
+        }
+
+        settle(queue, queued);
+
+        return true;
+    }
+
+    /**
+     * Remove an edge from the graph and update the tree.
+     *
+     * @param e the edge to remove
+     * @return true if the edge was removed, false if it was not part of the graph
+     */
+    public boolean remove(E e) {
+        if (!graph.remove(e)) {
+            return false;
+        }
+
+        V child;
+        if (e.v1().equals(parent.get(e.v2()))) {
+            child = e.v2();
+        } else if (e.v2().equals(parent.get(e.v1()))) {
+            child = e.v1();
+        } else {
+            return true;
+        }
+
+        // the subtree below the removed edge; only its distances can change
+        List<V> affected = new ArrayList<V>();
+        affected.add(child);
+        for (int k = 0; k < affected.size(); k++) {
+            V x = affected.get(k);
+
+            for (int i = 0; i < graph.degree(x); i++) {
+                V y = graph.neighbour(x, i);
+
+                if (x.equals(parent.get(y))) {
+                    affected.add(y);
+                }
+            }
+        }
+
+        for (V x : affected) {
+            dist.remove(x);
+            parent.remove(x);
+        }
+
+        Heap<V> queue = new Heap<V>(true);
+        Set<V> queued = new HashSet<V>();
+        for (V x : affected) {
+            for (int i = 0; i < graph.degree(x); i++) {
+                V y = graph.neighbour(x, i);
+                Integer d = dist.get(y);
+
+                if (d != null && !queued.contains(y)) {
+                    relax(x, d + graph.incidentEdge(x, i).length(), y, queue, queued);
+                }
+            }
+        }
+
+        settle(queue, queued);
+
+        return true;
+    }
+
+    /**
+     * Give v the distance d through p, if that is shorter than the distance it has.
+     *
+     * @param v      the vertex to improve
+     * @param d      the length of the path to v through p
+     * @param p      a neighbour of v whose distance is known
+     * @param queue  the vertices with tentative distances, by distance
+     * @param queued the vertices in queue
+     */
+    private void relax(V v, int d, V p, Heap<V> queue, Set<V> queued) {
+        Integer old = dist.get(v);
+
+        if (old != null && old <= d) {
+            return;
+        }
+
+        dist.put(v, d);
+        parent.put(v, p);
+
+        if (queued.add(v)) {
+            queue.add(v, d);
+        } else {
+            queue.updatePriority(v, d);
+        }
+    }
+
+    /**
+     * Run Dijkstra's algorithm from the queued vertices, improving only the vertices
+     * whose distances can be shortened through them.
+     *
+     * @param queue  the vertices with tentative distances, by distance
+     * @param queued the vertices in queue
+     */
+    private void settle(Heap<V> queue, Set<V> queued) {
+        while (queue.size() > 0) {
+            V x = queue.poll();
+            queued.remove(x);
+            int dx = dist.get(x);
+
+            for (int i = 0; i < graph.degree(x); i++) {
+                relax(graph.neighbour(x, i), dx + graph.incidentEdge(x, i).length(), x, queue, queued);
+            }
+        }
+    }
+
+    /**
+     * Obtain the root of this tree
+     *
+     * @return the source vertex
+     */
+    public V source() {
+        return source;
+    }
+
+    /**
+     * Check if there is a path from the source to v
+     *
+     * @param v a vertex in the graph
+     * @return true if v is reachable from the source and false otherwise
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    public boolean hasPathTo(V v) throws IllegalArgumentException {
+        return distanceTo(v) != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Obtain the length of the shortest path from the source to v
+     *
+     * @param v a vertex in the graph
+     * @return the length of the shortest path, or Integer.MAX_VALUE if v is not reachable
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    public int distanceTo(V v) throws IllegalArgumentException {
+        if (!graph.vertex(v)) {
+            throw new IllegalArgumentException();
+        }
+
+        Integer d = dist.get(v);
+
+        return d == null ? Integer.MAX_VALUE : d;
+    }
+
+    /**
+     * Obtain the shortest path from the source to v
+     *
+     * @param v a vertex in the graph
+     * @return the vertices, in order, on the shortest path from the source to v (both end points are part of the list),
+     * or an empty list if v is not reachable
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    public List<V> pathTo(V v) throws IllegalArgumentException {
+        List<V> path = new ArrayList<V>();
+
+        if (!hasPathTo(v)) {
+            return path;
+        }
+
+        for (V w = v; w != null; w = parent.get(w)) {
+            path.add(w);
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+}
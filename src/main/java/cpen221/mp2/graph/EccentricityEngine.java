@@ -0,0 +1,166 @@
+package cpen221.mp2.graph;
+
+import java.util.*;
+
+/**
+ * Computes the eccentricity of every vertex of a frozen graph by running
+ * a single-source shortest path search from each vertex. The searches are
+ * independent, so they are split across a ForkJoinPool by SourceTasks; each
+ * worker thread allocates its distance buffers once and reuses them for every
+ * source it handles.
+ *
+ * <p>The eccentricity of a vertex v is the length of the longest shortest path
+ * from v to any vertex reachable from v (0 if v has no neighbours).
+ * The answers do not depend on the level of parallelism.</p>
+ *
+ * Representation Invariant:
+ * - parallelism >= 1, or parallelism == SourceTasks.COMMON_POOL
+ * - ecc is null until computed, after which ecc[i] is the eccentricity of graph.vertexAt(i).
+ *
+ * @param <V> represents a vertex type
+ */
+public class EccentricityEngine<V extends Vertex> {
+
+    private final CsrGraph<V, ?> graph;
+    private final int parallelism;
+    private int[] ecc;
+
+    /**
+     * Create an engine that uses every available processor, through the common pool.
+     *
+     * @param graph the graph to analyse
+     */
+    public EccentricityEngine(CsrGraph<V, ?> graph) {
+        this.graph = graph;
+        this.parallelism = SourceTasks.COMMON_POOL;
+    }
+
+    /**
+     * Create an engine that runs at most parallelism searches at once.
+     *
+     * @param graph       the graph to analyse
+     * @param parallelism the number of worker threads, parallelism >= 1
+     * @throws IllegalArgumentException if parallelism < 1
+     */
+    public EccentricityEngine(CsrGraph<V, ?> graph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.graph = graph;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Compute the eccentricities if that has not been done yet.
+     *
+     * @return the eccentricity of each vertex, by index
+     */
+    private synchronized int[] compute() {
+        if (ecc != null) {
+            return ecc;
+        }
+
+        int n = graph.vertexCount();
+        int[] result = new int[n];
+        // the dist and pred buffers of each worker thread, dropped once every source is done
+        ThreadLocal<int[][]> scratch = ThreadLocal.withInitial(() -> new int[2][n]);
+        SourceTasks.forEachRange(n, parallelism, (lo, hi) -> eccentricities(lo, hi, scratch.get(), result));
+
+        ecc = result;
+        return ecc;
+    }
+
+    /**
+     * Obtain the eccentricity of every vertex in the graph
+     *
+     * @return a map from each vertex to its eccentricity
+     */
+    public Map<V, Integer> eccentricities() {
+        int[] e = compute();
+        Map<V, Integer> map = new HashMap<V, Integer>();
+
+        for (int i = 0; i < e.length; i++) {
+            map.put(graph.vertexAt(i), e[i]);
+        }
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Compute the radius of the graph, the smallest eccentricity of any vertex
+     *
+     * @return the radius of the graph, or Integer.MAX_VALUE if the graph has no vertices
+     */
+    public int radius() {
+        int min = Integer.MAX_VALUE;
+
+        for (int e : compute()) {
+            min = Math.min(min, e);
+        }
+
+        return min;
+    }
+
+    /**
+     * Obtain the center of the graph, the vertices whose eccentricity equals the radius
+     *
+     * @return the set of central vertices
+     */
+    public Set<V> center() {
+        int[] e = compute();
+        int radius = radius();
+        Set<V> center = new HashSet<V>();
+
+        for (int i = 0; i < e.length; i++) {
+            if (e[i] == radius) {
+                center.add(graph.vertexAt(i));
+            }
+        }
+
+        return center;
+    }
+
+    /**
+     * Compute the diameter of the graph, the largest eccentricity of any vertex
+     *
+     * @return the diameter of the graph, or Integer.MAX_VALUE if the graph has no edges
+     */
+    public int diameter() {
+        int max = 0;
+
+        for (int e : compute()) {
+            max = Math.max(max, e);
+        }
+
+        if (max == 0) {
+            return Integer.MAX_VALUE;
+        }
+
+        return max;
+    }
+
+    /**
+     * Compute the eccentricities of the sources lo..hi-1.
+     *
+     * @param lo      the first source
+     * @param hi      one past the last source
+     * @param buffers the dist and pred buffers of this thread
+     * @param result  filled with the eccentricity of each source
+     */
+    private void eccentricities(int lo, int hi, int[][] buffers, int[] result) {
+        int[] dist = buffers[0];
+        int[] pred = buffers[1];
+
+        for (int s = lo; s < hi; s++) {
+            graph.dijkstra(s, -1, dist, pred);
+
+            int max = 0;
+            for (int d : dist) {
+                if (d != Integer.MAX_VALUE && d > max) {
+                    max = d;
+                }
+            }
+            result[s] = max;
+        }
+    }
+}
@@ -40,8 +40,14 @@ public class Edge<V extends Vertex> {
     }
 
     public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
         if (o instanceof Edge<?>) {
             Edge<?> other = (Edge<?>) o;
+            if (other.v1 == this.v1 && other.v2 == this.v2 || other.v1 == this.v2 && other.v2 == this.v1) {
+                return true;
+            }
             if (other.v1.equals(this.v1) && other.v2.equals(this.v2)) {
                 return true;
             }
@@ -52,6 +58,10 @@ public class Edge<V extends Vertex> {
         return false;
     }
 
+    /*
+     * Not cached here: a vertex can be renamed, which changes its hash code.
+     * Vertex caches its own, so this is two field reads.
+     */
     public int hashCode() {
         return v1.hashCode() + v2.hashCode();
     }
@@ -1,12 +1,16 @@
 package cpen221.mp2.graph;
 
 
-import cpen221.mp2.util.Groups;
-import cpen221.mp2.util.Pair;
+import cpen221.mp2.util.Heap;
+import cpen221.mp2.util.IntObjectMap;
+import cpen221.mp2.util.LongObjectMap;
 
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Dependencies: Vertex.java, Edge.java
@@ -18,26 +22,95 @@ import java.util.stream.Collectors;
  * - The size of vertexMap is equal to the number of Vertex's in the graph, n.
  * - The number of neighbors (value in vertexMap) associated with each vertex cannot exceed n - 1
  * - No value in edgeMap can be null
- * - edgeMap keys must be a Pair containing two vertexes contained in vertexMap
+ * - every key of edgeMap is edgeKey(v1, v2) for an edge v1-v2 between two vertices of vertexMap,
+ *   and its value is that edge
  * - The number of edges (values in edgeMap) cannot exceed n(n-1)/2
  * - Each vertex associated to an edge must be within the graph
+ * - idIndex maps v.id() to v for every vertex v in vertexMap and contains nothing else
+ * - incidentMap has the same keys as vertexMap, and for every v and i,
+ *   incidentMap.get(v).get(i) is the edge between v and vertexMap.get(v).get(i)
+ * - edgeTableCapacity is the smallest power of two >= 16 whose three quarters is at least
+ *   the largest number of edges the graph has ever held, and vertexTableCapacity is the same
+ *   for vertices; it is the number of buckets of vertexMap
+ * - incidentViews has the same keys as vertexMap, and incidentViews.get(v) holds the edges of
+ *   incidentMap.get(v) in the order IncidentEdges describes
+ * - maxEdgeLength is the length of the longest edge the graph has ever held, or 0
+ * - modCount changes whenever a vertex or edge is added or removed
+ * - frozen is null or holds a CsrGraph of the graph as it was when modCount was frozen.version
  *
  * Abstraction Function:
  * Represents a graph of n vertices as a vertexMap HashMap of size n.
  * Each value in vertexMap represents a list of neighboring vertexes.
- * Represents the m connections between vertices as an edgeMap HashMap of size m.
- * Each key in edgeMap is a Pair of the vertices being connected by the edge stored as the value in edgeMap.
+ * Represents the m connections between vertices as an edgeMap of size m.
+ * Each key in edgeMap packs the ids of the two vertices connected by the edge stored as its value.
  *
  * @param <V> represents a vertex type
  */
 public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>, IGraph<V, E> {
 
+    /* shortestPath searches with Dial's bucket queue while no edge has been longer than this */
+    static final int DIAL_MAX_EDGE_LENGTH = 1 << 13;
+    /* ... and the graph has no more vertices than this; past it, most paths tie and fall back */
+    static final int DIAL_MAX_VERTICES = 1 << 13;
+
     private Map<V, List<V>> vertexMap;
-    private Map<Pair<V>, E> edgeMap;
+    private LongObjectMap<E> edgeMap;
+    private Map<V, List<E>> incidentMap;
+    private IntObjectMap<V> idIndex;
+    private int edgeTableCapacity;
+    private int vertexTableCapacity;
+    private int maxEdgeLength;
+    /* The bucket search of each thread, whose ring is reused between its searches */
+    private final ThreadLocal<DialSearch<V, E>> dialSearch;
+    private int modCount;
+    /* The views returned by allVertices, allEdges and allEdges(v), which track the graph */
+    private final Set<V> vertexView;
+    private final Set<E> edgeView;
+    private final Map<V, IncidentEdges> incidentViews;
+    /* The snapshot last returned by freeze, shared until the graph is mutated; null until then */
+    private volatile Frozen<V, E> frozen;
 
     public Graph() {
         vertexMap = new HashMap<V, List<V>>();
-        edgeMap = new HashMap<Pair<V>, E>();
+        edgeMap = new LongObjectMap<E>();
+        incidentMap = new HashMap<V, List<E>>();
+        idIndex = new IntObjectMap<V>();
+        edgeTableCapacity = 16;
+        vertexTableCapacity = 16;
+        incidentViews = new HashMap<V, IncidentEdges>();
+        vertexView = new LiveSet<V>(() -> modCount) {
+            @Override
+            Iterator<V> elements() {
+                return verticesInCopyOrder();
+            }
+
+            @Override
+            public int size() {
+                return vertexMap.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return holdsVertex(o);
+            }
+        };
+        edgeView = new LiveSet<E>(() -> modCount) {
+            @Override
+            Iterator<E> elements() {
+                return edgeMap.valueIterator();
+            }
+
+            @Override
+            public int size() {
+                return edgeMap.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return holdsEdge(o);
+            }
+        };
+        dialSearch = ThreadLocal.withInitial(() -> new DialSearch<V, E>(vertexMap, incidentMap));
     }
 
 
@@ -55,10 +128,34 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
         }
 
         vertexMap.putIfAbsent(v, new ArrayList<>());
+        incidentMap.putIfAbsent(v, new ArrayList<>());
+        incidentViews.put(v, new IncidentEdges(v));
+        idIndex.put(v.id(), v);
+
+        if (vertexMap.size() > vertexTableCapacity / 4 * 3) {
+            vertexTableCapacity *= 2;
+        }
+        modCount++;
 
         return true;
     }
 
+    /**
+     * Add a collection of vertices to the graph
+     *
+     * @param vertices the vertices to add
+     * @return true if at least one vertex was added and false otherwise
+     */
+    public boolean addVertices(Collection<V> vertices) {
+        boolean changed = false;
+
+        for (V v : vertices) {
+            changed |= addVertex(v);
+        }
+
+        return changed;
+    }
+
     /**
      * Check if a vertex is part of the graph
      *
@@ -67,14 +164,7 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      */
     @Override
     public boolean vertex(V v) {
-
-        for (V vertex : vertexMap.keySet()) {
-            if (vertex.id() == v.id()) {
-                return true;
-            }
-        }
-
-        return false;
+        return idIndex.containsKey(v.id());
     }
 
     /**
@@ -98,13 +188,43 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
 
         vertexMap.get(e.v1()).add(e.v2());
         vertexMap.get(e.v2()).add(e.v1());
+        incidentMap.get(e.v1()).add(e);
+        incidentMap.get(e.v2()).add(e);
 
-        Pair<V> edgePair = new Pair<V>(e.v1(),e.v2());
-        edgeMap.putIfAbsent(edgePair, e);
+        edgeMap.put(edgeKey(e.v1(), e.v2()), e);
+
+        if (edgeMap.size() > edgeTableCapacity / 4 * 3) {
+            edgeTableCapacity *= 2;
+            // every incident order depends on the capacity
+            for (IncidentEdges view : incidentViews.values()) {
+                view.reorder();
+            }
+        } else {
+            incidentViews.get(e.v1()).reorder();
+            incidentViews.get(e.v2()).reorder();
+        }
+        maxEdgeLength = Math.max(maxEdgeLength, e.length());
+        modCount++;
 
         return true;
     }
 
+    /**
+     * Add a collection of edges to the graph
+     *
+     * @param edges the edges to add
+     * @return true if at least one edge was added and false otherwise
+     */
+    public boolean addEdges(Collection<E> edges) {
+        boolean changed = false;
+
+        for (E e : edges) {
+            changed |= addEdge(e);
+        }
+
+        return changed;
+    }
+
     /**
      * Check if an edge is part of the graph
      *
@@ -125,13 +245,21 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      */
     @Override
     public boolean edge(V v1, V v2) {
-        Pair<V> edgePair = new Pair<V>(v1,v2);
-
-        if(vertexMap.get(v1).contains(v2) && vertexMap.get(v2).contains(v1) && edgeMap.get(edgePair) != null) {
-            return true;
-        }
+        return edgeMap.containsKey(edgeKey(v1, v2));
+    }
 
-        return false;
+    /**
+     * Pack the ids of the ends of an edge into a key for edgeMap, the smaller id
+     * in the high half, so that both orders of the ends give the same key.
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the key of the v1-v2 edge
+     */
+    private static long edgeKey(Vertex v1, Vertex v2) {
+        int a = Math.min(v1.id(), v2.id());
+        int b = Math.max(v1.id(), v2.id());
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
     }
 
     /**
@@ -145,9 +273,7 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
     @Override
     public int edgeLength(V v1, V v2) throws IllegalArgumentException {
 
-        Pair<V> edgePair = new Pair<V>(v1,v2);
-
-        E newEdge = edgeMap.get(edgePair);
+        E newEdge = edgeMap.get(edgeKey(v1, v2));
 
         if (newEdge == null) {
             throw new IllegalArgumentException();
@@ -187,17 +313,33 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
             return false;
         }
 
-        vertexMap.get(e.v1()).remove(e.v2());
-        vertexMap.get(e.v2()).remove(e.v1());
+        unlink(e.v1(), e.v2());
+        unlink(e.v2(), e.v1());
 
-        Pair<V> edgePair = new Pair<V>(e.v1(), e.v2());
-        edgeMap.remove(edgePair);
-
-        edgeMap.values().remove(e);
+        edgeMap.remove(edgeKey(e.v1(), e.v2()));
+        incidentViews.get(e.v1()).reorder();
+        incidentViews.get(e.v2()).reorder();
+        modCount++;
 
         return true;
     }
 
+    /**
+     * Remove w from the adjacency of v, along with the edge that joins them.
+     * Does nothing if w is not adjacent to v.
+     *
+     * @param v a vertex within the graph
+     * @param w the neighbour to unlink
+     */
+    private void unlink(V v, V w) {
+        int i = vertexMap.get(v).indexOf(w);
+
+        if (i != -1) {
+            vertexMap.get(v).remove(i);
+            incidentMap.get(v).remove(i);
+        }
+    }
+
     /**
      * Remove a vertex from the graph
      *
@@ -212,18 +354,18 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
             return false;
         }
 
-        vertexMap.remove(v);
+        List<V> neighbours = vertexMap.remove(v);
+        incidentMap.remove(v);
+        incidentViews.remove(v);
+        idIndex.remove(v.id());
 
-        for (List<V> planetList : vertexMap.values()) {
-            planetList.remove(v);
-        }
-
-        for (Pair<V> edgePair : edgeMap.keySet()) {
-            if (edgePair.contains(v)) {
-                edgeMap.remove(edgePair);
-                edgeMap.values().remove(edgeMap.remove(edgePair));
-            }
+        // only the neighbours of v hold references to it
+        for (V neighbour : neighbours) {
+            unlink(neighbour, v);
+            edgeMap.remove(edgeKey(v, neighbour));
+            incidentViews.get(neighbour).reorder();
         }
+        modCount++;
 
         return true;
     }
@@ -231,53 +373,127 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
     /**
      * Obtain a set of all vertices in the graph.
      * Access to this set **should not** permit graph mutations.
+     * The set is an unmodifiable view that reflects later mutations of the graph, and
+     * iterating over it while the graph is mutated throws ConcurrentModificationException.
+     * Every call returns the same set.
      *
      * @return a set of all vertices in the graph
      */
     @Override
     public Set<V> allVertices() {
+        return vertexView;
+    }
 
-        Set<V> vertexSet = new HashSet<>(vertexMap.keySet());
+    /**
+     * Iterate over the vertices in the order a HashSet copied from vertexMap would hold them.
+     * allVertices used to return such a copy and pruneRandomEdges starts from its first
+     * vertex, so the order is kept. The copy has as many buckets as vertexMap except after
+     * removals, or when the number of vertices is exactly three quarters of a power of two;
+     * only then are the vertices sorted.
+     *
+     * @return an iterator over every vertex of the graph
+     */
+    private Iterator<V> verticesInCopyOrder() {
+        int n = vertexMap.size();
+        int capacity = Math.max(16, Integer.highestOneBit((int) (n / .75f)) << 1);
+
+        if (capacity == vertexTableCapacity) {
+            return vertexMap.keySet().iterator();
+        }
 
-        return vertexSet;
+        List<V> ordered = new ArrayList<V>(vertexMap.keySet());
+        ordered.sort(Comparator.comparingInt(v -> bucket(v.hashCode(), capacity)));
+        return ordered.iterator();
+    }
+
+    /**
+     * Check if o is a vertex of the graph.
+     */
+    private boolean holdsVertex(Object o) {
+        if (!(o instanceof Vertex)) {
+            return false;
+        }
+        V v = idIndex.get(((Vertex) o).id());
+        return v != null && v.equals(o);
     }
 
     /**
      * Obtain a set of all vertices incident on v.
      * Access to this set **should not** permit graph mutations.
+     * The set is an unmodifiable view that reflects later mutations of the graph, and
+     * iterating over it while the graph is mutated throws ConcurrentModificationException.
+     * Every call with the same vertex returns the same set, which is empty if v is not in the
+     * graph.
      *
      * @param v the vertex of interest
      * @return all edges incident on v
      */
     @Override
     public Set<E> allEdges(V v) {
+        IncidentEdges view = incidentViews.get(v);
+        return view == null ? Collections.emptySet() : view;
+    }
 
-        Set<E> edgeSet = new HashSet<>();
-
-        for (E edge: edgeMap.values()) {
-            if (edge.v1() == v || edge.v2() == v) {
-                edgeSet.add(edge);
-            }
-        }
+    /**
+     * Find the bucket an element with hash code h falls in within a HashMap with
+     * capacity buckets.
+     *
+     * @param h        the hash code of the element
+     * @param capacity a power of two
+     * @return the bucket index of the element
+     */
+    private static int bucket(int h, int capacity) {
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
 
-        return edgeSet;
+    /**
+     * Find the bucket e falls in within a HashMap keyed by Pair with edgeTableCapacity buckets.
+     *
+     * @param e an edge of the graph
+     * @return the bucket index e would have in the edge table
+     */
+    private int edgeTableBucket(E e) {
+        return bucket(e.v1().hashCode() + e.v2().hashCode(), edgeTableCapacity); // the Pair key
     }
 
     /**
      * Obtain a set of all edges in the graph.
      * Access to this set **should not** permit graph mutations.
+     * The set is an unmodifiable view that reflects later mutations of the graph, and
+     * iterating over it while the graph is mutated throws ConcurrentModificationException.
+     * Every call returns the same set.
      *
      * @return all edges in the graph
      */
     @Override
     public Set<E> allEdges() {
-        Set<E> edgeSet = new HashSet<E>();
+        return edgeView;
+    }
 
-        for(E edge : edgeMap.values()) {
-            edgeSet.add(edge);
+    /**
+     * Check if o is an edge of the graph.
+     */
+    private boolean holdsEdge(Object o) {
+        if (!(o instanceof Edge<?>)) {
+            return false;
         }
+        Edge<?> e = (Edge<?>) o;
+        E held = edgeMap.get(edgeKey(e.v1(), e.v2()));
+        return held != null && held.equals(o);
+    }
 
-        return edgeSet;
+    /**
+     * List the edges in the order a HashMap keyed by Pair with edgeTableCapacity buckets
+     * would hold them: by bucket, and within a bucket in insertion order. freeze and
+     * allEdges used to take their edges from such a map, and the order decides how
+     * CsrGraph breaks ties between equally short paths, so it is kept.
+     *
+     * @return every edge of the graph
+     */
+    private List<E> edgesInTableOrder() {
+        List<E> ordered = edgeMap.valuesInInsertionOrder();
+        ordered.sort(Comparator.comparingInt(this::edgeTableBucket));
+        return ordered;
     }
 
     /**
@@ -296,165 +512,382 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
             throw new IllegalArgumentException();
         }
 
-        for (V planet : vertexMap.get(v)) {
-            Pair<V> edgePair = new Pair<>(planet, v);
-            E edge = edgeMap.get(edgePair);
-            neighbourMap.put(planet, edge);
+        forEachNeighbour(v, neighbourMap::put);
+
+        return neighbourMap;
+    }
+
+    /**
+     * Pass each neighbour of v, together with the edge that joins it to v, to action.
+     * Reads the adjacency of v directly, so no objects are allocated per neighbour.
+     *
+     * @param v      is the vertex whose neighbourhood we want.
+     * @param action receives each neighbour w of v and the edge between v and w.
+     *               It must not mutate the graph.
+     * @throws IllegalArgumentException if vertex v does not exist in the graph
+     */
+    @Override
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> action) throws IllegalArgumentException {
+        List<V> neighbours = vertexMap.get(v);
+
+        if (neighbours == null) {
+            throw new IllegalArgumentException();
         }
 
+        List<E> incident = incidentMap.get(v);
 
-        return neighbourMap;
+        for (int i = 0; i < neighbours.size(); i++) {
+            action.accept(neighbours.get(i), incident.get(i));
+        }
     }
 
     /**
-     * Call the dijkstra method to compute the shortest path
-     * from the source vertex to the sink vertex
+     * Obtain the number of neighbours of v
      *
-     * @param source the start vertex
-     * @param sink   the end vertex
-     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
-     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @param v a vertex in the graph
+     * @return the number of edges incident on v
+     * @throws IllegalArgumentException if vertex v does not exist in the graph
      */
     @Override
-    public List<V> shortestPath(V source, V sink) {
-        Map<V,Integer> distFromSource = new HashMap<V, Integer>();
-        Map<V,List<V>> pathFromSource = new HashMap<V, List<V>>();
+    public int degree(V v) throws IllegalArgumentException {
+        List<V> neighbours = vertexMap.get(v);
 
-        dijkstra(source, distFromSource, pathFromSource);
+        if (neighbours == null) {
+            throw new IllegalArgumentException();
+        }
 
-        return pathFromSource.get(sink);
+        return neighbours.size();
     }
 
     /**
-     * Compute the shortest path from the given source to the given sink.
-     * The given sink will be used as a parameter within the driver method.
+     * Obtain the i-th neighbour of v. Together with degree(v) and incidentEdge(v, i)
+     * this lets callers walk the neighbourhood of v with a plain index.
      *
-     * @param source the start vertex
-     * @param distFromSource a hashmap of vertices with respective distances from source
-     * @param pathFromSource a hashmap of vertices and list of vertices representing the path from the source
+     * @param v a vertex in the graph
+     * @param i the position of the neighbour, 0 <= i < degree(v)
+     * @return the i-th neighbour of v
+     * @throws IllegalArgumentException if vertex v does not exist in the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
      */
-    private void dijkstra (V source, Map<V,Integer> distFromSource, Map<V,List<V>> pathFromSource) {
-        List<V> visited = new ArrayList<V>();
+    @Override
+    public V neighbour(V v, int i) throws IllegalArgumentException {
+        List<V> neighbours = vertexMap.get(v);
+
+        if (neighbours == null) {
+            throw new IllegalArgumentException();
+        }
 
-        for (V planet: vertexMap.keySet()) {
-            //Initialize the distFromSource map to be all the vertices in planetMap as keys and set each of their values to Integer.MAX_VALUE
-            distFromSource.put(planet,Integer.MAX_VALUE);
+        return neighbours.get(i);
+    }
 
-            pathFromSource.put(planet, new ArrayList<>());
+    /**
+     * Obtain the edge between v and its i-th neighbour.
+     *
+     * @param v a vertex in the graph
+     * @param i the position of the neighbour, 0 <= i < degree(v)
+     * @return the edge between v and neighbour(v, i)
+     * @throws IllegalArgumentException if vertex v does not exist in the graph
+     * @throws IndexOutOfBoundsException if i is not in 0..degree(v)-1
+     */
+    @Override
+    public E incidentEdge(V v, int i) throws IllegalArgumentException {
+        List<E> incident = incidentMap.get(v);
 
-            //add source as the first planet in the shortest path from source to any other Vertex in the graph
-            pathFromSource.get(planet).add(source);
+        if (incident == null) {
+            throw new IllegalArgumentException();
         }
 
-        //Give the source vertex a distance value of 0 as it is 0 away from itself
-        distFromSource.replace(source, 0);
+        return incident.get(i);
+    }
 
-        for (int i = 0; i < vertexMap.size(); i++) {
-            //Get the closest Vertex by calling the shortestDist method
-            V minVertex = shortestDist(distFromSource, pathFromSource, visited, source);
+    /**
+     * Call the dijkstra method to compute the shortest path
+     * from the source vertex to the sink vertex.
+     * While no edge is longer than DIAL_MAX_EDGE_LENGTH and the graph has no more than
+     * DIAL_MAX_VERTICES vertices, the search uses Dial's bucket queue, and its path is kept
+     * only when it is the one shortest path; otherwise the heap search is run, so the result
+     * never depends on which queue was used. On larger graphs short rounded lengths make
+     * most paths tie, so the heap is used alone.
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink does not exist in the graph
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink) {
+        if (!vertex(source) || !vertex(sink)) {
+            throw new IllegalArgumentException();
+        }
 
-            visited.add(minVertex);
+        Map<V,Integer> distFromSource = new HashMap<V, Integer>();
+        Map<V,V> previous = new HashMap<V, V>();
 
-            //Call the updateDistance method to then update the distance from the source to the minVertex neighbor Vertexes
-            updateDistance(minVertex, visited, distFromSource, pathFromSource);
+        if (maxEdgeLength <= DIAL_MAX_EDGE_LENGTH && vertexMap.size() <= DIAL_MAX_VERTICES) {
+            DialSearch<V, E> dial = dialSearch.get();
+            dial.search(maxEdgeLength, source, sink, distFromSource, previous);
 
-            if (pathFromSource.get(minVertex).size() == 1 && minVertex != source) {
-                pathFromSource.get(minVertex).remove(0);
-                distFromSource.replace(minVertex, Integer.MAX_VALUE);
+            if (dial.uniquePath(source, sink, distFromSource, previous)) {
+                return buildPath(source, sink, previous);
             }
+            distFromSource.clear();
+            previous.clear();
         }
 
+        dijkstra(source, sink, v -> 0, distFromSource, previous);
 
+        return buildPath(source, sink, previous);
     }
 
     /**
-     * Finds the vertex which is the shortest distance to the next vertex.
+     * Compute the shortest path from source to sink with A* search
      *
-     * @param distFromSource a hashmap of vertices with respective distances from source
-     * @param pathFromSource a hashmap of vertices and list of vertices representing the path from the source
-     * @param visited a list of all the visited vertices
-     * @param source the start vertex
-     * @return the vertex which gives the shortest distance to the next vertex
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic a lower bound on the distance from each vertex to sink
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink does not exist in the graph
      */
-    private V shortestDist(Map<V,Integer> distFromSource, Map<V,List<V>> pathFromSource, List<V> visited, V source) {
-        int minDist = Integer.MAX_VALUE;
-        V minVertex = source;
-
-        for (V planet : vertexMap.keySet()) {
-            //If the vertex given in planetMap has not been visited and the distance from the source to that vertex is less than minDist
-            if (!visited.contains(planet) && distFromSource.get(planet) <= minDist) {
-                minDist = distFromSource.get(planet);
-                minVertex = planet;
-            }
+    @Override
+    public List<V> shortestPath(V source, V sink, ToDoubleFunction<? super V> heuristic) {
+        if (!vertex(source) || !vertex(sink)) {
+            throw new IllegalArgumentException();
         }
 
-        return minVertex;
+        Map<V,Integer> distFromSource = new HashMap<V, Integer>();
+        Map<V,V> previous = new HashMap<V, V>();
+
+        dijkstra(source, sink, heuristic, distFromSource, previous);
+
+        return buildPath(source, sink, previous);
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink does not exist in the graph
+     */
+    @Override
+    public int distance(V source, V sink) {
+        return distance(source, sink, (v, w) -> 0);
     }
 
     /**
-     * Update the distance from the source and the path from the source for closePlanet's neighbor Vertexes
+     * Compute the length of the shortest path from source to sink by growing one search out of
+     * source and another into sink until they meet, in the manner of CsrGraph.bidirectionalPath.
+     * Both are A* searches on the average potential (lowerBound(v, sink) - lowerBound(source, v)) / 2;
+     * the forward search orders vertices by their distance from source plus the potential, the
+     * reverse search by their distance to sink minus it. The potentials sum to zero, so the search
+     * can stop once the smallest keys of the two queues add up to at least the best path seen.
      *
-     * @param closePlanet the closest planet to the current vertex
-     * @param visited a list of all the visited vertices
-     * @param distFromSource a hashmap of vertices with respective distances from source
-     * @param pathFromSource a hashmap of vertices and list of vertices representing the path from the source
+     * @param source     the start vertex
+     * @param sink       the end vertex
+     * @param lowerBound a symmetric, consistent lower bound on the distance between two vertices
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink does not exist in the graph
      */
-    private void updateDistance (V closePlanet, List<V> visited, Map<V,Integer> distFromSource, Map<V,List<V>> pathFromSource) {
-        Map<V, E> neighbors =  getNeighbours(closePlanet);
+    @Override
+    public int distance(V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound) {
+        if (!vertex(source) || !vertex(sink)) {
+            throw new IllegalArgumentException();
+        }
+        if (source.equals(sink)) {
+            return 0;
+        }
 
-        // iterate over the adjacent planets
-        for (V neighbor : neighbors.keySet()) {
-            if (!visited.contains(neighbor)) {
-                E edge = neighbors.get(neighbor);
-                int distance = distFromSource.get(closePlanet) + edge.length();
-                List<V> path = new ArrayList<>(pathFromSource.get(closePlanet));
-                path.add(neighbor);
+        Map<V, Integer> distF = new HashMap<V, Integer>();
+        Map<V, Integer> distR = new HashMap<V, Integer>();
+        Map<V, Double> potential = new HashMap<V, Double>();
+        Set<V> settledF = new HashSet<V>();
+        Set<V> settledR = new HashSet<V>();
+        Heap<V> forward = new Heap<V>(true);
+        Heap<V> reverse = new Heap<V>(true);
+
+        potential.put(source, (lowerBound.applyAsDouble(source, sink) - lowerBound.applyAsDouble(source, source)) / 2);
+        potential.put(sink, (lowerBound.applyAsDouble(sink, sink) - lowerBound.applyAsDouble(source, sink)) / 2);
+        distF.put(source, 0);
+        distR.put(sink, 0);
+        forward.add(source, potential.get(source));
+        reverse.add(sink, -potential.get(sink));
+
+        int best = Integer.MAX_VALUE;
+
+        while (forward.size() > 0 && reverse.size() > 0) {
+            V f = forward.peek();
+            V r = reverse.peek();
+            double topF = distF.get(f) + potential.get(f);
+            double topR = distR.get(r) - potential.get(r);
+
+            if (best != Integer.MAX_VALUE && topF + topR >= best) {
+                break;
+            }
 
-                //Replace the key-value pair in both distFromSource and pathFromSource if this new distance is less than distance from the source to neighbor
-                if (distance < distFromSource.get(neighbor)) {
-                    distFromSource.replace(neighbor, distance);
-                    pathFromSource.replace(neighbor, path);
+            boolean isForward = topF <= topR;
+            Heap<V> queue = isForward ? forward : reverse;
+            Map<V, Integer> dist = isForward ? distF : distR;
+            Map<V, Integer> other = isForward ? distR : distF;
+            Set<V> settled = isForward ? settledF : settledR;
+            double sign = isForward ? 1 : -1;
+
+            V u = queue.poll();
+            settled.add(u);
+            int du = dist.get(u);
+
+            List<V> adjacent = vertexMap.get(u);
+            List<E> edges = incidentMap.get(u);
+            for (int i = 0; i < adjacent.size(); i++) {
+                V w = adjacent.get(i);
+                int distance = du + edges.get(i).length();
+                Integer oldDistance = dist.get(w);
+
+                if (oldDistance != null && distance >= oldDistance) {
+                    continue;
+                }
+
+                double key = distance + sign * potential.computeIfAbsent(w,
+                        x -> (lowerBound.applyAsDouble(x, sink) - lowerBound.applyAsDouble(source, x)) / 2);
+                //A settled vertex is only improved on when the bound is inconsistent; it is queued again
+                if (oldDistance == null || settled.remove(w)) {
+                    queue.add(w, key);
+                } else {
+                    queue.updatePriority(w, key);
+                }
+                dist.put(w, distance);
+
+                Integer through = other.get(w);
+                if (through != null && distance + through < best) {
+                    best = distance + through;
                 }
             }
         }
+
+        return best;
     }
 
     /**
-     * Compute the minimum spanning tree of the graph.
-     * Graph must not have any "islands" or disconnected componenets.
+     * Build a contraction hierarchy of the frozen snapshot of the graph, so it does not
+     * change if this graph does. The snapshot caches it, so it is built once for every
+     * version of the graph.
      *
-     * @return a list of edges that forms a minimum spanning tree of the graph
+     * @return a contraction hierarchy of the graph as it is now
      */
     @Override
-    public List<E> minimumSpanningTree() {
-        List<E> tree = new ArrayList<E>();
-        Groups groups = new Groups();
+    public ContractionHierarchy<V> contractionHierarchy() {
+        return freeze().contractionHierarchy();
+    }
 
-        // sort edges in acsending order
-        List<E> edgeList = edgeMap.values().stream().sorted((e1, e2) -> e1.length() - (e2.length())).collect(Collectors.toList());
+    /**
+     * Find the bridges, articulation points and biconnected components of the frozen
+     * snapshot of the graph, so the result does not change if this graph does.
+     * The snapshot caches it, so it is found once for every version of the graph.
+     *
+     * @return the biconnectivity of the graph as it is now
+     */
+    @Override
+    public Biconnectivity<V, E> biconnectivity() {
+        return freeze().biconnectivity();
+    }
 
-        for (E edge : edgeList) {
-            groups.add(edge.v1());
-        }
+    /**
+     * Compute the shortest paths from source to every vertex in the graph at once.
+     * The paths are computed on the frozen snapshot, so the tree does not change if this graph does.
+     *
+     * @param source the start vertex
+     * @return the shortest path tree rooted at source
+     * @throws IllegalArgumentException if source does not exist in the graph
+     */
+    @Override
+    public ShortestPathTree<V> shortestPathTree(V source) {
+        return freeze().shortestPathTree(source);
+    }
+
+    /**
+     * Compute shortest distances from the given source using a binary heap keyed on distance
+     * plus the heuristic estimate of the distance left; with a zero heuristic this is plain
+     * Dijkstra. Only vertices reachable from source are given a distance; the search stops early
+     * once sink has been settled.
+     *
+     * @param source the start vertex
+     * @param sink the vertex at which to stop, or null to settle every reachable vertex
+     * @param heuristic a lower bound on the distance from each vertex to sink
+     * @param distFromSource filled with each reached vertex and its distance from source
+     * @param previous filled with each reached vertex (other than source) and the vertex before it on the shortest path
+     */
+    private void dijkstra(V source, V sink, ToDoubleFunction<? super V> heuristic,
+                          Map<V,Integer> distFromSource, Map<V,V> previous) {
+        Heap<V> queue = new Heap<V>(true);
+        Set<V> settled = new HashSet<V>();
 
-        int i = 0;
-        while (tree.size() != vertexMap.keySet().size() - 1) {
-            E next = (E) edgeList.get(i++);
+        distFromSource.put(source, 0);
+        queue.add(source, heuristic.applyAsDouble(source));
 
-            Vertex head1 = groups.find(next.v1());
-            Vertex head2 = groups.find(next.v2());
+        while (queue.size() > 0) {
+            V closePlanet = queue.poll();
+            settled.add(closePlanet);
 
-            if (head1 != head2) {
-                // if the head vertex for each vertex that forms edge is different
-                // we know that they do not form a loop in the graph and can be added to the
-                // minimum spanning tree
-                tree.add(next);
-                groups.merge(head1, head2);
+            if (closePlanet.equals(sink)) {
+                return;
             }
 
+            int closeDist = distFromSource.get(closePlanet);
+
+            for (V neighbor : vertexMap.get(closePlanet)) {
+                int distance = closeDist + edgeMap.get(edgeKey(closePlanet, neighbor)).length();
+                Integer oldDistance = distFromSource.get(neighbor);
+
+                //A settled vertex is only improved on when the heuristic is inconsistent; it is queued again
+                if (oldDistance == null || (distance < oldDistance && settled.remove(neighbor))) {
+                    queue.add(neighbor, distance + heuristic.applyAsDouble(neighbor));
+                } else if (distance < oldDistance) {
+                    queue.updatePriority(neighbor, distance + heuristic.applyAsDouble(neighbor));
+                } else {
+                    continue;
+                }
+
+                distFromSource.put(neighbor, distance);
+                previous.put(neighbor, closePlanet);
+            }
         }
+    }
 
-        return tree;
+    /**
+     * Walk the predecessor map back from sink to build the shortest path.
+     *
+     * @param source the start vertex
+     * @param sink the end vertex
+     * @param previous each reached vertex mapped to the vertex before it on the shortest path
+     * @return the vertices from source to sink in order, or an empty list if sink was not reached
+     */
+    private List<V> buildPath(V source, V sink, Map<V,V> previous) {
+        List<V> path = new ArrayList<V>();
+
+        if (!sink.equals(source) && !previous.containsKey(sink)) {
+            return path;
+        }
+
+        for (V planet = sink; planet != null; planet = previous.get(planet)) {
+            path.add(planet);
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+
+    /**
+     * Compute the minimum spanning tree of the graph on the frozen snapshot,
+     * using the default MstAlgorithm.
+     * If the graph has "islands" or disconnected components, a minimum spanning forest is returned.
+     *
+     * @return a list of edges that forms a minimum spanning tree of the graph
+     */
+    @Override
+    public List<E> minimumSpanningTree() {
+        return freeze().minimumSpanningTree();
     }
 
     /**
@@ -469,8 +902,7 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
         int totalLength = 0;
 
         for (int i = 0; i < path.size() - 1; i++) {
-            Pair<V> edgePair = new Pair<>(path.get(i), path.get(i + 1));
-            E edge = edgeMap.get(edgePair);
+            E edge = edgeMap.get(edgeKey(path.get(i), path.get(i + 1)));
 
             totalLength += edge.length();
         }
@@ -479,7 +911,7 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
     }
 
     /**
-     * Call the recursiveSearch method.
+     * Obtain all vertices that are no more than range edges away from v.
      *
      * @param v     the vertex to start the search from.
      *              v must exist in the graph.
@@ -491,78 +923,63 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
 
         Set<V> vertexList = new HashSet<V>();
 
-        vertexList = recursiveSearch(v, range, vertexList, v);
+        forEachWithin(v, range, vertexList::add);
 
         return vertexList;
     }
 
     /**
-     * Recursively obtain all vertices that are no more than a path distance of range from v.
+     * Pass every vertex that is no more than range edges away from v to consumer,
+     * one breadth-first level at a time. Each vertex is expanded at most once.
      *
-     * @param v     the vertex to start the search from.
-     * @param range the radius of the search.
-     * @param vertexList the new set of vertices to be added to and returned.
-     * @param orig the original vertex to start the search from, which doesn't change.
-     * @return a set of vertices that are within range of v (this set does not contain v).
+     * @param v        the vertex to start the search from.
+     *                 v must exist in the graph.
+     * @param range    the radius of the search. range >= 1
+     * @param consumer receives each vertex within range of v exactly once (v itself is not passed).
+     * @throws IllegalArgumentException if vertex v does not exist in the graph
      */
-    private Set<V> recursiveSearch(V v, int range, Set<V> vertexList, V orig) {
-        //Base case: adds a vertex from planetMap to vertexList if it is not the same as the original vertex
-        if (range == 1) {
-            for (V vertex : vertexMap.get(v)) {
-                if (vertex.equals(orig)) {
-                    continue;
-                } else {
-                    vertexList.add(vertex);
-                }
-            }
+    @Override
+    public void forEachWithin(V v, int range, Consumer<? super V> consumer) {
+        if (!vertex(v)) {
+            throw new IllegalArgumentException();
         }
-         //Recursive case: Call recursiveSearch with each vertex in planetMap, decrementing the range by one each call
-         else {
-            for (V vertex: vertexMap.get(v)) {
-                vertexList = recursiveSearch(vertex, range - 1, vertexList, orig);
+
+        Set<V> visited = new HashSet<V>();
+        List<V> frontier = new ArrayList<V>();
+        List<V> next = new ArrayList<V>();
+
+        visited.add(v);
+        frontier.add(v);
+
+        for (int level = 0; level < range && !frontier.isEmpty(); level++) {
+            for (V planet : frontier) {
+                for (V neighbor : vertexMap.get(planet)) {
+                    if (visited.add(neighbor)) {
+                        next.add(neighbor);
+                        consumer.accept(neighbor);
+                    }
+                }
             }
-        }
 
-        return vertexList;
+            //The next level becomes the frontier, and the old frontier is reused for the level after
+            List<V> expanded = frontier;
+            frontier = next;
+            next = expanded;
+            next.clear();
+        }
     }
 
     /**
      * Compute the diameter of the graph by finding the
      * length of the longest shortest path in the graph.
+     * The computation runs in parallel on the frozen snapshot of the graph,
+     * which keeps its eccentricity engine for later calls.
      *
      * @return the diameter of the graph.
      */
     @Override
     public int diameter() {
-        int max = 0;
-
-        for (V planet : vertexMap.keySet()) {
-            Map<V,Integer> distFromSource = new HashMap<V, Integer>();
-            Map<V,List<V>> pathFromSource = new HashMap<V, List<V>>();
-
-            //Call the dijkstra method to compute all shortest paths
-            dijkstra(planet, distFromSource, pathFromSource);
-
-            List diameters = new ArrayList(distFromSource.values());
-
-            if (diameters.contains(Integer.MAX_VALUE)) {
-                diameters.removeAll(Collections.singleton(Integer.MAX_VALUE));
-            }
-
-            //Sort all the diameters
-            Collections.sort(diameters, Collections.reverseOrder());
-
-            //Find length of the the longest shortest path
-            if (max < (int) diameters.get(0)) {
-                max = (int) diameters.get(0);
-            }
-        }
-
-        if (max == 0) {
-            return Integer.MAX_VALUE;
-        }
-
-        return max;
+        return freeze().diameter();
     }
 
     /**
@@ -576,15 +993,39 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      */
     @Override
     public E getEdge(V v1, V v2) throws IllegalArgumentException {
-        Pair<V> edgePair = new Pair<>(v1, v2);
+        E edge = edgeMap.get(edgeKey(v1, v2));
 
-        if (edgeMap.get(edgePair) != null) {
-            return edgeMap.get(edgePair);
+        if (edge != null) {
+            return edge;
         }
 
         throw new IllegalArgumentException();
     }
 
+    /**
+     * Obtain an immutable compressed-sparse-row snapshot of this graph.
+     * Later mutations of this graph are not reflected in the snapshot.
+     * The snapshot is built on the first call after a mutation and returned
+     * by every call until the next one, along with the analyses it caches.
+     *
+     * @return a CsrGraph with the same vertices and edges as this graph
+     */
+    public CsrGraph<V, E> freeze() {
+        Frozen<V, E> snapshot = frozen;
+
+        if (snapshot == null || snapshot.version != modCount) {
+            synchronized (this) {
+                snapshot = frozen;
+                if (snapshot == null || snapshot.version != modCount) {
+                    snapshot = new Frozen<V, E>(modCount, new CsrGraph<V, E>(vertexMap.keySet(), edgesInTableOrder()));
+                    frozen = snapshot;
+                }
+            }
+        }
+
+        return snapshot.graph;
+    }
+
     /**
      * This method removes some edges at random while preserving connectivity
      * <p>
@@ -649,4 +1090,99 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
             remove(trim);
         }
     }
+
+    /**
+     * Remove edges at random while preserving connectivity, until edgeCount edges are left
+     * or every edge left is a bridge. Unlike pruneRandomEdges(Random), any edge may be removed,
+     * not only the edges off one spanning tree: each edge is considered once, in an order drawn
+     * from rng, and removed unless that would disconnect its ends, which DynamicConnectivity
+     * answers in polylogarithmic time.
+     *
+     * @param rng       random number generator to order the edges
+     * @param edgeCount the number of edges to keep, edgeCount >= 0
+     * @throws IllegalArgumentException if edgeCount < 0
+     */
+    public void pruneRandomEdges(Random rng, int edgeCount) throws IllegalArgumentException {
+        if (edgeCount < 0) {
+            throw new IllegalArgumentException("edgeCount must not be negative");
+        }
+
+        List<E> candidates = edgesInTableOrder();
+        Collections.shuffle(candidates, rng);
+        DynamicConnectivity<V, E> connectivity = new DynamicConnectivity<V, E>(this);
+
+        for (E e : candidates) {
+            if (edgeMap.size() <= edgeCount) {
+                return;
+            }
+            connectivity.removeIfNotBridge(e);
+        }
+    }
+
+    /**
+     * The edges incident on one vertex, held in the order a HashSet of them would iterate
+     * when filled in the order the old scan of a Pair-keyed edge table found them: stably
+     * sorted by bucket in that HashSet, then by bucket in the edge table, then by insertion.
+     * pruneRandomEdges walks the graph in this order, so a seed still generates the same
+     * universe. The order is recomputed by every mutation that changes it, so reads do not
+     * allocate.
+     */
+    private final class IncidentEdges extends LiveSet<E> {
+        private final V v;
+        private List<E> order = Collections.emptyList();
+
+        IncidentEdges(V v) {
+            super(() -> modCount);
+            this.v = v;
+        }
+
+        /**
+         * Sort the edges of v again, after they or edgeTableCapacity have changed.
+         */
+        void reorder() {
+            List<E> incident = incidentMap.get(v);
+            int capacity = 16;
+            while (incident.size() > capacity / 4 * 3) {
+                capacity *= 2;
+            }
+            int setCapacity = capacity;
+
+            List<E> ordered = new ArrayList<E>(incident);
+            ordered.sort(Comparator.comparingInt((E e) -> bucket(e.hashCode(), setCapacity))
+                    .thenComparingInt(Graph.this::edgeTableBucket));
+            order = ordered;
+        }
+
+        @Override
+        Iterator<E> elements() {
+            return order.iterator();
+        }
+
+        @Override
+        public int size() {
+            return order.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!holdsEdge(o)) {
+                return false;
+            }
+            Edge<?> e = (Edge<?>) o;
+            return e.v1().equals(v) || e.v2().equals(v);
+        }
+    }
+
+    /**
+     * A CsrGraph of the graph together with the value of modCount it was built at.
+     */
+    private static final class Frozen<V extends Vertex, E extends Edge<V>> {
+        private final int version;
+        private final CsrGraph<V, E> graph;
+
+        Frozen(int version, CsrGraph<V, E> graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package cpen221.mp2.graph;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 public interface IGraph<V extends Vertex, E extends Edge<V>> {
 
@@ -114,5 +115,41 @@ public interface IGraph<V extends Vertex, E extends Edge<V>> {
      */
     Map<V, E> getNeighbours(V v);
 
+    /**
+     * Pass each neighbour of v, together with the edge that joins it to v, to action.
+     * Unlike getNeighbours, nothing is allocated per call or per neighbour.
+     * The action **must not** mutate the graph.
+     *
+     * @param v      is the vertex whose neighbourhood we want.
+     * @param action receives each vertex w that neighbors v and the edge between v and w.
+     */
+    void forEachNeighbour(V v, BiConsumer<? super V, ? super E> action);
+
+    /**
+     * Obtain the number of neighbours of v.
+     *
+     * @param v the vertex of interest
+     * @return the number of edges incident on v
+     */
+    int degree(V v);
+
+    /**
+     * Obtain the i-th neighbour of v, for 0 <= i < degree(v).
+     * The order is fixed for as long as the graph is not mutated.
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the i-th neighbour of v
+     */
+    V neighbour(V v, int i);
+
+    /**
+     * Obtain the edge between v and neighbour(v, i), for 0 <= i < degree(v).
+     *
+     * @param v the vertex of interest
+     * @param i the position of the neighbour
+     * @return the edge between v and its i-th neighbour
+     */
+    E incidentEdge(V v, int i);
 
 }
@@ -2,6 +2,10 @@ package cpen221.mp2.graph;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
 
 public interface ImGraph<V extends Vertex, E extends Edge<V>> {
 
@@ -14,6 +18,73 @@ public interface ImGraph<V extends Vertex, E extends Edge<V>> {
      */
     List<V> shortestPath(V source, V sink);
 
+    /**
+     * Compute the shortest path from source to sink with A* search.
+     * The heuristic steers the search towards sink, so fewer vertices are expanded
+     * than by Dijkstra's algorithm, but the path found is still a shortest one.
+     *
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic estimates the distance from each vertex to sink. It must never
+     *                  overestimate the true distance; if it also never drops by more than
+     *                  the length of an edge across that edge, each vertex is expanded at most once.
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     */
+    List<V> shortestPath(V source, V sink, ToDoubleFunction<? super V> heuristic);
+
+    /**
+     * Compute the shortest paths from source to every vertex in the graph at once
+     *
+     * @param source the start vertex
+     * @return the shortest path tree rooted at source
+     */
+    ShortestPathTree<V> shortestPathTree(V source);
+
+    /**
+     * Compute the length of the shortest path from source to sink.
+     * Unlike shortestPathTree, only the part of the graph between
+     * the two vertices needs to be explored: the search grows out of
+     * source and into sink at once, and stops where the two meet.
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     */
+    int distance(V source, V sink);
+
+    /**
+     * Compute the length of the shortest path from source to sink, using lowerBound
+     * to steer both ends of the search.
+     *
+     * @param source     the start vertex
+     * @param sink       the end vertex
+     * @param lowerBound gives a lower bound on the distance between any two vertices. It must be
+     *                   symmetric, and across any edge lowerBound(u, x) and lowerBound(w, x) may
+     *                   differ by at most the length of the u-w edge.
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     */
+    int distance(V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound);
+
+    /**
+     * Obtain a contraction hierarchy of the graph, which answers point-to-point
+     * shortest path queries much faster than a search once it has been built.
+     * Building it is slow, so it only pays off for many queries. The hierarchy
+     * describes the graph as it is now and does not follow later changes.
+     *
+     * @return a contraction hierarchy of the graph
+     */
+    ContractionHierarchy<V> contractionHierarchy();
+
+    /**
+     * Find the bridges, articulation points and biconnected components of the graph
+     * with a single depth-first search. The result describes the graph as it is now
+     * and does not follow later changes.
+     *
+     * @return the biconnectivity of the graph
+     */
+    Biconnectivity<V, E> biconnectivity();
+
     /**
      * Compute the minimum spanning tree of the graph.
      * See https://en.wikipedia.org/wiki/Minimum_spanning_tree
@@ -39,6 +110,16 @@ public interface ImGraph<V extends Vertex, E extends Edge<V>> {
      */
     Set<V> search(V v, int range);
 
+    /**
+     * Pass every vertex w that is no more than a <em>path distance</em> of range from v
+     * to consumer, without building a set of the results.
+     *
+     * @param v        the vertex to start the search from.
+     * @param range    the radius of the search.
+     * @param consumer receives each vertex within range of v exactly once (v itself is not passed).
+     */
+    void forEachWithin(V v, int range, Consumer<? super V> consumer);
+
     /**
      * Compute the diameter of the graph.
      * <ul>
@@ -61,5 +142,21 @@ public interface ImGraph<V extends Vertex, E extends Edge<V>> {
      */
     public E getEdge(V v1, V v2);
 
+    /**
+     * Pass each neighbour of v, together with the edge that joins it to v, to action,
+     * without allocating anything per neighbour.
+     *
+     * @param v      is the vertex whose neighbourhood we want.
+     * @param action receives each vertex w that neighbors v and the edge between v and w.
+     */
+    void forEachNeighbour(V v, BiConsumer<? super V, ? super E> action);
+
+    /**
+     * Obtain the number of neighbours of v.
+     *
+     * @param v the vertex of interest
+     * @return the number of edges incident on v
+     */
+    int degree(V v);
 
 }
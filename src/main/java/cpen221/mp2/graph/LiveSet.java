@@ -0,0 +1,72 @@
+package cpen221.mp2.graph;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntSupplier;
+
+/**
+ * An unmodifiable view of some elements of a graph, which reflects every mutation of the
+ * graph without being copied or rebuilt when it is read. An iteration that is overtaken by
+ * a mutation of the graph fails with ConcurrentModificationException rather than returning
+ * a mix of old and new elements.
+ *
+ * Representation Invariant:
+ * - elements() iterates over distinct, non-null elements, as many as size() returns.
+ * - contains(o) is true iff o equals an element that elements() would return.
+ *
+ * Abstraction Function:
+ * Represents the set of elements that elements() returns while modCount is unchanged.
+ *
+ * @param <T> the type of the elements
+ */
+abstract class LiveSet<T> extends AbstractSet<T> {
+
+    private final IntSupplier modCount;
+
+    /**
+     * Create a view of a graph.
+     *
+     * @param modCount the modification counter of the graph
+     */
+    LiveSet(IntSupplier modCount) {
+        this.modCount = modCount;
+    }
+
+    /**
+     * Iterate over the elements as they are now.
+     *
+     * @return an iterator over the elements, which need not detect mutations of the graph
+     */
+    abstract Iterator<T> elements();
+
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> elements = elements();
+        int version = modCount.getAsInt();
+
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                checkVersion();
+                return elements.hasNext();
+            }
+
+            @Override
+            public T next() {
+                checkVersion();
+                if (!elements.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elements.next();
+            }
+
+            private void checkVersion() {
+                if (modCount.getAsInt() != version) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.DisjointSets;
+import cpen221.mp2.util.IntIndexedHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The algorithms available for computing a minimum spanning tree of a CsrGraph.
+ *
+ * <p>Every algorithm orders edges by the rank the graph assigns them
+ * (length first, then hash code), so all of them select the same unique
+ * tree and return its edges in increasing order of rank. On a disconnected
+ * graph each returns a minimum spanning forest: one tree per component.</p>
+ */
+public enum MstAlgorithm {
+
+    /**
+     * Kruskal's algorithm: scan edges by rank and keep those that join two
+     * different components. O(m &alpha;(n)) once edges are ranked.
+     */
+    KRUSKAL {
+        @Override
+        <V extends Vertex, E extends Edge<V>> List<E> spanningForest(CsrGraph<V, E> graph) {
+            int[] ends = graph.edgeEnds();
+            DisjointSets groups = new DisjointSets(graph.vertexCount());
+            List<E> tree = new ArrayList<E>();
+
+            for (int k : graph.edgesByRank()) {
+                if (groups.count() == 1) {
+                    break;
+                }
+                if (groups.union(ends[2 * k], ends[2 * k + 1])) {
+                    tree.add(graph.edgeAt(k));
+                }
+            }
+
+            return tree;
+        }
+    },
+
+    /**
+     * Prim's algorithm: grow a tree from one vertex at a time, keeping the
+     * frontier in an indexed heap with decrease-key. Restarts from an unreached
+     * vertex whenever a component is finished. O(m log n).
+     */
+    PRIM {
+        @Override
+        <V extends Vertex, E extends Edge<V>> List<E> spanningForest(CsrGraph<V, E> graph) {
+            int n = graph.vertexCount();
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            int[] slotEdgeIds = graph.slotEdgeIds();
+            int[] rank = graph.edgeRank();
+
+            // bestEdge[w] is the lowest ranked edge joining w to the tree, -1 if none yet
+            int[] bestEdge = new int[n];
+            Arrays.fill(bestEdge, -1);
+            boolean[] inTree = new boolean[n];
+            boolean[] chosen = new boolean[graph.edgeCount()];
+
+            IntIndexedHeap frontier = new IntIndexedHeap(n);
+
+            for (int root = 0; root < n; root++) {
+                if (inTree[root]) {
+                    continue;
+                }
+                frontier.add(root, -1);
+
+                while (frontier.size() > 0) {
+                    int u = frontier.poll();
+                    inTree[u] = true;
+                    if (bestEdge[u] != -1) {
+                        chosen[bestEdge[u]] = true;
+                    }
+
+                    for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                        int w = targets[j];
+                        int k = slotEdgeIds[j];
+                        if (inTree[w]) {
+                            continue;
+                        }
+                        if (bestEdge[w] == -1) {
+                            bestEdge[w] = k;
+                            frontier.add(w, rank[k]);
+                        } else if (rank[k] < rank[bestEdge[w]]) {
+                            bestEdge[w] = k;
+                            frontier.updatePriority(w, rank[k]);
+                        }
+                    }
+                }
+            }
+
+            return inRankOrder(graph, chosen);
+        }
+    },
+
+    /**
+     * Boruvka's algorithm: every component picks its cheapest outgoing edge
+     * at once, then all picks are merged. The per-vertex scan of each round
+     * runs in parallel. O(m log n) work over O(log n) rounds.
+     */
+    BORUVKA {
+        @Override
+        <V extends Vertex, E extends Edge<V>> List<E> spanningForest(CsrGraph<V, E> graph) {
+            int n = graph.vertexCount();
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            int[] slotEdgeIds = graph.slotEdgeIds();
+            int[] rank = graph.edgeRank();
+            int[] ends = graph.edgeEnds();
+
+            DisjointSets groups = new DisjointSets(n);
+            boolean[] chosen = new boolean[graph.edgeCount()];
+            int[] component = new int[n];
+            int[] vertexBest = new int[n];
+            int[] componentBest = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                component[i] = i;
+            }
+
+            boolean merged = true;
+            while (merged && groups.count() > 1) {
+                // each vertex finds its lowest ranked edge leaving its component
+                IntStream.range(0, n).parallel().forEach(u -> {
+                    int best = -1;
+                    for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                        int k = slotEdgeIds[j];
+                        if (component[targets[j]] != component[u]
+                                && (best == -1 || rank[k] < rank[best])) {
+                            best = k;
+                        }
+                    }
+                    vertexBest[u] = best;
+                });
+
+                // reduce to one edge per component
+                Arrays.fill(componentBest, -1);
+                for (int u = 0; u < n; u++) {
+                    int k = vertexBest[u];
+                    int c = component[u];
+                    if (k != -1 && (componentBest[c] == -1 || rank[k] < rank[componentBest[c]])) {
+                        componentBest[c] = k;
+                    }
+                }
+
+                merged = false;
+                for (int c = 0; c < n; c++) {
+                    int k = componentBest[c];
+                    if (k != -1 && groups.union(ends[2 * k], ends[2 * k + 1])) {
+                        chosen[k] = true;
+                        merged = true;
+                    }
+                }
+
+                for (int i = 0; i < n; i++) {
+                    component[i] = groups.find(i);
+                }
+            }
+
+            return inRankOrder(graph, chosen);
+        }
+    };
+
+    /**
+     * The algorithm used by CsrGraph.minimumSpanningTree().
+     * Chosen from GraphBenchmark runs on Delaunay universes.
+     */
+    public static final MstAlgorithm DEFAULT = KRUSKAL;
+
+    /**
+     * Compute a minimum spanning forest of graph.
+     *
+     * @param graph the graph to span
+     * @return the edges of the forest in increasing order of rank
+     */
+    abstract <V extends Vertex, E extends Edge<V>> List<E> spanningForest(CsrGraph<V, E> graph);
+
+    /**
+     * Collect the chosen edges in increasing order of rank.
+     *
+     * @param graph  the graph the edges belong to
+     * @param chosen chosen[k] is true iff edge k is in the forest
+     * @return the chosen edges in increasing order of rank
+     */
+    private static <V extends Vertex, E extends Edge<V>> List<E> inRankOrder(CsrGraph<V, E> graph, boolean[] chosen) {
+        List<E> tree = new ArrayList<E>();
+
+        for (int k : graph.edgesByRank()) {
+            if (chosen[k]) {
+                tree.add(graph.edgeAt(k));
+            }
+        }
+
+        return tree;
+    }
+}
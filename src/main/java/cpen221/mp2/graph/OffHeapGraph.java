@@ -0,0 +1,906 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.IntIndexedHeap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Dependencies: Vertex.java, Edge.java
+ *
+ * Represents an immutable graph in compressed-sparse-row form whose adjacency is kept
+ * outside the Java heap, in direct buffers. Nothing is held per vertex or per edge on the
+ * heap: vertices are identified by their ids, which must be 0..n-1, and vertex and edge
+ * objects are only created, through the functions given when the graph is built, for the
+ * vertices and edges a query returns. Large graphs therefore add no work to garbage collection.
+ *
+ * <p>Each thread that searches the graph keeps O(n) search buffers on the heap, allocated
+ * once and reused; a second set is added by the first distance query of the thread. Built
+ * from a CsrGraph with {@link #of(CsrGraph)}, the graph stores its adjacency in the same
+ * order, so its searches find the same paths. The analyses that need vertex and edge objects
+ * share a single copy of the graph on the heap, made by the first of them.</p>
+ *
+ * Representation Invariant:
+ * - offsets has n + 1 entries, offsets[0] == 0, offsets[n] == 2m and offsets is non-decreasing.
+ * - targets and lengths have 2m entries, and every target is in 0..n-1.
+ * - For every edge a-b with length l there is exactly one slot j in offsets[a]..offsets[a+1]-1
+ *   with targets[j] == b and lengths[j] == l, and likewise one in the adjacency of b.
+ *
+ * Abstraction Function:
+ * Represents a graph with vertex set {vertexById(0), ..., vertexById(n-1)}.
+ * The neighbours of vertexById(i) are vertexById(targets[j]) for j in offsets[i]..offsets[i+1]-1,
+ * joined by the edge edgeFactory(vertexById(min(i, targets[j])), vertexById(max(i, targets[j])), lengths[j]).
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class OffHeapGraph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E> {
+
+    /**
+     * Creates the edge object for an edge of an OffHeapGraph when a query returns it.
+     *
+     * @param <V> represents a vertex type
+     * @param <E> represents an edge type
+     */
+    @FunctionalInterface
+    public interface EdgeFactory<V extends Vertex, E extends Edge<V>> {
+
+        /**
+         * Create the edge between v1 and v2.
+         *
+         * @param v1     the end with the smaller id
+         * @param v2     the end with the larger id
+         * @param length the length of the edge
+         * @return an edge between v1 and v2 with the given length
+         */
+        E edge(V v1, V v2, int length);
+    }
+
+    private final int n;
+    private final int m;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer lengths;
+    private final IntFunction<? extends V> vertexById;
+    private final EdgeFactory<V, E> edgeFactory;
+    private final ThreadLocal<PathScratch> searchScratch;
+    /* Copied on first use by the analyses that need vertex and edge objects; null until then */
+    private volatile CsrGraph<V, E> heapCopy;
+
+    /**
+     * Take over the adjacency assembled by a Builder.
+     */
+    private OffHeapGraph(int n, int m, IntBuffer offsets, IntBuffer targets, IntBuffer lengths,
+                         IntFunction<? extends V> vertexById, EdgeFactory<V, E> edgeFactory) {
+        this.n = n;
+        this.m = m;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.lengths = lengths;
+        this.vertexById = vertexById;
+        this.edgeFactory = edgeFactory;
+
+        searchScratch = ThreadLocal.withInitial(() -> new PathScratch(n));
+    }
+
+    /**
+     * Copy a CsrGraph whose vertex ids are 0..n-1 off the heap, keeping its adjacency order.
+     * The copy resolves vertices and edges to the objects of graph, so it is mainly a way to
+     * check the off-heap graph against the on-heap one; very large graphs should be assembled
+     * with a Builder instead.
+     *
+     * @param graph the graph to copy
+     * @return an off-heap graph with the same vertices, edges and adjacency order as graph
+     * @throws IllegalArgumentException if the vertex ids of graph are not 0..n-1
+     */
+    public static <V extends Vertex, E extends Edge<V>> OffHeapGraph<V, E> of(CsrGraph<V, E> graph) {
+        int n = graph.vertexCount();
+
+        // CsrGraph indexes vertices by increasing id, so the ids are 0..n-1 iff the last one is n-1
+        if (n > 0 && (graph.vertexAt(0).id() != 0 || graph.vertexAt(n - 1).id() != n - 1)) {
+            throw new IllegalArgumentException("vertex ids must be 0..n-1");
+        }
+
+        Builder<V, E> builder = new Builder<V, E>(n);
+        for (int k = 0; k < graph.edgeCount(); k++) {
+            E e = graph.edgeAt(k);
+            builder.addEdge(e.v1().id(), e.v2().id(), e.length());
+        }
+
+        return builder.build(graph::vertexAt, (v1, v2, length) -> graph.getEdge(v1, v2));
+    }
+
+    /**
+     * Allocate a direct buffer of ints in the native byte order.
+     */
+    private static IntBuffer allocate(long ints) {
+        if (ints > Integer.MAX_VALUE / Integer.BYTES) {
+            throw new IllegalArgumentException("graph is too large for a direct buffer");
+        }
+        return ByteBuffer.allocateDirect((int) ints * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Return the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return n;
+    }
+
+    /**
+     * Return the number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return m;
+    }
+
+    /**
+     * Check if a vertex is part of the graph, which is the case iff its id is in 0..n-1.
+     *
+     * @param v vertex to check in the graph
+     * @return true if v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return v.id() >= 0 && v.id() < n;
+    }
+
+    /**
+     * Find the index of a vertex, which is its id
+     *
+     * @param v the vertex of interest
+     * @return the index of v in this graph
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    private int index(V v) throws IllegalArgumentException {
+        if (!vertex(v)) {
+            throw new IllegalArgumentException();
+        }
+
+        return v.id();
+    }
+
+    /**
+     * Obtain the vertex with index i
+     */
+    private V vertexAt(int i) {
+        return vertexById.apply(i);
+    }
+
+    /**
+     * Obtain the edge between the vertices with indices a and b
+     */
+    private E edgeAt(int a, int b, int length) {
+        return edgeFactory.edge(vertexAt(Math.min(a, b)), vertexAt(Math.max(a, b)), length);
+    }
+
+    /**
+     * Find the slot that holds the a-b edge in the adjacency of a
+     *
+     * @param a the index of the first vertex
+     * @param b the index of the second vertex
+     * @return the slot of the edge, or -1 if a and b are not adjacent
+     */
+    private int slot(int a, int b) {
+        for (int j = offsets.get(a); j < offsets.get(a + 1); j++) {
+            if (targets.get(j) == b) {
+                return j;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Compute the shortest path from source to sink using Dijkstra's algorithm
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink) {
+        return shortestPath(source, sink, null);
+    }
+
+    /**
+     * Compute the shortest path from source to sink with A* search
+     *
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic a lower bound on the distance from each vertex to sink, or null for Dijkstra's algorithm
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * if source and sink are not connected by any combination of edges in the graph, returns empty list.
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public List<V> shortestPath(V source, V sink, ToDoubleFunction<? super V> heuristic) {
+        int s = index(source);
+        int t = index(sink);
+        PathScratch scratch = searchScratch.get();
+        List<V> path = new ArrayList<V>();
+
+        try {
+            astar(s, t, heuristic, scratch);
+
+            if (scratch.dist[t] != Integer.MAX_VALUE) {
+                for (int i = t; i != -1; i = scratch.pred[i]) {
+                    path.add(vertexAt(i));
+                }
+                Collections.reverse(path);
+            }
+        } finally {
+            scratch.reset();
+        }
+
+        return path;
+    }
+
+    /**
+     * Compute the shortest paths from source to every vertex in the graph at once.
+     * The tree holds its own distance and predecessor arrays, and resolves vertices
+     * through this graph only when a path is asked for.
+     *
+     * @param source the start vertex
+     * @return the shortest path tree rooted at source
+     * @throws IllegalArgumentException if source is not part of the graph
+     */
+    @Override
+    public ShortestPathTree<V> shortestPathTree(V source) {
+        int s = index(source);
+        PathScratch scratch = searchScratch.get();
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(pred, -1);
+
+        try {
+            astar(s, -1, null, scratch);
+
+            for (int q = 0; q < scratch.touchedCount; q++) {
+                int i = scratch.touched[q];
+                dist[i] = scratch.dist[i];
+                pred[i] = scratch.pred[i];
+            }
+        } finally {
+            scratch.reset();
+        }
+
+        return new ShortestPathTree<V>(this::vertexAt, this::index, s, dist, pred);
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public int distance(V source, V sink) {
+        return distance(source, sink, null);
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink by growing one search out of
+     * source and another into sink until they meet, in the manner of CsrGraph.bidirectionalPath.
+     * Given a lower bound, both are A* searches on the average potential
+     * (lowerBound(v, sink) - lowerBound(source, v)) / 2.
+     *
+     * @param source     the start vertex
+     * @param sink       the end vertex
+     * @param lowerBound a symmetric, consistent lower bound on the distance between two vertices,
+     *                   or null for bidirectional Dijkstra
+     * @return the length of the shortest path, or Integer.MAX_VALUE if sink is not reachable
+     * @throws IllegalArgumentException if source or sink is not part of the graph
+     */
+    @Override
+    public int distance(V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound) {
+        int s = index(source);
+        int t = index(sink);
+        PathScratch forward = searchScratch.get();
+        PathScratch reverse = forward.reverse();
+
+        try {
+            return bidirectional(s, t, lowerBound, forward, reverse);
+        } finally {
+            forward.reset();
+            reverse.reset();
+        }
+    }
+
+    /**
+     * Run the two searches of a distance query between the vertices with indices s and t.
+     * The forward search orders vertices by their distance from s plus the potential, the
+     * reverse search by their distance to t minus it; the potentials sum to zero, so the
+     * searches stop once the smallest keys of the two queues add up to at least the best path seen.
+     *
+     * @param s          the index of the source vertex
+     * @param t          the index of the sink vertex
+     * @param lowerBound a lower bound on the distance between two vertices, or null
+     * @param forward    clean buffers for the search out of s; the caller must reset them
+     * @param reverse    clean buffers for the search into t; the caller must reset them
+     * @return the length of the shortest path, or Integer.MAX_VALUE if t is not reachable
+     */
+    private int bidirectional(int s, int t, ToDoubleBiFunction<? super V, ? super V> lowerBound,
+                              PathScratch forward, PathScratch reverse) {
+        if (s == t) {
+            return 0;
+        }
+
+        V source = vertexAt(s);
+        V sink = vertexAt(t);
+        double[] potentialF = lowerBound == null ? null : forward.estimates();
+        double[] potentialR = lowerBound == null ? null : reverse.estimates();
+
+        forward.reach(s, 0, -1);
+        reverse.reach(t, 0, -1);
+        forward.queue.add(s, potential(s, source, sink, lowerBound, potentialF));
+        reverse.queue.add(t, -potential(t, source, sink, lowerBound, potentialR));
+
+        int best = Integer.MAX_VALUE;
+
+        while (forward.queue.size() > 0 && reverse.queue.size() > 0) {
+            double topF = forward.queue.peekPriority();
+            double topR = reverse.queue.peekPriority();
+
+            if (best != Integer.MAX_VALUE && topF + topR >= best) {
+                break;
+            }
+
+            boolean isForward = topF <= topR;
+            PathScratch side = isForward ? forward : reverse;
+            int[] other = isForward ? reverse.dist : forward.dist;
+            double[] potential = isForward ? potentialF : potentialR;
+            double sign = isForward ? 1 : -1;
+
+            int u = side.queue.poll();
+            side.expanded[u] = true;
+
+            for (int j = offsets.get(u); j < offsets.get(u + 1); j++) {
+                int w = targets.get(j);
+                int distance = side.dist[u] + lengths.get(j);
+
+                if (distance < side.dist[w]) {
+                    double key = distance + sign * potential(w, source, sink, lowerBound, potential);
+                    if (side.dist[w] == Integer.MAX_VALUE || side.expanded[w]) {
+                        side.expanded[w] = false;
+                        side.queue.add(w, key);
+                    } else {
+                        side.queue.updatePriority(w, key);
+                    }
+                    side.reach(w, distance, u);
+
+                    if (other[w] != Integer.MAX_VALUE && distance + other[w] < best) {
+                        best = distance + other[w];
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Obtain the average potential of the vertex with index w, evaluating it on first use.
+     *
+     * @param w          the index of the vertex
+     * @param source     the start vertex of the query
+     * @param sink       the end vertex of the query
+     * @param lowerBound a lower bound on the distance between two vertices, or null
+     * @param cache      the potentials evaluated so far, NaN where not yet evaluated, or null if lowerBound is
+     * @return (lowerBound(w, sink) - lowerBound(source, w)) / 2, or 0 without a lower bound
+     */
+    private double potential(int w, V source, V sink, ToDoubleBiFunction<? super V, ? super V> lowerBound,
+                             double[] cache) {
+        if (lowerBound == null) {
+            return 0;
+        }
+        if (Double.isNaN(cache[w])) {
+            V v = vertexAt(w);
+            cache[w] = (lowerBound.applyAsDouble(v, sink) - lowerBound.applyAsDouble(source, v)) / 2;
+        }
+
+        return cache[w];
+    }
+
+    /**
+     * Run A* search from the vertex with index s until the vertex with index t is settled,
+     * or every reachable vertex if t = -1. Without a heuristic this is Dijkstra's algorithm,
+     * and makes the same calls on the heap as CsrGraph does, so it settles vertices of equal
+     * distance in the same order. A vertex that is reached by a shorter path after it was
+     * expanded is queued again, so an admissible heuristic that is not consistent still
+     * gives a shortest path.
+     *
+     * @param s         the index of the source vertex
+     * @param t         the index of the sink vertex, or -1
+     * @param heuristic a lower bound on the distance from each vertex to t, or null
+     * @param scratch   clean buffers of the calling thread, filled with the distances and
+     *                  predecessors of the reached vertices; the caller must reset them
+     */
+    private void astar(int s, int t, ToDoubleFunction<? super V> heuristic, PathScratch scratch) {
+        int[] dist = scratch.dist;
+        int[] pred = scratch.pred;
+        double[] estimate = heuristic == null ? null : scratch.estimates();
+        boolean[] expanded = scratch.expanded;
+        IntIndexedHeap queue = scratch.queue;
+
+        scratch.reach(s, 0, -1);
+        if (estimate != null) {
+            estimate[s] = heuristic.applyAsDouble(vertexAt(s));
+        }
+        queue.add(s, estimate == null ? 0 : estimate[s]);
+
+        while (queue.size() > 0) {
+            int u = queue.poll();
+            expanded[u] = true;
+
+            if (u == t) {
+                return;
+            }
+
+            for (int j = offsets.get(u); j < offsets.get(u + 1); j++) {
+                int w = targets.get(j);
+                int distance = dist[u] + lengths.get(j);
+
+                if (distance < dist[w]) {
+                    double h = 0;
+                    if (estimate != null) {
+                        if (Double.isNaN(estimate[w])) {
+                            estimate[w] = heuristic.applyAsDouble(vertexAt(w));
+                        }
+                        h = estimate[w];
+                    }
+                    if (dist[w] == Integer.MAX_VALUE || expanded[w]) {
+                        expanded[w] = false;
+                        queue.add(w, distance + h);
+                    } else {
+                        queue.updatePriority(w, distance + h);
+                    }
+                    scratch.reach(w, distance, u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Building a contraction hierarchy needs the graph on the heap, so the first call
+     * copies the graph into a CsrGraph; see {@link #toCsrGraph()}. The hierarchy is
+     * built once and shared by every later call.
+     *
+     * @return the contraction hierarchy of the graph
+     */
+    @Override
+    public ContractionHierarchy<V> contractionHierarchy() {
+        return heapCopy().contractionHierarchy();
+    }
+
+    /**
+     * The analysis refers to vertex and edge objects, so the first call copies the
+     * graph into a CsrGraph; see {@link #toCsrGraph()}. The analysis is made once
+     * and shared by every later call.
+     *
+     * @return the biconnectivity of the graph
+     */
+    @Override
+    public Biconnectivity<V, E> biconnectivity() {
+        return heapCopy().biconnectivity();
+    }
+
+    /**
+     * Obtain the copy of the graph on the heap that the cached analyses are made on,
+     * copying the graph on first use.
+     *
+     * @return a CsrGraph with the same vertices and edges as this graph
+     */
+    private CsrGraph<V, E> heapCopy() {
+        CsrGraph<V, E> copy = heapCopy;
+
+        if (copy == null) {
+            synchronized (this) {
+                copy = heapCopy;
+                if (copy == null) {
+                    copy = toCsrGraph();
+                    heapCopy = copy;
+                }
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Copy the graph onto the heap, creating every vertex and edge object.
+     * Every call makes a new copy.
+     *
+     * @return a CsrGraph with the same vertices and edges as this graph
+     */
+    public CsrGraph<V, E> toCsrGraph() {
+        List<V> vertices = new ArrayList<V>(n);
+        List<E> edges = new ArrayList<E>(m);
+
+        for (int a = 0; a < n; a++) {
+            vertices.add(vertexAt(a));
+        }
+        for (int a = 0; a < n; a++) {
+            for (int j = offsets.get(a); j < offsets.get(a + 1); j++) {
+                if (a < targets.get(j)) {
+                    edges.add(edgeFactory.edge(vertices.get(a), vertices.get(targets.get(j)), lengths.get(j)));
+                }
+            }
+        }
+
+        return new CsrGraph<V, E>(vertices, edges);
+    }
+
+    /**
+     * Compute a minimum spanning forest with Prim's algorithm, growing a tree from
+     * the smallest index not yet spanned. Only the chosen edges are created as objects.
+     * Edges of equal length may be chosen differently than by CsrGraph, which ranks
+     * them by hash code, but the total length is the same.
+     *
+     * @return a list of edges that forms a minimum spanning tree of the graph, in the order they were chosen
+     */
+    @Override
+    public List<E> minimumSpanningTree() {
+        // bestSlot[w] is the slot of the shortest edge joining w to the tree, -1 if none yet;
+        // the slot lies in the adjacency of the tree end, whose index is parent[w]
+        int[] bestSlot = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(bestSlot, -1);
+        boolean[] inTree = new boolean[n];
+        IntIndexedHeap frontier = new IntIndexedHeap(n);
+        List<E> tree = new ArrayList<E>();
+
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            frontier.add(root, -1);
+
+            while (frontier.size() > 0) {
+                int u = frontier.poll();
+                inTree[u] = true;
+                if (bestSlot[u] != -1) {
+                    tree.add(edgeAt(parent[u], u, lengths.get(bestSlot[u])));
+                }
+
+                for (int j = offsets.get(u); j < offsets.get(u + 1); j++) {
+                    int w = targets.get(j);
+                    if (inTree[w]) {
+                        continue;
+                    }
+                    if (bestSlot[w] == -1) {
+                        frontier.add(w, lengths.get(j));
+                    } else if (lengths.get(j) < lengths.get(bestSlot[w])) {
+                        frontier.updatePriority(w, lengths.get(j));
+                    } else {
+                        continue;
+                    }
+                    bestSlot[w] = j;
+                    parent[w] = u;
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Compute the length of a given path
+     *
+     * @param path indicates the vertices on the given path. Each pair of
+     *             contiguous Vertexes in path must form an edge within graph.
+     * @return the length of path.
+     * @throws IllegalArgumentException if two contiguous vertices in path do not form an edge
+     */
+    @Override
+    public int pathLength(List<V> path) {
+        int totalLength = 0;
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            int j = slot(index(path.get(i)), index(path.get(i + 1)));
+
+            if (j == -1) {
+                throw new IllegalArgumentException();
+            }
+
+            totalLength += lengths.get(j);
+        }
+
+        return totalLength;
+    }
+
+    /**
+     * Obtain all vertices w that are no more than range edges away from v.
+     *
+     * @param v     the vertex to start the search from.
+     *              v must exist in the graph.
+     * @param range the radius of the search. range >= 1
+     * @return a set of vertices that are within range of v (this set does not contain v).
+     */
+    @Override
+    public Set<V> search(V v, int range) {
+        Set<V> vertexSet = new HashSet<V>();
+
+        forEachWithin(v, range, vertexSet::add);
+
+        return vertexSet;
+    }
+
+    /**
+     * Pass every vertex that is no more than range edges away from v to consumer,
+     * nearest levels first, with a breadth-first search over the buffers of the calling thread.
+     *
+     * @param v        the vertex to start the search from.
+     *                 v must exist in the graph.
+     * @param range    the radius of the search. range >= 1
+     * @param consumer receives each vertex within range of v exactly once (v itself is not passed).
+     *                 It must not start another search of this graph.
+     */
+    @Override
+    public void forEachWithin(V v, int range, Consumer<? super V> consumer) {
+        int s = index(v);
+        PathScratch scratch = searchScratch.get();
+        int[] order = scratch.touched;
+
+        try {
+            // order[levelStart..levelEnd-1] is the current frontier, and the level of
+            // each reached vertex is kept as its distance
+            scratch.reach(s, 0, -1);
+            int levelStart = 0;
+            int levelEnd = 1;
+
+            for (int level = 0; level < range && levelStart < levelEnd; level++) {
+                for (int q = levelStart; q < levelEnd; q++) {
+                    int u = order[q];
+
+                    for (int j = offsets.get(u); j < offsets.get(u + 1); j++) {
+                        int w = targets.get(j);
+
+                        if (scratch.dist[w] == Integer.MAX_VALUE) {
+                            scratch.reach(w, level + 1, u);
+                            consumer.accept(vertexAt(w));
+                        }
+                    }
+                }
+                levelStart = levelEnd;
+                levelEnd = scratch.touchedCount;
+            }
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    /**
+     * Compute the diameter of the graph by finding the length of the longest shortest path,
+     * with one run of Dijkstra's algorithm per vertex. The sources are split into ranges by
+     * SourceTasks and run on the common pool, each worker thread on its own search buffers.
+     *
+     * @return the diameter of the graph, or Integer.MAX_VALUE if the graph has no edges.
+     */
+    @Override
+    public int diameter() {
+        AtomicInteger diameter = new AtomicInteger();
+
+        SourceTasks.forEachRange(n, SourceTasks.COMMON_POOL, (lo, hi) -> {
+            PathScratch scratch = searchScratch.get();
+            int max = 0;
+
+            for (int s = lo; s < hi; s++) {
+                try {
+                    astar(s, -1, null, scratch);
+
+                    for (int q = 0; q < scratch.touchedCount; q++) {
+                        max = Math.max(max, scratch.dist[scratch.touched[q]]);
+                    }
+                } finally {
+                    scratch.reset();
+                }
+            }
+
+            diameter.accumulateAndGet(max, Math::max);
+        });
+
+        if (diameter.get() == 0) {
+            return Integer.MAX_VALUE;
+        }
+
+        return diameter.get();
+    }
+
+    /**
+     * Find the edge that connects two vertices if such an edge exists.
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the edge connecting v1 and v2, created by the edge factory
+     * @throws IllegalArgumentException if v1, v2 don't form an edge in the graph
+     */
+    @Override
+    public E getEdge(V v1, V v2) throws IllegalArgumentException {
+        int a = index(v1);
+        int b = index(v2);
+        int j = slot(a, b);
+
+        if (j == -1) {
+            throw new IllegalArgumentException();
+        }
+
+        return edgeAt(a, b, lengths.get(j));
+    }
+
+    /**
+     * Pass each neighbour of v, together with the edge that joins it to v, to action.
+     * The vertex and edge objects are created as they are passed.
+     *
+     * @param v      is the vertex whose neighbourhood we want.
+     * @param action receives each vertex w that neighbors v and the edge between v and w.
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    @Override
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> action) throws IllegalArgumentException {
+        int u = index(v);
+
+        for (int j = offsets.get(u); j < offsets.get(u + 1); j++) {
+            int w = targets.get(j);
+            action.accept(vertexAt(w), edgeAt(u, w, lengths.get(j)));
+        }
+    }
+
+    /**
+     * Obtain the number of neighbours of v.
+     *
+     * @param v the vertex of interest
+     * @return the number of edges incident on v
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    @Override
+    public int degree(V v) throws IllegalArgumentException {
+        int u = index(v);
+        return offsets.get(u + 1) - offsets.get(u);
+    }
+
+    /**
+     * Assembles an OffHeapGraph from edges given by vertex id, without creating
+     * vertex or edge objects. The edges are kept in a direct buffer that grows as needed
+     * and is released by build.
+     *
+     * @param <V> represents a vertex type
+     * @param <E> represents an edge type
+     */
+    public static class Builder<V extends Vertex, E extends Edge<V>> {
+        private final int vertexCount;
+        /* (id1, id2, length) of each edge added so far */
+        private IntBuffer edges;
+        private int edgeCount;
+
+        /**
+         * Constructor: a builder for a graph with the vertices 0..vertexCount-1 and no edges yet.
+         *
+         * @param vertexCount the number of vertices, vertexCount >= 0
+         * @throws IllegalArgumentException if vertexCount < 0
+         */
+        public Builder(int vertexCount) {
+            if (vertexCount < 0) {
+                throw new IllegalArgumentException("vertexCount must not be negative");
+            }
+            this.vertexCount = vertexCount;
+            this.edges = allocate(3 * 16);
+        }
+
+        /**
+         * Add an edge between the vertices with ids id1 and id2.
+         * An edge must not be added twice.
+         *
+         * @param id1    the id of one end
+         * @param id2    the id of the other end, id2 != id1
+         * @param length the length of the edge, length >= 0
+         * @return this builder
+         * @throws IllegalArgumentException if an id is not in 0..vertexCount-1, the ids are equal,
+         *                                  or length is negative
+         * @throws IllegalStateException    if the graph has already been built
+         */
+        public Builder<V, E> addEdge(int id1, int id2, int length) {
+            if (edges == null) {
+                throw new IllegalStateException("the graph has already been built");
+            }
+            if (id1 < 0 || id1 >= vertexCount || id2 < 0 || id2 >= vertexCount) {
+                throw new IllegalArgumentException("vertex ids must be in 0.." + (vertexCount - 1));
+            }
+            if (id1 == id2) {
+                throw new IllegalArgumentException("The same vertex cannot be at both ends of an edge");
+            }
+            if (length < 0) {
+                throw new IllegalArgumentException("Edge weight cannot be negative");
+            }
+
+            if (3 * (edgeCount + 1) > edges.capacity()) {
+                IntBuffer larger = allocate(2L * edges.capacity());
+                edges.position(0);
+                edges.limit(3 * edgeCount);
+                larger.put(edges);
+                edges = larger;
+            }
+
+            edges.put(3 * edgeCount, id1);
+            edges.put(3 * edgeCount + 1, id2);
+            edges.put(3 * edgeCount + 2, length);
+            edgeCount++;
+
+            return this;
+        }
+
+        /**
+         * Lay the edges out in compressed-sparse-row form. The neighbours of each vertex
+         * are in the order their edges were added.
+         *
+         * @param vertexById  gives the vertex with each id in 0..vertexCount-1
+         * @param edgeFactory creates the edge objects that queries return
+         * @return the graph
+         * @throws IllegalStateException if the graph has already been built
+         */
+        public OffHeapGraph<V, E> build(IntFunction<? extends V> vertexById, EdgeFactory<V, E> edgeFactory) {
+            if (edges == null) {
+                throw new IllegalStateException("the graph has already been built");
+            }
+            int n = vertexCount;
+            int m = edgeCount;
+
+            // count the degree of each vertex, then turn the counts into offsets
+            IntBuffer offsets = allocate(n + 1L);
+            for (int k = 0; k < m; k++) {
+                int a = edges.get(3 * k);
+                int b = edges.get(3 * k + 1);
+                offsets.put(a + 1, offsets.get(a + 1) + 1);
+                offsets.put(b + 1, offsets.get(b + 1) + 1);
+            }
+            for (int i = 0; i < n; i++) {
+                offsets.put(i + 1, offsets.get(i + 1) + offsets.get(i));
+            }
+
+            // offsets[i] serves as the next free slot of i, which leaves it at the start of i + 1
+            IntBuffer targets = allocate(2L * m);
+            IntBuffer lengths = allocate(2L * m);
+            for (int k = 0; k < m; k++) {
+                int a = edges.get(3 * k);
+                int b = edges.get(3 * k + 1);
+                int length = edges.get(3 * k + 2);
+
+                int slot = offsets.get(a);
+                offsets.put(a, slot + 1);
+                targets.put(slot, b);
+                lengths.put(slot, length);
+
+                slot = offsets.get(b);
+                offsets.put(b, slot + 1);
+                targets.put(slot, a);
+                lengths.put(slot, length);
+            }
+            for (int i = n; i > 0; i--) {
+                offsets.put(i, offsets.get(i - 1));
+            }
+            if (n > 0) {
+                offsets.put(0, 0);
+            }
+
+            edges = null;
+
+            return new OffHeapGraph<V, E>(n, m, offsets, targets, lengths, vertexById, edgeFactory);
+        }
+    }
+}
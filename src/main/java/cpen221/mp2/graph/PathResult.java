@@ -0,0 +1,68 @@
+package cpen221.mp2.graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a single source-to-sink shortest path query, together with
+ * the number of vertices the search expanded to find it. The expanded count
+ * measures how much of the graph a goal-directed search managed to skip.
+ *
+ * Representation Invariant:
+ * - path is unmodifiable and never null.
+ * - path is empty iff length == Integer.MAX_VALUE.
+ * - expanded >= 0.
+ *
+ * Abstraction Function:
+ * Represents the shortest path, its length, and the number of vertices
+ * settled by the search that produced it.
+ *
+ * @param <V> represents a vertex type
+ */
+public class PathResult<V extends Vertex> {
+
+    private final List<V> path;
+    private final int length;
+    private final int expanded;
+
+    /**
+     * Create the result of a path query.
+     *
+     * @param path     the vertices on the path in order, or an empty list if there is none
+     * @param length   the length of the path, Integer.MAX_VALUE if there is none
+     * @param expanded the number of vertices the search expanded
+     */
+    PathResult(List<V> path, int length, int expanded) {
+        this.path = Collections.unmodifiableList(path);
+        this.length = length;
+        this.expanded = expanded;
+    }
+
+    /**
+     * Obtain the shortest path
+     *
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     * or an empty list if the sink is not reachable
+     */
+    public List<V> path() {
+        return path;
+    }
+
+    /**
+     * Obtain the length of the shortest path
+     *
+     * @return the length of the path, or Integer.MAX_VALUE if the sink is not reachable
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Obtain the number of vertices the search removed from its queue and expanded
+     *
+     * @return the number of expanded vertices
+     */
+    public int expanded() {
+        return expanded;
+    }
+}
@@ -0,0 +1,100 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.IntIndexedHeap;
+
+import java.util.Arrays;
+
+/**
+ * Buffers for a shortest path search over the vertex indices 0..n-1 of a graph, kept
+ * per thread so that searches do not allocate and concurrent readers do not interfere.
+ * A search records each vertex it reaches, and reset returns only those vertices to
+ * unreached, so a query costs time proportional to the vertices it visits rather than to n.
+ *
+ * Representation Invariant:
+ * - dist, pred, expanded and touched have length n, and so does estimate once allocated.
+ * - touched[0..touchedCount-1] are the distinct vertices w with dist[w] != Integer.MAX_VALUE.
+ * - Every other vertex w has pred[w] == -1, expanded[w] false and estimate[w] NaN.
+ * - Between searches touchedCount == 0 and queue is empty, and so is reverse if allocated.
+ *
+ * Abstraction Function:
+ * Represents the distances and predecessors found so far by a search,
+ * and by the search into the sink if the query is bidirectional.
+ */
+final class PathScratch {
+    final int[] dist;
+    final int[] pred;
+    final boolean[] expanded;
+    /* Allocated by the first search with a heuristic */
+    private double[] estimate;
+    /* The vertices reached by the running search, in the order they were first reached */
+    final int[] touched;
+    int touchedCount;
+    final IntIndexedHeap queue;
+    /* Allocated by the first bidirectional search */
+    private PathScratch reverse;
+
+    /**
+     * Create clean buffers for a graph with n vertices.
+     *
+     * @param n the number of vertices of the graph
+     */
+    PathScratch(int n) {
+        dist = new int[n];
+        pred = new int[n];
+        expanded = new boolean[n];
+        touched = new int[n];
+        queue = new IntIndexedHeap(n);
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(pred, -1);
+    }
+
+    /**
+     * Obtain the heuristic estimates, allocating them on first use.
+     */
+    double[] estimates() {
+        if (estimate == null) {
+            estimate = new double[dist.length];
+            Arrays.fill(estimate, Double.NaN);
+        }
+        return estimate;
+    }
+
+    /**
+     * Obtain the buffers of the search into the sink of a bidirectional query,
+     * allocating them on first use. The caller must reset them as well.
+     */
+    PathScratch reverse() {
+        if (reverse == null) {
+            reverse = new PathScratch(dist.length);
+        }
+        return reverse;
+    }
+
+    /**
+     * Record that vertex w is distance away through vertex u.
+     */
+    void reach(int w, int distance, int u) {
+        if (dist[w] == Integer.MAX_VALUE) {
+            touched[touchedCount++] = w;
+        }
+        dist[w] = distance;
+        pred[w] = u;
+    }
+
+    /**
+     * Return every reached vertex to unreached.
+     */
+    void reset() {
+        for (int q = 0; q < touchedCount; q++) {
+            int w = touched[q];
+            dist[w] = Integer.MAX_VALUE;
+            pred[w] = -1;
+            expanded[w] = false;
+            if (estimate != null) {
+                estimate[w] = Double.NaN;
+            }
+        }
+        touchedCount = 0;
+        queue.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package cpen221.mp2.graph;
+
+import cpen221.mp2.util.BucketQueue;
+import cpen221.mp2.util.DaryHeap;
+import cpen221.mp2.util.IntIndexedHeap;
+import cpen221.mp2.util.IntPriorityQueue;
+import cpen221.mp2.util.PairingHeap;
+
+/**
+ * The priority queues available to Dijkstra's algorithm on a CsrGraph.
+ *
+ * <p>Every strategy gives the same distances. Vertices at equal distance may be
+ * settled in a different order, so when several shortest paths exist the tree
+ * may pick a different one; only BINARY reproduces the paths of Heap.</p>
+ */
+public enum PriorityQueueStrategy {
+
+    /**
+     * A binary heap with decrease-key. O(log n) per operation.
+     */
+    BINARY {
+        @Override
+        IntPriorityQueue create(int capacity, int maxEdgeLength) {
+            return new IntIndexedHeap(capacity);
+        }
+    },
+
+    /**
+     * A 4-ary heap: half as deep as a binary heap, so decrease-key is cheaper
+     * while poll compares four children per level.
+     */
+    FOUR_ARY {
+        @Override
+        IntPriorityQueue create(int capacity, int maxEdgeLength) {
+            return new DaryHeap(capacity, 4);
+        }
+    },
+
+    /**
+     * A pairing heap: O(1) add and decrease-key, amortized O(log n) poll.
+     */
+    PAIRING {
+        @Override
+        IntPriorityQueue create(int capacity, int maxEdgeLength) {
+            return new PairingHeap(capacity);
+        }
+    },
+
+    /**
+     * Dial's bucket queue, one bucket per distance in a ring as long as the longest
+     * edge. O(1) add and decrease-key; poll skips empty buckets, so a whole search
+     * costs O(m + D) where D is the largest distance.
+     */
+    DIAL {
+        @Override
+        IntPriorityQueue create(int capacity, int maxEdgeLength) {
+            return new BucketQueue(capacity, maxEdgeLength);
+        }
+    };
+
+    /**
+     * The strategy used by Dijkstra's algorithm unless another is requested.
+     */
+    public static final PriorityQueueStrategy DEFAULT = BINARY;
+
+    /**
+     * Create an empty queue for a search of a graph.
+     *
+     * @param capacity      the number of vertices of the graph
+     * @param maxEdgeLength the length of the longest edge of the graph
+     * @return an empty queue that can hold the indices 0..capacity-1
+     */
+    abstract IntPriorityQueue create(int capacity, int maxEdgeLength);
+}
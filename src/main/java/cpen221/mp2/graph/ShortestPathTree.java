@@ -0,0 +1,142 @@
+package cpen221.mp2.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable record of every shortest path out of a single source vertex.
+ * One run of Dijkstra's algorithm builds the tree; after that distances are
+ * answered in constant time and paths in time proportional to their length.
+ *
+ * Representation Invariant:
+ * - dist and pred have the same length n.
+ * - vertexAt maps 0..n-1 to the vertices of the graph, and indexOf is its inverse,
+ *   throwing IllegalArgumentException for any other vertex.
+ * - dist[source] == 0 and pred[source] == -1.
+ * - dist[i] == Integer.MAX_VALUE iff pred[i] == -1 and i != source.
+ * - If pred[i] != -1 then dist[pred[i]] <= dist[i].
+ *
+ * Abstraction Function:
+ * Represents the shortest path tree rooted at vertexAt(source) in which the parent
+ * of vertexAt(i) is vertexAt(pred[i]) and vertexAt(i) is dist[i] away from the root.
+ *
+ * @param <V> represents a vertex type
+ */
+public class ShortestPathTree<V extends Vertex> {
+
+    private final IntFunction<? extends V> vertexAt;
+    private final ToIntFunction<? super V> indexOf;
+    private final int source;
+    private final int[] dist;
+    private final int[] pred;
+
+    /**
+     * Create a shortest path tree over a fixed indexing of vertices.
+     * The arrays are not copied, so the caller must not modify them afterwards.
+     *
+     * @param vertices the vertices of the graph, by index
+     * @param indexOf  maps each vertex to its index
+     * @param source   the index of the root
+     * @param dist     the distance from the root to each vertex, Integer.MAX_VALUE if unreachable
+     * @param pred     the index of the parent of each vertex, -1 for the root and unreachable vertices
+     */
+    ShortestPathTree(V[] vertices, Map<V, Integer> indexOf, int source, int[] dist, int[] pred) {
+        this(i -> vertices[i], v -> {
+            Integer i = indexOf.get(v);
+
+            if (i == null) {
+                throw new IllegalArgumentException();
+            }
+
+            return i;
+        }, source, dist, pred);
+    }
+
+    /**
+     * Create a shortest path tree over an indexing of vertices given by functions,
+     * so that the vertices need not all be held in memory.
+     * The arrays are not copied, so the caller must not modify them afterwards.
+     *
+     * @param vertexAt gives the vertex with each index
+     * @param indexOf  gives the index of each vertex, throwing IllegalArgumentException
+     *                 for a vertex that is not part of the graph
+     * @param source   the index of the root
+     * @param dist     the distance from the root to each vertex, Integer.MAX_VALUE if unreachable
+     * @param pred     the index of the parent of each vertex, -1 for the root and unreachable vertices
+     */
+    ShortestPathTree(IntFunction<? extends V> vertexAt, ToIntFunction<? super V> indexOf,
+                     int source, int[] dist, int[] pred) {
+        this.vertexAt = vertexAt;
+        this.indexOf = indexOf;
+        this.source = source;
+        this.dist = dist;
+        this.pred = pred;
+    }
+
+    /**
+     * Find the index of a vertex
+     *
+     * @param v the vertex of interest
+     * @return the index of v
+     * @throws IllegalArgumentException if v is not part of the graph
+     */
+    private int index(V v) throws IllegalArgumentException {
+        return indexOf.applyAsInt(v);
+    }
+
+    /**
+     * Obtain the root of this tree
+     *
+     * @return the source vertex
+     */
+    public V source() {
+        return vertexAt.apply(source);
+    }
+
+    /**
+     * Check if there is a path from the source to v
+     *
+     * @param v a vertex in the graph
+     * @return true if v is reachable from the source and false otherwise
+     */
+    public boolean hasPathTo(V v) {
+        return dist[index(v)] != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Obtain the length of the shortest path from the source to v
+     *
+     * @param v a vertex in the graph
+     * @return the length of the shortest path, or Integer.MAX_VALUE if v is not reachable
+     */
+    public int distanceTo(V v) {
+        return dist[index(v)];
+    }
+
+    /**
+     * Obtain the shortest path from the source to v
+     *
+     * @param v a vertex in the graph
+     * @return the vertices, in order, on the shortest path from the source to v (both end points are part of the list),
+     * or an empty list if v is not reachable
+     */
+    public List<V> pathTo(V v) {
+        int t = index(v);
+        List<V> path = new ArrayList<V>();
+
+        if (dist[t] == Integer.MAX_VALUE) {
+            return path;
+        }
+
+        for (int i = t; i != -1; i = pred[i]) {
+            path.add(vertexAt.apply(i));
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+}
@@ -0,0 +1,95 @@
+package cpen221.mp2.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the sources 0..n-1 of a batch of independent searches into ranges and
+ * runs the ranges on a ForkJoinPool. Engines that use every available processor run
+ * on the common pool; engines given their own parallelism get a pool of that size
+ * for the duration of the batch.
+ */
+final class SourceTasks {
+
+    /* Passed as parallelism to run on the common pool */
+    static final int COMMON_POOL = 0;
+    /* The smallest number of sources handled by a single task */
+    private static final int MIN_SOURCES_PER_TASK = 8;
+
+    private SourceTasks() {
+    }
+
+    /**
+     * The work done for one range of sources.
+     */
+    interface RangeAction {
+        /**
+         * Handle the sources lo..hi-1.
+         *
+         * @param lo the first source
+         * @param hi one past the last source
+         */
+        void run(int lo, int hi);
+    }
+
+    /**
+     * Call action on disjoint ranges that together cover 0..n-1, in parallel.
+     * Returns once every range has been handled.
+     *
+     * @param n           the number of sources
+     * @param parallelism the number of worker threads, or COMMON_POOL
+     * @param action      the work done for each range
+     */
+    static void forEachRange(int n, int parallelism, RangeAction action) {
+        int workers = parallelism == COMMON_POOL ? Runtime.getRuntime().availableProcessors() : parallelism;
+
+        if (workers == 1 || n <= MIN_SOURCES_PER_TASK) {
+            action.run(0, n);
+            return;
+        }
+
+        Range task = new Range(action, 0, n, Math.max(MIN_SOURCES_PER_TASK, n / (4 * workers)));
+        if (parallelism == COMMON_POOL) {
+            ForkJoinPool.commonPool().invoke(task);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * A task that handles the sources lo..hi-1,
+     * splitting itself in half until a range holds no more than grain sources.
+     */
+    private static class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeAction action;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        Range(RangeAction action, int lo, int hi, int grain) {
+            this.action = action;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > grain) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Range(action, lo, mid, grain), new Range(action, mid, hi, grain));
+                return;
+            }
+
+            action.run(lo, hi);
+        }
+    }
+}
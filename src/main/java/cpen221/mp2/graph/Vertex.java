@@ -7,6 +7,7 @@ package cpen221.mp2.graph;
 public class Vertex {
     private final int id;
     private String name;
+    private int hash; // name.hashCode() + id, kept up to date by updateName
 
     /**
      * Create a new vertex
@@ -17,13 +18,18 @@ public class Vertex {
     public Vertex(int id, String name) {
         this.id = id;
         this.name = name;
+        this.hash = name.hashCode() + id;
     }
 
     @Override
     public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
         if (o instanceof Vertex) {
             Vertex other = (Vertex) o;
-            if (other.id == this.id && other.name.equals(this.name)) {
+            // names are only compared when the ids and hashes already match
+            if (other.id == this.id && other.hash == this.hash && other.name.equals(this.name)) {
                 return true;
             }
         }
@@ -32,7 +38,7 @@ public class Vertex {
 
     @Override
     public int hashCode() {
-        return name.hashCode() + id;
+        return hash;
     }
 
     public int id() {
@@ -55,6 +61,7 @@ public class Vertex {
      */
     public void updateName(String name) {
         this.name = name;
+        this.hash = name.hashCode() + id;
     }
 
     //// --- any new methods, if necessary, go below this link --- ////
@@ -5,6 +5,7 @@ import cpen221.mp2.controllers.HunterStage;
 import cpen221.mp2.graph.ImGraph;
 
 import java.awt.geom.Point2D;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -18,6 +19,7 @@ public class GameModel implements Model, Controllable {
     private static final int BASE_SPEED = 100; // Base speed of ship (per second)
     private final Universe universe; // The Universe associated with this instance
     private final ImGraph<Planet, Link> planetGraph; // the graph representation of the universe
+    private final Set<Planet> planets; // The planets of the universe, unmodifiable
     private Stage stage; // The current phase of the model
     private Planet shipPlanet; // The Node that the ship is on or has last visited.
     private Point2D.Double shipLocation; // The current location of the ship.
@@ -44,6 +46,12 @@ public class GameModel implements Model, Controllable {
         universe = univ;
         planetGraph = univ.planetGraph();
 
+        HashSet<Planet> planetSet = new HashSet<>();
+        for (Planet planet : universe.planets()) {
+            planetSet.add(planet);
+        }
+        planets = Collections.unmodifiableSet(planetSet);
+
         shipPlanet = universe.earth();
         shipLocation = new Point2D.Double(shipPlanet.x(), shipPlanet.y());
         shipLink = null;
@@ -78,10 +86,6 @@ public class GameModel implements Model, Controllable {
 
     @Override
     public Set<Planet> planets() {
-        HashSet<Planet> planets = new HashSet<>();
-        for (Planet planet : universe.planets()) {
-            planets.add(planet);
-        }
         return planets;
     }
 
@@ -191,12 +195,10 @@ public class GameModel implements Model, Controllable {
 
     @Override
     public PlanetStatus[] neighbors() {
-        Set<Planet> planets = universe.neighbors(shipPlanet);
-        PlanetStatus[] ps = new PlanetStatus[planets.size()];
-        int i = 0;
-        for (Planet planet : planets) {
+        PlanetStatus[] ps = new PlanetStatus[universe.degree(shipPlanet)];
+        for (int i = 0; i < ps.length; i++) {
+            Planet planet = universe.neighbor(shipPlanet, i);
             ps[i] = new PlanetStatus(planet.id(), planet.name(), universe.signal(planet));
-            ++i;
         }
         return ps;
     }
@@ -244,7 +246,9 @@ public class GameModel implements Model, Controllable {
             waitUntilAbort();
         }
 
-        for (Planet n : universe.neighbors(shipPlanet)) {
+        int degree = universe.degree(shipPlanet);
+        for (int i = 0; i < degree; i++) {
+            Planet n = universe.neighbor(shipPlanet, i);
             if (n.id() == id) {
                 waitUntilMoved(n);
                 return;
@@ -3,7 +3,6 @@ package cpen221.mp2.models;
 import cpen221.mp2.graph.Edge;
 import cpen221.mp2.util.Util;
 
-import java.util.Objects;
 
 /**
  * Links are weighted undirected connections between two planets.
@@ -78,7 +77,8 @@ public class Link extends Edge<Planet> implements GameElement {
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.v1(), super.v2());
+        // the value of Objects.hash(v1, v2), without allocating its varargs array
+        return 31 * (31 + super.v1().hashCode()) + super.v2().hashCode();
     }
 
     /**
@@ -1,7 +1,11 @@
 package cpen221.mp2.models;
 
+import cpen221.mp2.graph.AllPairsIndex;
+import cpen221.mp2.graph.Biconnectivity;
+import cpen221.mp2.graph.CsrGraph;
 import cpen221.mp2.graph.Graph;
 import cpen221.mp2.graph.ImGraph;
+import cpen221.mp2.graph.PathResult;
 import cpen221.mp2.initialization.DelaunayTriangulation;
 import cpen221.mp2.initialization.UEdge;
 import cpen221.mp2.util.Util;
@@ -12,6 +16,9 @@ import java.io.*;
 import java.util.List;
 import java.util.Queue;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
 
 /**
  * A Universe represents the physical layout of a game: it tracks Planets,
@@ -34,6 +41,12 @@ public class Universe {
     private int distanceToTarget;
     /* Represents the planetary universe as a graph */
     private Graph<Planet, Link> planetGraph;
+    /* Read-only snapshot of planetGraph used for all queries once generation is done */
+    private CsrGraph<Planet, Link> frozenGraph;
+    /* The distance between every pair of Planets, or null unless requested from the builder */
+    private AllPairsIndex<Planet> allPairs;
+    /* The largest factor by which straight-line distance never exceeds travel distance. */
+    private double heuristicScale;
     /* The proximity grid of all Planets on this Board. */
     private ProximityGrid planetGrid;
     /* The dimensions of the game viewing area, which is a rectangle. */
@@ -51,9 +64,12 @@ public class Universe {
      * @param maxPlanets is the maximum number of planets in a game instance. maxPlanets >= minPlanets.
      * @param minSpice   is the minimum spice level on a planet. minSpice >= 0.
      * @param maxSpice   is the maximum spice level on a planet. maxSpice >= minSpice.
+     * @param allPairs   whether to precompute the distance between every pair of planets.
+     * @param density    the number of links to keep per planet, or null to prune a random
+     *                   number of links. density >= 0.
      */
     private Universe(int w, int h, long seed, int minPlanets, int maxPlanets, int minSpice,
-                     int maxSpice) {
+                     int maxSpice, boolean allPairs, Double density) {
         width = w;
         height = h;
         this.seed = seed;
@@ -63,6 +79,7 @@ public class Universe {
 
         // convert Points to Planets, mapping each Point to its corresponding Node
         HashMap<Point, Planet> pToN = new HashMap<Point, Planet>();
+        List<Planet> planets = new ArrayList<Planet>();
         planetGrid = new ProximityGrid(0, 0, w, h);
         planetGraph = new Graph<Planet, Link>();
         Queue<String> names = planetNames(r); // shuffled list of planet names
@@ -103,20 +120,31 @@ public class Universe {
 
             ++id;
             planetGrid.addPlanet(pl);
-            planetGraph.addVertex(pl);
+            planets.add(pl);
             pToN.put(location, pl);
         }
+        planetGraph.addVertices(planets);
 
         // add the edges
+        List<Link> links = new ArrayList<Link>();
         for (UEdge ue : dt.getEdges()) {
             Planet n1 = pToN.get(ue.p1());
             Planet n2 = pToN.get(ue.p2());
-            Link e = Link.createLink(n1, n2);
-            planetGraph.addEdge(e);
+            links.add(Link.createLink(n1, n2));
         }
+        planetGraph.addEdges(links);
+        heuristicScale = heuristicScale(links);
 
-        // remove an arbitrary amount of edges, while keeping connectivity
-        planetGraph.pruneRandomEdges(r);
+        // remove an arbitrary amount of edges, or enough to reach the density, while keeping connectivity
+        if (density == null) {
+            planetGraph.pruneRandomEdges(r);
+        } else {
+            planetGraph.pruneRandomEdges(r, (int) Math.round(density * planets.size()));
+        }
+        frozenGraph = planetGraph.freeze();
+        if (allPairs) {
+            this.allPairs = new AllPairsIndex<Planet>(frozenGraph);
+        }
 
         // set the furthest distance (needed for getPing)
         double maxDistance = 0;
@@ -127,7 +155,7 @@ public class Universe {
             }
         }
         furthestNodeDistance = maxDistance;
-        distanceToTarget = planetGraph.pathLength(planetGraph.shortestPath(earth, target));
+        distanceToTarget = distance(earth, target);
     }
 
     /**
@@ -264,7 +292,7 @@ public class Universe {
      * Return an unmodifiable Set of Edges in this Universe.
      */
     public Set<Link> links() {
-        return Collections.unmodifiableSet(planetGraph.allEdges());
+        return planetGraph.allEdges();
     }
 
     /**
@@ -299,15 +327,125 @@ public class Universe {
     }
 
     public Set<Planet> neighbors(Planet planet) {
-        if (planetGraph.vertex(planet)) {
-            return planetGraph.getNeighbours(planet).keySet();
-        } else {
+        Set<Planet> neighbors = new HashSet<Planet>();
+        forEachNeighbor(planet, (neighbor, link) -> neighbors.add(neighbor));
+        return Collections.unmodifiableSet(neighbors);
+    }
+
+    /**
+     * Pass every planet linked to planet, and the link between them, to action.
+     * Nothing is allocated per neighbor.
+     *
+     * @param planet a planet in this universe
+     * @param action receives each neighbor of planet and the link to it
+     * @throws NoSuchElementException if planet is not part of this universe
+     */
+    public void forEachNeighbor(Planet planet, BiConsumer<? super Planet, ? super Link> action) {
+        if (!frozenGraph.vertex(planet)) {
             throw new NoSuchElementException(planet + " is not part of this universe");
         }
+        frozenGraph.forEachNeighbour(planet, action);
     }
 
+    /**
+     * Return the number of planets linked to planet.
+     *
+     * @param planet a planet in this universe
+     * @return the number of neighbors of planet
+     * @throws NoSuchElementException if planet is not part of this universe
+     */
+    public int degree(Planet planet) {
+        if (!frozenGraph.vertex(planet)) {
+            throw new NoSuchElementException(planet + " is not part of this universe");
+        }
+        return frozenGraph.degree(planet);
+    }
+
+    /**
+     * Return the i-th neighbor of planet, for 0 <= i < degree(planet).
+     * The order never changes during a game.
+     *
+     * @param planet a planet in this universe
+     * @param i      the position of the neighbor
+     * @return the i-th neighbor of planet
+     * @throws NoSuchElementException if planet is not part of this universe
+     */
+    public Planet neighbor(Planet planet, int i) {
+        if (!frozenGraph.vertex(planet)) {
+            throw new NoSuchElementException(planet + " is not part of this universe");
+        }
+        return frozenGraph.neighbour(planet, i);
+    }
+
+    /**
+     * Return a shortest path from source to sink, read off the all-pairs table
+     * if the builder requested one, and otherwise found with A* search guided
+     * by the straight-line distance to sink.
+     */
     public List<Planet> shortestPath(Planet source, Planet sink) {
-        return planetGraph.shortestPath(source, sink);
+        if (allPairs != null) {
+            return allPairs.shortestPath(source, sink);
+        }
+        return frozenGraph.shortestPath(source, sink, distanceEstimate(sink));
+    }
+
+    /**
+     * Return the min traveled distance between source and sink, looked up in the
+     * all-pairs table if the builder requested one, and otherwise found with
+     * bidirectional A* search.
+     */
+    public int distance(Planet source, Planet sink) {
+        if (allPairs != null) {
+            return allPairs.distance(source, sink);
+        }
+        return frozenGraph.distance(source, sink, distanceBound());
+    }
+
+    /**
+     * Return a shortest path from source to sink found with A* search, along
+     * with the number of planets the search expanded.
+     */
+    public PathResult<Planet> findPath(Planet source, Planet sink) {
+        return frozenGraph.findPath(source, sink, distanceEstimate(sink));
+    }
+
+    /**
+     * Return an A* heuristic for travel to sink: the straight-line distance
+     * to sink, scaled down so that it never exceeds the true travel distance.
+     * <p>
+     * Link lengths are truncated distances, so the raw straight-line distance can
+     * exceed the length of a path by almost 1 per link. Every link is at least
+     * heuristicScale times as long as the straight-line distance between its ends.
+     * By the triangle inequality the same then holds for every path.
+     */
+    public ToDoubleFunction<Planet> distanceEstimate(Planet sink) {
+        ToDoubleBiFunction<Planet, Planet> bound = distanceBound();
+        return planet -> bound.applyAsDouble(planet, sink);
+    }
+
+    /**
+     * Return a lower bound on the travel distance between any two planets,
+     * for bidirectional A* search. See distanceEstimate.
+     */
+    public ToDoubleBiFunction<Planet, Planet> distanceBound() {
+        return (p1, p2) -> heuristicScale * Util.distance(p1.x(), p1.y(), p2.x(), p2.y());
+    }
+
+    /**
+     * Return the smallest ratio of length to straight-line distance over links,
+     * or 1 if no link joins two distinct points.
+     */
+    private static double heuristicScale(List<Link> links) {
+        double scale = 1;
+        for (Link link : links) {
+            Planet p1 = link.v1();
+            Planet p2 = link.v2();
+            double distance = Util.distance(p1.x(), p1.y(), p2.x(), p2.y());
+            if (distance > 0) {
+                scale = Math.min(scale, link.length() / distance);
+            }
+        }
+        return scale;
     }
 
     public boolean connected(Planet pl1, Planet pl2) {
@@ -322,7 +460,18 @@ public class Universe {
     }
 
     public ImGraph<Planet, Link> planetGraph() {
-        return planetGraph;
+        return frozenGraph;
+    }
+
+    /**
+     * Return the bridges, articulation points and biconnected components of the links.
+     * They are found on the first call and shared by every later call, since the links
+     * never change once the universe is built.
+     *
+     * @return the biconnectivity of the graph of planets and links
+     */
+    public Biconnectivity<Planet, Link> biconnectivity() {
+        return frozenGraph.biconnectivity();
     }
 
     /**
@@ -336,6 +485,8 @@ public class Universe {
         private Long seed;
         private Integer minPlanets, maxPlanets;
         private Integer minSpice, maxSpice;
+        private boolean allPairs;
+        private Double density;
 
         /**
          * Set the dimensions (width x height) of this  Board.
@@ -372,6 +523,26 @@ public class Universe {
             return this;
         }
 
+        /**
+         * Precompute the distance between every pair of Planets, so that distance
+         * and shortestPath queries are table lookups. Universes too large for
+         * AllPairsIndex.DEFAULT_MAX_BYTES search the graph on demand instead.
+         */
+        public UniverseBuilder allPairsDistances() {
+            allPairs = true;
+            return this;
+        }
+
+        /**
+         * Prune links until there are density links per Planet, rather than a random number
+         * of them. Any link may be pruned as long as every Planet stays reachable, so at least
+         * one link fewer than the number of Planets is kept. Requires density >= 0.
+         */
+        public UniverseBuilder edgeDensity(double density) {
+            this.density = density;
+            return this;
+        }
+
         /**
          * Build this Universe.
          * Precondition: all appropriate parameters have been set.
@@ -383,7 +554,7 @@ public class Universe {
             }
 
             return new Universe(width, height, seed, minPlanets, maxPlanets, minSpice,
-                    maxSpice);
+                    maxSpice, allPairs, density);
         }
     }
 }
@@ -7,6 +7,7 @@ import cpen221.mp2.controllers.Spaceship;
 import cpen221.mp2.graph.Edge;
 import cpen221.mp2.graph.Graph;
 import cpen221.mp2.graph.ImGraph;
+import cpen221.mp2.graph.ShortestPathTree;
 import cpen221.mp2.graph.Vertex;
 import cpen221.mp2.models.Link;
 import cpen221.mp2.models.Planet;
@@ -65,55 +66,55 @@ public class MillenniumFalcon implements Spaceship {
 
     @Override
     public void gather(GathererStage state) {
-        ImGraph g = state.planetGraph();
+        ImGraph<Planet, Link> g = state.planetGraph();
         List<Vertex> visited = new ArrayList<>();
 
         Stack<Planet> stack = new Stack<>();
         stack.push(state.currentPlanet());
 
-        Map<Planet, Integer> minimumFuel = dijkstra(state.earth(), g, state);
+        ShortestPathTree<Planet> minimumFuel = g.shortestPathTree(state.earth());
 
         collectSpice(state, g, visited, stack, minimumFuel);
     }
 
-    private void collectSpice(GathererStage state, ImGraph g, List<Vertex> visited, Stack<Planet> stack, Map<Planet, Integer> minimumFuel) {
+    private void collectSpice(GathererStage state, ImGraph<Planet, Link> g, List<Vertex> visited, Stack<Planet> stack, ShortestPathTree<Planet> minimumFuel) {
 //        long currentTime = System.nanoTime();
 //        long maxTime = 14500000000L;
 //
 //        if (currentTime - startTime >= maxTime) {
-//            goToEarth(state, state.currentPlanet(), state.earth(), g);
+//            goToEarth(state, state.currentPlanet(), minimumFuel);
 //            return;
 //        }
 
         int remainingFuel = state.fuelRemaining();
 
-        Planet earth = state.earth();
         Planet currentPlanet = state.currentPlanet();
 
         visited.add(currentPlanet);
 
-        Set<Planet> neighborSet = g.search(currentPlanet, 1);
-        List<Planet> neighborList = neighborSet.stream().sorted((p1, p2) -> p2.spice() - (p1.spice())).collect(Collectors.toList());
+        List<Planet> neighborList = new ArrayList<>();
+        g.forEachNeighbour(currentPlanet, (neighbor, link) -> neighborList.add(neighbor));
+        neighborList.sort((p1, p2) -> p2.spice() - (p1.spice()));
 
-        int minimumFuelRequired = minimumFuel.get(state.currentPlanet()) + 1000;
+        int minimumFuelRequired = minimumFuel.distanceTo(state.currentPlanet()) + 1000;
 
         if (visited.containsAll(neighborList)) {
             if (stack.peek() == currentPlanet) {
                 stack.pop();
             }
-            Link path = (Link) g.getEdge(currentPlanet, stack.peek());
+            Link path = g.getEdge(currentPlanet, stack.peek());
             if (remainingFuel - path.fuelNeeded() > minimumFuelRequired) {
                 state.moveTo(stack.peek());
                 collectSpice(state, g, visited, stack, minimumFuel);
                 return;
             } else {
-                goToEarth(state, state.currentPlanet(), earth, g);
+                goToEarth(state, state.currentPlanet(), minimumFuel);
                 return;
             }
         }
 
         for (Planet neighbor: neighborList) {
-            Link path = (Link) g.getEdge(currentPlanet, neighbor);
+            Link path = g.getEdge(currentPlanet, neighbor);
 
             if (!visited.contains(neighbor)) {
                 if (remainingFuel - path.fuelNeeded() > minimumFuelRequired) {
@@ -122,17 +123,22 @@ public class MillenniumFalcon implements Spaceship {
                     collectSpice(state, g, visited, stack, minimumFuel);
                     return;
                 } else {
-                    goToEarth(state, state.currentPlanet(), earth, g);
+                    goToEarth(state, state.currentPlanet(), minimumFuel);
                     return;
                 }
             }
         }
     }
 
-    private void goToEarth(GathererStage state, Planet currentPlanet, Planet earth, ImGraph g) {
-        List<Planet> pathToEarth = g.shortestPath(currentPlanet, earth);
-
-        dijkstra (earth, g, state);
+    /**
+     * Follow the shortest path from currentPlanet back to Earth.
+     *
+     * @param currentPlanet the planet the ship is on
+     * @param fromEarth the shortest path tree rooted at Earth
+     */
+    private void goToEarth(GathererStage state, Planet currentPlanet, ShortestPathTree<Planet> fromEarth) {
+        List<Planet> pathToEarth = fromEarth.pathTo(currentPlanet);
+        Collections.reverse(pathToEarth);
 
         for (int i = 1; i < pathToEarth.size(); i++) {
             state.moveTo(pathToEarth.get(i));
@@ -141,78 +147,4 @@ public class MillenniumFalcon implements Spaceship {
         return;
     }
 
-    private Map<Planet,Integer> dijkstra (Planet source, ImGraph g, GathererStage state) {
-        List<Planet> visited = new ArrayList<>();
-
-        Map<Planet,Integer> distFromSource = new HashMap<>();
-
-        for (Planet planet: state.planets()) {
-            //Initialize the distFromSource map to be all the vertices in planetMap as keys and set each of their values to Integer.MAX_VALUE
-            distFromSource.put(planet,Integer.MAX_VALUE);
-
-        }
-
-        //Give the source vertex a distance value of 0 as it is 0 away from itself
-        distFromSource.replace(source, 0);
-
-        for (int i = 0; i < state.planets().size(); i++) {
-            //Get the minVertex by calling the shortestDist method
-            Planet minVertex = shortestDist(distFromSource, visited, source, state);
-            //Add minVertex to the list of visited vertices
-            visited.add(minVertex);
-            //Call the updateDistance method to then check the next minVertex
-            updateDistance(minVertex, visited, distFromSource, state, g);
-        }
-
-        return distFromSource;
-    }
-
-    /**
-     * Finds the vertex which is the shortest distance to the next vertex.
-     *
-     * @param distFromSource a hashmap of vertices with respective distances from source
-     * @param visited a list of all the visited vertices
-     * @param source the start vertex
-     * @return the vertex which gives the shortest distance to the next vertex
-     */
-    private Planet shortestDist(Map<Planet,Integer> distFromSource, List<Planet> visited, Planet source, GathererStage state) {
-        int minDist = Integer.MAX_VALUE;
-        Planet minVertex = source;
-
-        for (Planet planet : state.planets()) {
-            //If the vertex given in planetMap has not been visited and the distance from the source to that vertex is less than minDist
-            if (!visited.contains(planet) && distFromSource.get(planet) <= minDist) {
-                minDist = distFromSource.get(planet);
-                minVertex = planet;
-            }
-        }
-
-        return minVertex;
-    }
-
-    /**
-     * Update the distance from the source and the path from the source maps.
-     *
-     * @param closePlanet the closest planet to the current vertex
-     * @param visited a list of all the visited vertices
-     * @param distFromSource a hashmap of vertices with respective distances from source
-     */
-    private void updateDistance (Planet closePlanet, List<Planet> visited, Map<Planet,Integer> distFromSource, GathererStage state, ImGraph g) {
-        Set<Planet> neighborSet = g.search(closePlanet, 1);
-
-        // iterate over the adjacent planets
-        for (Planet neighbor : neighborSet) {
-            if (!visited.contains(neighbor)) {
-                Link path = (Link) g.getEdge(closePlanet, neighbor);
-                //Define distance as the sum of the distance of closePlanet to the source and the length of the edge
-                int fuel = distFromSource.get(closePlanet) + path.fuelNeeded();
-
-                //Replace the key-value pair in both maps if this new distance is less than distance from the source to neighbor
-                if (fuel < distFromSource.get(neighbor)) {
-                    distFromSource.replace(neighbor, fuel);
-                }
-            }
-        }
-    }
-
 }
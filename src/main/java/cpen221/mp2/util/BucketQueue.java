@@ -0,0 +1,164 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An instance is a monotone bucket queue (Dial's queue) of distinct int values in
+ * 0..capacity-1 with non-negative int priorities. Every value is kept in a list for its
+ * priority, and the lists form a ring of maxGap + 1 buckets; poll scans forward from the
+ * last priority it returned. Every operation except poll takes constant time, and poll
+ * takes time proportional to the gap it skips.
+ * <p>
+ * The queue is monotone: a priority may not be below the last one polled, nor more than
+ * maxGap above it. Dijkstra's algorithm meets both conditions when maxGap is at least
+ * the length of every edge.
+ */
+public class BucketQueue implements IntPriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. bucket has length maxGap + 1. Every v in the queue has
+     * current <= priority[v] <= current + maxGap, and is in the list that starts
+     * at bucket[priority[v] % bucket.length].
+     * <p>
+     * 2. next[v] and prev[v] are the neighbours of v in its list, -1 at either end.
+     * <p>
+     * 3. inQueue[v] is true iff v is in a list, and size counts them.
+     */
+    private final int maxGap;
+    private final int[] bucket;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] priority;
+    private final boolean[] inQueue;
+    private int current;
+    private int size;
+
+    /**
+     * Constructor: an empty queue that can hold the values 0..capacity-1.
+     *
+     * @param capacity one more than the largest value, capacity >= 0
+     * @param maxGap   the largest difference between two priorities in the queue, maxGap >= 0
+     * @throws IllegalArgumentException if maxGap < 0
+     */
+    public BucketQueue(int capacity, int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap must not be negative");
+        }
+        this.maxGap = maxGap;
+        bucket = new int[maxGap + 1];
+        next = new int[capacity];
+        prev = new int[capacity];
+        priority = new int[capacity];
+        inQueue = new boolean[capacity];
+        Arrays.fill(bucket, -1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return inQueue[v];
+    }
+
+    /**
+     * Add v with priority p to the queue. An empty queue accepts any p >= 0,
+     * moving its window to start at p if p is outside it.
+     * Throw an IllegalArgumentException if v is already in the queue,
+     * or if p is outside current..current+maxGap.
+     */
+    @Override
+    public void add(int v, int p) throws IllegalArgumentException {
+        if (inQueue[v]) {
+            throw new IllegalArgumentException("v is already in the queue");
+        }
+        if (size == 0 && (p < current || p - current > maxGap)) {
+            current = p; // start a new window
+        }
+        checkRange(p);
+        inQueue[v] = true;
+        size = size + 1;
+        insert(v, p);
+    }
+
+    @Override
+    public int poll() {
+        if (size <= 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        while (bucket[current % bucket.length] == -1) {
+            current++;
+        }
+
+        int v = bucket[current % bucket.length];
+        unlink(v);
+        inQueue[v] = false;
+        size = size - 1;
+        return v;
+    }
+
+    @Override
+    public void decreasePriority(int v, int p) throws IllegalArgumentException {
+        if (!inQueue[v]) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        if (p > priority[v]) {
+            throw new IllegalArgumentException("p is above the priority of v");
+        }
+        checkRange(p);
+        unlink(v);
+        insert(v, p);
+    }
+
+    @Override
+    public void clear() {
+        for (int k = 0; k < bucket.length; k++) {
+            for (int v = bucket[k]; v != -1; v = next[v]) {
+                inQueue[v] = false;
+            }
+            bucket[k] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Throw an IllegalArgumentException if p is outside current..current+maxGap.
+     */
+    private void checkRange(int p) {
+        if (p < current || p - current > maxGap) {
+            throw new IllegalArgumentException("priority " + p + " is outside the window of the queue");
+        }
+    }
+
+    /**
+     * Put v with priority p at the front of its bucket.
+     */
+    private void insert(int v, int p) {
+        int k = p % bucket.length;
+        priority[v] = p;
+        prev[v] = -1;
+        next[v] = bucket[k];
+        if (bucket[k] != -1) {
+            prev[bucket[k]] = v;
+        }
+        bucket[k] = v;
+    }
+
+    /**
+     * Take v out of its bucket.
+     */
+    private void unlink(int v) {
+        if (prev[v] == -1) {
+            bucket[priority[v] % bucket.length] = next[v];
+        } else {
+            next[prev[v]] = next[v];
+        }
+        if (next[v] != -1) {
+            prev[next[v]] = prev[v];
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An instance is an indexed min-heap of distinct int values in 0..capacity-1 with
+ * int priorities, in which every node has up to arity children. A wider tree is
+ * shallower, so decrease-key is cheaper and poll compares more children per level;
+ * with arity 4 the children of a node share a cache line.
+ */
+public class DaryHeap implements IntPriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. arity >= 2 and heap[0..size-1] represents a complete arity-ary tree. heap[0] is the root;
+     * For each k, heap[arity*k+1..arity*k+arity] are the children of heap[k].
+     * <p>
+     * 2. The values in heap[0..size-1] are all different.
+     * <p>
+     * 3. For k in 1..size-1, priority[heap[k]] >= priority[heap[(k-1)/arity]].
+     * <p>
+     * 4. position[v] == k iff heap[k] == v for some k in 0..size-1,
+     * and position[v] == -1 iff v is not in the heap.
+     */
+    private final int arity;
+    private final int[] heap;
+    private final int[] position;
+    private final int[] priority;
+    private int size;
+
+    /**
+     * Constructor: an empty heap that can hold the values 0..capacity-1.
+     *
+     * @param capacity one more than the largest value, capacity >= 0
+     * @param arity    the number of children of each node, arity >= 2
+     * @throws IllegalArgumentException if arity < 2
+     */
+    public DaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        position = new int[capacity];
+        priority = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return position[v] != -1;
+    }
+
+    @Override
+    public void add(int v, int p) throws IllegalArgumentException {
+        if (position[v] != -1) {
+            throw new IllegalArgumentException("v is already in the heap");
+        }
+        priority[v] = p;
+        siftUp(v, size);
+        size = size + 1;
+    }
+
+    @Override
+    public int poll() {
+        if (size <= 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+
+        int v = heap[0];
+        position[v] = -1;
+        size = size - 1;
+        if (size > 0) {
+            siftDown(heap[size], 0);
+        }
+        return v;
+    }
+
+    @Override
+    public void decreasePriority(int v, int p) throws IllegalArgumentException {
+        int k = position[v];
+        if (k == -1) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        if (p > priority[v]) {
+            throw new IllegalArgumentException("p is above the priority of v");
+        }
+        priority[v] = p;
+        siftUp(v, k);
+    }
+
+    @Override
+    public void clear() {
+        for (int k = 0; k < size; k++) {
+            position[heap[k]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Place v at slot k or above it, moving the ancestors it beats down a level.
+     * Precondition: slot k is free and the class invariant holds for every other slot.
+     */
+    private void siftUp(int v, int k) {
+        int p = priority[v];
+        while (k > 0) {
+            int parent = (k - 1) / arity;
+            int u = heap[parent];
+            if (priority[u] <= p) {
+                break;
+            }
+            heap[k] = u;
+            position[u] = k;
+            k = parent;
+        }
+        heap[k] = v;
+        position[v] = k;
+    }
+
+    /**
+     * Place v at slot k or below it, moving its smallest child up a level while that child beats v.
+     * Precondition: slot k is free and the class invariant holds for every other slot.
+     */
+    private void siftDown(int v, int k) {
+        int p = priority[v];
+        while (true) {
+            int first = arity * k + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int best = first;
+            for (int c = first + 1; c < last; c++) {
+                if (priority[heap[c]] < priority[heap[best]]) {
+                    best = c;
+                }
+            }
+            int u = heap[best];
+            if (priority[u] >= p) {
+                break;
+            }
+            heap[k] = u;
+            position[u] = k;
+            k = best;
+        }
+        heap[k] = v;
+        position[v] = k;
+    }
+}
@@ -0,0 +1,131 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+
+/**
+ * This data type maintains a collection of disjoint sets over the
+ * dense integer elements 0..size()-1.
+ *
+ * <p>It is a disjoint-set forest with path compression and union by rank,
+ * so any sequence of m <tt>find</tt> and <tt>union</tt> operations takes
+ * O(m &alpha;(n)) time, where &alpha; is the inverse Ackermann function.</p>
+ */
+public class DisjointSets {
+
+    /**
+     * Class Invariant:
+     * 1. parent and rank have the same length, which is at least size.
+     * <p>
+     * 2. For k in 0..size-1, parent[k] is in 0..size-1, and following parent
+     * links from k reaches a root r with parent[r] == r.
+     * <p>
+     * 3. For every non-root k, rank[k] < rank[parent[k]].
+     * <p>
+     * 4. count is the number of roots among 0..size-1.
+     */
+    private int[] parent;
+    private byte[] rank;
+    private int size;
+    private int count;
+
+    /**
+     * Constructor: n singleton sets {0}, {1}, ..., {n-1}.
+     *
+     * @param n the number of elements, n >= 0
+     */
+    public DisjointSets(int n) {
+        parent = new int[Math.max(n, 10)];
+        rank = new byte[parent.length];
+        for (int k = 0; k < n; k++) {
+            parent[k] = k;
+        }
+        size = n;
+        count = n;
+    }
+
+    /**
+     * Add a new element in a set of its own.
+     *
+     * @return the new element, which is the previous value of size()
+     */
+    public int add() {
+        if (size == parent.length) {
+            parent = Arrays.copyOf(parent, 2 * parent.length);
+            rank = Arrays.copyOf(rank, 2 * rank.length);
+        }
+        parent[size] = size;
+        rank[size] = 0;
+        count++;
+        return size++;
+    }
+
+    /**
+     * Return the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the number of disjoint sets.
+     *
+     * @return the number of disjoint sets
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Find the representative of the set containing k.
+     * Every element on the way to the root is relinked to its grandparent.
+     *
+     * @param k an element, 0 <= k < size()
+     * @return the representative of the set containing k
+     */
+    public int find(int k) {
+        while (parent[k] != k) {
+            parent[k] = parent[parent[k]];
+            k = parent[k];
+        }
+        return k;
+    }
+
+    /**
+     * Check if two elements are in the same set.
+     *
+     * @param a an element, 0 <= a < size()
+     * @param b an element, 0 <= b < size()
+     * @return true if a and b are in the same set and false otherwise
+     */
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Merge the sets containing a and b.
+     * The root of lower rank is attached under the root of higher rank.
+     *
+     * @param a an element, 0 <= a < size()
+     * @param b an element, 0 <= b < size()
+     * @return true if a and b were in different sets and false otherwise
+     */
+    public boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (rank[ra] < rank[rb]) {
+            parent[ra] = rb;
+        } else if (rank[ra] > rank[rb]) {
+            parent[rb] = ra;
+        } else {
+            parent[rb] = ra;
+            rank[ra]++;
+        }
+        count--;
+        return true;
+    }
+}
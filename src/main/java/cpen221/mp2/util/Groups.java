@@ -2,10 +2,10 @@ package cpen221.mp2.util;
 
 import cpen221.mp2.graph.Vertex;
 
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * This data type maintains collection of disjoint groups of elements.
@@ -23,11 +23,22 @@ import java.util.Set;
  * <li>Merging two groups: <tt>waveGroups.merge(wave1, wave2);</tt></li>
  * </ul>
  *
+ * <p>Each element is given a dense index and the groups are kept in a
+ * {@link DisjointSets} forest, so every operation takes near-constant time.</p>
+ *
  */
 
 public class Groups<V extends Vertex> {
 
-    private List<Group<V>> groups = new LinkedList<Group<V>>();
+    /*
+     * Class Invariant:
+     * elements.get(k) is the element with index k, and index maps it back to k.
+     * Both hold exactly the elements that have been added, and sets has one
+     * element per entry of elements.
+     */
+    private final Map<V, Integer> index = new HashMap<V, Integer>();
+    private final List<V> elements = new ArrayList<V>();
+    private final DisjointSets sets = new DisjointSets(0);
 
     /**
      * Add a new element to this collection of Groups.
@@ -37,8 +48,9 @@ public class Groups<V extends Vertex> {
      * @param elem is not null
      */
     public void add(V elem) {
-        if (this.find(elem) == null) {
-            groups.add(new Group<V>(elem));
+        if (!index.containsKey(elem)) {
+            index.put(elem, sets.add());
+            elements.add(elem);
         }
     }
 
@@ -49,32 +61,12 @@ public class Groups<V extends Vertex> {
      *
      * @param elem is not null.
      */
-    public Vertex find(V elem) {
-        for (Group<V> g : groups) {
-            if (g.contains(elem)) {
-                return g.getHead();
-            }
+    public V find(V elem) {
+        Integer k = index.get(elem);
+        if (k == null) {
+            return null;
         }
-        // if we reach this far then the document was not found
-        return null; // this is not convenient but sufficient for now
-    }
-
-    /**
-     *
-     * Internal method for obtaining the group that contains an element.
-     *
-     * @param elem the element to search for.
-     * @return the group that contains elem.
-     * @throws NotFoundException if elem is in no group.
-     */
-    private Group<V> findGroup(V elem) throws NotFoundException {
-        for (Group<V> g : groups) {
-            if (g.contains(elem)) {
-                return g;
-            }
-        }
-        // if we reach this far then the document was not found
-        throw new NotFoundException();
+        return elements.get(sets.find(k));
     }
 
     /**
@@ -86,88 +78,33 @@ public class Groups<V extends Vertex> {
      * @param e2 is not null
      */
     public void merge(V e1, V e2) {
-        try {
-            Group<V> g1 = findGroup(e1);
-            Group<V> g2 = findGroup(e2);
-            if (g1 != g2) {
-                g1.merge(g2);
-                this.groups.remove(g2);
-            }
-        }
-        catch (NotFoundException nfe) {
-            // do nothing per spec
+        Integer k1 = index.get(e1);
+        Integer k2 = index.get(e2);
+        if (k1 != null && k2 != null) {
+            sets.union(k1, k2);
         }
-
     }
 
     /**
-     * This is a helper type for maintaining a set of elements.
+     * Check if two elements are in the same group.
+     *
+     * @param e1 is not null
+     * @param e2 is not null
+     * @return true if both elements exist and are in the same group and false otherwise
      */
-    private class Group<V extends Vertex> {
-        private V head;
-        private Integer rank;
-        private Set<V> eSet = new HashSet<V>();
-
-        /**
-         * Create a new group with a single element
-         *
-         * @param elem is not null
-         */
-        public Group(V elem) {
-            head = elem;
-            rank = 0;
-            this.add(elem);
-        }
-        /**
-         * Add a new element to this group.
-         *
-         * @param elem is not null
-         *             and is not equal to another document in the collection of Groups.
-         */
-        public void add(V elem) {
-            eSet.add(elem);
-            if (rank.compareTo(this.rank) > 0) {
-                head = elem;
-            }
-        }
-
-        /**
-         * Return the element that is the head (representative) for this group
-         *
-         * @return the head element for the group
-         */
-        public V getHead() {
-            return head;
-        }
-
-
-        /**
-         * Merge this group with another group,
-         * changing the group and leaving the other group unchanged
-         *
-         * @param other is not null
-         */
-        public void merge(Group<V> other) {
-            eSet.addAll(other.eSet);
-            if (this.rank.compareTo(other.rank) > 0) {
-                head = other.head;
-            }
-        }
-
-        /**
-         * Check if the group contains a particular element
-         *
-         * @param elem
-         * @return true if elem is in the group and false otherwise
-         */
-        public boolean contains(V elem) {
-            if (elem == null) {
-                return false;
-            }
-            return eSet.contains(elem);
-        }
-
+    public boolean sameGroup(V e1, V e2) {
+        Integer k1 = index.get(e1);
+        Integer k2 = index.get(e2);
+        return k1 != null && k2 != null && sets.connected(k1, k2);
+    }
 
+    /**
+     * Return the number of groups in this collection.
+     *
+     * @return the number of groups
+     */
+    public int groupCount() {
+        return sets.count();
     }
 
 }
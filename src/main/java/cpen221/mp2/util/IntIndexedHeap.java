@@ -0,0 +1,218 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An instance is a min-heap of distinct int values in 0..capacity-1, such as the
+ * dense vertex indices of a frozen graph, with priorities of type double.
+ * Int priorities can be passed directly; every int is represented exactly.
+ * <p>
+ * The heap is kept in parallel primitive arrays and a position index replaces the
+ * HashMap of Heap, so no operation allocates or boxes. Values move through the tree
+ * exactly as they do in Heap, so both poll equal priorities in the same order.
+ */
+public class IntIndexedHeap implements IntPriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. heap[0..size-1] represents a complete binary tree. heap[0] is the root;
+     * For each k, heap[2k+1] and heap[2k+2] are the left and right children of heap[k].
+     * <p>
+     * 2. The values in heap[0..size-1] are all different.
+     * <p>
+     * 3. For k in 1..size-1, priority[heap[k]] >= priority[heap[(k-1)/2]].
+     * <p>
+     * 4. position[v] == k iff heap[k] == v for some k in 0..size-1,
+     * and position[v] == -1 iff v is not in the heap.
+     */
+    private final int[] heap;
+    private final int[] position;
+    private final double[] priority;
+    private int size;
+
+    /**
+     * Constructor: an empty heap that can hold the values 0..capacity-1.
+     *
+     * @param capacity one more than the largest value, capacity >= 0
+     */
+    public IntIndexedHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        priority = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Return the size of this heap.
+     * This operation takes constant time.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true iff v is in the heap.
+     * This operation takes constant time.
+     */
+    @Override
+    public boolean contains(int v) {
+        return position[v] != -1;
+    }
+
+    /**
+     * Add v with priority p to the heap.
+     * Throw an IllegalArgumentException if v is already in the heap.
+     * The worst-case time is logarithmic in the size of the heap.
+     */
+    public void add(int v, double p) throws IllegalArgumentException {
+        if (position[v] != -1) {
+            throw new IllegalArgumentException("v is already in the heap");
+        }
+        heap[size] = v;
+        position[v] = size;
+        priority[v] = p;
+        size = size + 1;
+        bubbleUp(size - 1);
+    }
+
+    /**
+     * Add v with int priority p to the heap.
+     * Throw an IllegalArgumentException if v is already in the heap.
+     */
+    @Override
+    public void add(int v, int p) throws IllegalArgumentException {
+        add(v, (double) p);
+    }
+
+    /**
+     * Return the value with the lowest priority without changing the heap.
+     * Throw a NoSuchElementException if the heap is empty.
+     */
+    public int peek() {
+        if (size <= 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Return the lowest priority in the heap without changing it.
+     * Throw a NoSuchElementException if the heap is empty.
+     */
+    public double peekPriority() {
+        return priority[peek()];
+    }
+
+    /**
+     * Remove and return the value with the lowest priority.
+     * The worst-case time is logarithmic in the size of the heap.
+     * Throw a NoSuchElementException if the heap is empty.
+     */
+    @Override
+    public int poll() {
+        if (size <= 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+
+        int v = heap[0];
+        swap(0, size - 1);
+        position[v] = -1;
+        size = size - 1;
+        if (size > 0) {
+            bubbleDown(0);
+        }
+        return v;
+    }
+
+    /**
+     * Change the priority of value v to p. Lowering it is the decrease-key
+     * operation of Dijkstra's and Prim's algorithms.
+     * The worst-case time is logarithmic in the size of the heap.
+     * Throw an IllegalArgumentException if v is not in the heap.
+     */
+    public void updatePriority(int v, double p) {
+        int k = position[v];
+        if (k == -1) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        double oldP = priority[v];
+        priority[v] = p;
+        if (p > oldP) {
+            bubbleDown(k);
+        } else if (p < oldP) {
+            bubbleUp(k);
+        }
+    }
+
+    /**
+     * Lower the priority of value v to p.
+     * Throw an IllegalArgumentException if v is not in the heap or p is above its priority.
+     */
+    @Override
+    public void decreasePriority(int v, int p) throws IllegalArgumentException {
+        if (position[v] != -1 && p > priority[v]) {
+            throw new IllegalArgumentException("p is above the priority of v");
+        }
+        updatePriority(v, p);
+    }
+
+    /**
+     * Remove every value from the heap.
+     * The time is linear in the size of the heap, not its capacity.
+     */
+    @Override
+    public void clear() {
+        for (int k = 0; k < size; k++) {
+            position[heap[k]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Swap heap[h] and heap[k].
+     * Precondition: 0 <= h < size, 0 <= k < size.
+     */
+    private void swap(int h, int k) {
+        int temp = heap[h];
+        heap[h] = heap[k];
+        heap[k] = temp;
+        position[heap[h]] = h;
+        position[heap[k]] = k;
+    }
+
+    /**
+     * Bubble heap[k] up the heap to its right place.
+     * Precondition: 0 <= k < size and the class invariant is true,
+     * except perhaps that heap[k] belongs above its parent.
+     */
+    private void bubbleUp(int k) {
+        while (k > 0) {
+            int p = (k - 1) / 2;
+            if (priority[heap[k]] >= priority[heap[p]]) {
+                return;
+            }
+            swap(k, p);
+            k = p;
+        }
+    }
+
+    /**
+     * Bubble heap[k] down the heap to its right place. If both children
+     * have the same priority, choose the right child, as Heap does.
+     * Precondition: 0 <= k < size and the class invariant is true,
+     * except perhaps that heap[k] belongs below one or both of its children.
+     */
+    private void bubbleDown(int k) {
+        while (2 * k + 1 < size) {
+            int lc = 2 * k + 1;
+            int uc = lc + 1 < size && priority[heap[lc + 1]] <= priority[heap[lc]] ? lc + 1 : lc;
+            if (priority[heap[k]] <= priority[heap[uc]]) {
+                return;
+            }
+            swap(k, uc);
+            k = uc;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package cpen221.mp2.util;
+
+import java.util.Arrays;
+
+/**
+ * An instance is a map from primitive int keys to non-null values of type T.
+ * Keys are stored unboxed in an open-addressing table with linear probing,
+ * so lookups do not allocate.
+ */
+public class IntObjectMap<T> {
+
+    /**
+     * Class Invariant:
+     * 1. keys, values and used all have the same length, which is a power of 2.
+     * <p>
+     * 2. used[k] is true iff values[k] != null; the entry at slot k is (keys[k], values[k]).
+     * <p>
+     * 3. Every key appears in at most one used slot, and the slots between
+     * the key's home slot (mix(key) & mask) and its actual slot are all used.
+     * <p>
+     * 4. size is the number of used slots and size <= 3/4 of the table length.
+     */
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * Constructor: an empty map.
+     */
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Constructor: an empty map that can hold expected entries without resizing.
+     *
+     * @param expected the expected number of entries, expected >= 0
+     */
+    public IntObjectMap(int expected) {
+        int capacity = 16;
+        while (capacity * 3 / 4 < expected) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Create empty tables of the given capacity.
+     *
+     * @param capacity a power of 2
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Spread the bits of a key so that nearby keys land in different slots.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Find the slot that holds key, or the empty slot where key would go.
+     */
+    private int find(int key) {
+        int k = mix(key) & mask;
+        while (used[k] && keys[k] != key) {
+            k = (k + 1) & mask;
+        }
+        return k;
+    }
+
+    /**
+     * Return the number of entries in this map.
+     *
+     * @return the number of entries in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the map has an entry for key.
+     *
+     * @param key the key to look for
+     * @return true if key is in the map and false otherwise
+     */
+    public boolean containsKey(int key) {
+        return used[find(key)];
+    }
+
+    /**
+     * Obtain the value associated with key.
+     *
+     * @param key the key to look for
+     * @return the value associated with key, or null if key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        return (T) values[find(key)];
+    }
+
+    /**
+     * Associate value with key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value is not null
+     * @return the previous value associated with key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public T put(int key, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        int k = find(key);
+        if (used[k]) {
+            T old = (T) values[k];
+            values[k] = value;
+            return old;
+        }
+        keys[k] = key;
+        values[k] = value;
+        used[k] = true;
+        size++;
+        if (size > (mask + 1) * 3 / 4) {
+            rehash(2 * (mask + 1));
+        }
+        return null;
+    }
+
+    /**
+     * Remove the entry for key, if there is one.
+     *
+     * @param key the key to remove
+     * @return the value that was associated with key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(int key) {
+        int k = find(key);
+        if (!used[k]) {
+            return null;
+        }
+        T old = (T) values[k];
+
+        // shift later entries of the probe run back so that no gap breaks it
+        int gap = k;
+        int j = (k + 1) & mask;
+        while (used[j]) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        used[gap] = false;
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    /**
+     * Remove every entry from this map.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Move every entry into new tables of the given capacity.
+     *
+     * @param capacity a power of 2 larger than size
+     */
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldUsed[k]) {
+                put(oldKeys[k], (T) oldValues[k]);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cpen221.mp2.util;
+
+/**
+ * An instance is a min-priority queue of distinct int values in 0..capacity-1,
+ * such as the dense vertex indices of a frozen graph, with int priorities and
+ * decrease-key. Implementations differ in how they trade the cost of poll
+ * against the cost of add and updatePriority.
+ */
+public interface IntPriorityQueue {
+
+    /**
+     * Return the number of values in the queue.
+     */
+    int size();
+
+    /**
+     * Return true iff v is in the queue.
+     */
+    boolean contains(int v);
+
+    /**
+     * Add v with priority p to the queue.
+     * Throw an IllegalArgumentException if v is already in the queue.
+     */
+    void add(int v, int p) throws IllegalArgumentException;
+
+    /**
+     * Remove and return a value with the lowest priority.
+     * Throw a NoSuchElementException if the queue is empty.
+     */
+    int poll();
+
+    /**
+     * Lower the priority of value v to p.
+     * Throw an IllegalArgumentException if v is not in the queue,
+     * or if p is greater than its current priority.
+     */
+    void decreasePriority(int v, int p) throws IllegalArgumentException;
+
+    /**
+     * Remove every value from the queue.
+     */
+    void clear();
+}
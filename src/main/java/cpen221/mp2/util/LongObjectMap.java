@@ -0,0 +1,318 @@
+package cpen221.mp2.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An instance is a map from primitive long keys to non-null values of type T.
+ * Keys are stored unboxed in an open-addressing table with linear probing,
+ * so lookups do not allocate. Each entry also records when it was put, so the
+ * values can be listed in insertion order.
+ */
+public class LongObjectMap<T> {
+
+    /**
+     * Class Invariant:
+     * 1. keys, values, stamps and used all have the same length, which is a power of 2.
+     * <p>
+     * 2. used[k] is true iff values[k] != null; the entry at slot k is (keys[k], values[k]).
+     * <p>
+     * 3. Every key appears in at most one used slot, and the slots between
+     * the key's home slot (mix(key) & mask) and its actual slot are all used.
+     * <p>
+     * 4. size is the number of used slots and size <= 3/4 of the table length.
+     * <p>
+     * 5. stamps[k] < nextStamp for every used slot k, no two used slots share a stamp,
+     * and an entry put later has a larger stamp.
+     */
+    private long[] keys;
+    private Object[] values;
+    private int[] stamps;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int nextStamp;
+
+    /**
+     * Constructor: an empty map.
+     */
+    public LongObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Constructor: an empty map that can hold expected entries without resizing.
+     *
+     * @param expected the expected number of entries, expected >= 0
+     */
+    public LongObjectMap(int expected) {
+        int capacity = 16;
+        while (capacity * 3 / 4 < expected) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Create empty tables of the given capacity.
+     *
+     * @param capacity a power of 2
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        stamps = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Spread the bits of a key so that nearby keys land in different slots.
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Find the slot that holds key, or the empty slot where key would go.
+     */
+    private int find(long key) {
+        int k = mix(key) & mask;
+        while (used[k] && keys[k] != key) {
+            k = (k + 1) & mask;
+        }
+        return k;
+    }
+
+    /**
+     * Return the number of entries in this map.
+     *
+     * @return the number of entries in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the map has an entry for key.
+     *
+     * @param key the key to look for
+     * @return true if key is in the map and false otherwise
+     */
+    public boolean containsKey(long key) {
+        return used[find(key)];
+    }
+
+    /**
+     * Obtain the value associated with key.
+     *
+     * @param key the key to look for
+     * @return the value associated with key, or null if key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long key) {
+        return (T) values[find(key)];
+    }
+
+    /**
+     * Associate value with key, replacing any previous value.
+     * A replaced value keeps the place of the old one in insertion order.
+     *
+     * @param key   the key
+     * @param value is not null
+     * @return the previous value associated with key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public T put(long key, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        int k = find(key);
+        if (used[k]) {
+            T old = (T) values[k];
+            values[k] = value;
+            return old;
+        }
+        if (nextStamp == Integer.MAX_VALUE) {
+            renumber();
+        }
+        insert(k, key, value, nextStamp++);
+        if (size > (mask + 1) * 3 / 4) {
+            rehash(2 * (mask + 1));
+        }
+        return null;
+    }
+
+    /**
+     * Fill the empty slot k with an entry.
+     */
+    private void insert(int k, long key, Object value, int stamp) {
+        keys[k] = key;
+        values[k] = value;
+        stamps[k] = stamp;
+        used[k] = true;
+        size++;
+    }
+
+    /**
+     * Remove the entry for key, if there is one.
+     *
+     * @param key the key to remove
+     * @return the value that was associated with key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(long key) {
+        int k = find(key);
+        if (!used[k]) {
+            return null;
+        }
+        T old = (T) values[k];
+
+        // shift later entries of the probe run back so that no gap breaks it
+        int gap = k;
+        int j = (k + 1) & mask;
+        while (used[j]) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                stamps[gap] = stamps[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        used[gap] = false;
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    /**
+     * Remove every entry from this map.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * List the values of this map, in no particular order.
+     *
+     * @return a new list of every value in the map
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        List<T> all = new ArrayList<T>(size);
+        for (int k = 0; k <= mask; k++) {
+            if (used[k]) {
+                all.add((T) values[k]);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Iterate over the values of this map, in the same order as values(), without
+     * copying them. The iterator does not support remove, and fails with
+     * ConcurrentModificationException if the map is resized while it is in use.
+     *
+     * @return an iterator over every value in the map
+     */
+    public Iterator<T> valueIterator() {
+        return new Iterator<T>() {
+            private final Object[] table = values;
+            private int next = advance(0);
+
+            private int advance(int k) {
+                while (k < table.length && table[k] == null) {
+                    k++;
+                }
+                return k;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < table.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (table != values) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next >= table.length) {
+                    throw new NoSuchElementException();
+                }
+                T value = (T) table[next];
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * List the values of this map in the order their keys were put.
+     *
+     * @return a new list of every value in the map, oldest first
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> valuesInInsertionOrder() {
+        List<T> ordered = new ArrayList<T>(size);
+        for (int k : slotsInInsertionOrder()) {
+            ordered.add((T) values[k]);
+        }
+        return ordered;
+    }
+
+    /**
+     * Sort the used slots by stamp.
+     */
+    private Integer[] slotsInInsertionOrder() {
+        Integer[] slots = new Integer[size];
+        int count = 0;
+        for (int k = 0; k <= mask; k++) {
+            if (used[k]) {
+                slots[count++] = k;
+            }
+        }
+        Arrays.sort(slots, (a, b) -> Integer.compare(stamps[a], stamps[b]));
+        return slots;
+    }
+
+    /**
+     * Give the entries the stamps 0..size-1 in the same order, once the stamps run out.
+     */
+    private void renumber() {
+        Integer[] slots = slotsInInsertionOrder();
+        for (int i = 0; i < slots.length; i++) {
+            stamps[slots[i]] = i;
+        }
+        nextStamp = slots.length;
+    }
+
+    /**
+     * Move every entry into new tables of the given capacity.
+     *
+     * @param capacity a power of 2 larger than size
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldStamps = stamps;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldUsed[k]) {
+                insert(find(oldKeys[k]), oldKeys[k], oldValues[k], oldStamps[k]);
+            }
+        }
+    }
+}
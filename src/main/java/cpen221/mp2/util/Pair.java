@@ -30,6 +30,11 @@ public class Pair<V> {
 
         if (obj instanceof Pair) {
             Pair other = (Pair) obj;
+            // pairs built from the same element objects match without calling equals
+            if ((this.elem1 == other.elem1 && this.elem2 == other.elem2)
+                    || (this.elem1 == other.elem2 && this.elem2 == other.elem1)) {
+                return true;
+            }
             return ((this.elem1.equals(other.elem1) && this.elem2.equals(other.elem2))
                     || (this.elem1.equals(other.elem2) && (this.elem2.equals(other.elem1))));
         } else {
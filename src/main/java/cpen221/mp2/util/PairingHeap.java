@@ -0,0 +1,182 @@
+package cpen221.mp2.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An instance is an indexed pairing heap of distinct int values in 0..capacity-1
+ * with int priorities. add and decrease-key only link a tree under the root, in
+ * constant time; poll pays for them by pairing up the children of the old root,
+ * in amortized logarithmic time. The trees are stored in int arrays indexed by value,
+ * so nothing is allocated after construction.
+ */
+public class PairingHeap implements IntPriorityQueue {
+
+    /**
+     * Class Invariant:
+     * 1. root == -1 iff size == 0, and otherwise the heap is the tree rooted at root.
+     * <p>
+     * 2. child[v] is the leftmost child of v, or -1; sibling[v] is the next child
+     * of the parent of v, or -1; prev[v] is the previous child of the parent of v,
+     * or the parent itself if v is the leftmost child, or -1 if v is the root.
+     * <p>
+     * 3. For every v in the tree other than root, priority[v] >= priority of its parent.
+     * <p>
+     * 4. inHeap[v] is true iff v is in the tree, and size counts them.
+     */
+    private final int[] priority;
+    private final int[] child;
+    private final int[] sibling;
+    private final int[] prev;
+    private final boolean[] inHeap;
+    /* the children of a polled root, while they are paired up */
+    private final int[] pending;
+    private int root = -1;
+    private int size;
+
+    /**
+     * Constructor: an empty heap that can hold the values 0..capacity-1.
+     *
+     * @param capacity one more than the largest value, capacity >= 0
+     */
+    public PairingHeap(int capacity) {
+        priority = new int[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        prev = new int[capacity];
+        inHeap = new boolean[capacity];
+        pending = new int[capacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int v) {
+        return inHeap[v];
+    }
+
+    @Override
+    public void add(int v, int p) throws IllegalArgumentException {
+        if (inHeap[v]) {
+            throw new IllegalArgumentException("v is already in the heap");
+        }
+        priority[v] = p;
+        child[v] = -1;
+        sibling[v] = -1;
+        prev[v] = -1;
+        inHeap[v] = true;
+        size = size + 1;
+        root = root == -1 ? v : link(root, v);
+    }
+
+    @Override
+    public int poll() {
+        if (size <= 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+
+        int v = root;
+        inHeap[v] = false;
+        size = size - 1;
+
+        // first pass: link the children in pairs, left to right
+        int count = 0;
+        int c = child[v];
+        while (c != -1) {
+            int next = sibling[c];
+            if (next == -1) {
+                pending[count++] = detach(c);
+                break;
+            }
+            int after = sibling[next];
+            pending[count++] = link(detach(c), detach(next));
+            c = after;
+        }
+
+        // second pass: link the pairs, right to left
+        root = count == 0 ? -1 : pending[count - 1];
+        for (int k = count - 2; k >= 0; k--) {
+            root = link(pending[k], root);
+        }
+
+        return v;
+    }
+
+    @Override
+    public void decreasePriority(int v, int p) throws IllegalArgumentException {
+        if (!inHeap[v]) {
+            throw new IllegalArgumentException("v is not in the priority queue");
+        }
+        if (p > priority[v]) {
+            throw new IllegalArgumentException("p is above the priority of v");
+        }
+        priority[v] = p;
+        if (v == root) {
+            return;
+        }
+
+        // cut the subtree of v out of its parent's child list and link it to the root
+        int before = prev[v];
+        if (child[before] == v) {
+            child[before] = sibling[v];
+        } else {
+            sibling[before] = sibling[v];
+        }
+        if (sibling[v] != -1) {
+            prev[sibling[v]] = before;
+        }
+        root = link(root, detach(v));
+    }
+
+    @Override
+    public void clear() {
+        // walk the tree with pending as a stack
+        int top = 0;
+        if (root != -1) {
+            pending[top++] = root;
+        }
+        while (top > 0) {
+            int v = pending[--top];
+            inHeap[v] = false;
+            for (int c = child[v]; c != -1; c = sibling[c]) {
+                pending[top++] = c;
+            }
+        }
+        root = -1;
+        size = 0;
+    }
+
+    /**
+     * Clear the sibling links of v, which must no longer be in a child list.
+     *
+     * @return v
+     */
+    private int detach(int v) {
+        sibling[v] = -1;
+        prev[v] = -1;
+        return v;
+    }
+
+    /**
+     * Make the root with the higher priority the leftmost child of the other.
+     * Precondition: a and b are roots of disjoint trees with no siblings.
+     *
+     * @return the root of the linked tree
+     */
+    private int link(int a, int b) {
+        if (priority[b] < priority[a]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        sibling[b] = child[a];
+        if (child[a] != -1) {
+            prev[child[a]] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+}
@@ -0,0 +1,180 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.Biconnectivity;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.models.Link;
+import cpen221.mp2.models.Planet;
+import cpen221.mp2.models.Universe;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BiconnectivityTest {
+
+    /**
+     * Find the vertices connected to start by breadth-first search, without passing
+     * through the vertex or the edge that is left out.
+     *
+     * @param skipVertex a vertex to leave out, or null
+     * @param skipEdge   an edge to leave out, or null
+     */
+    private static Set<Vertex> reachable(Graph<Vertex, Edge<Vertex>> g, Vertex start,
+                                         Vertex skipVertex, Edge<Vertex> skipEdge) {
+        Set<Vertex> seen = new HashSet<>();
+        Deque<Vertex> queue = new ArrayDeque<>();
+        seen.add(start);
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            Vertex v = queue.poll();
+            for (Map.Entry<Vertex, Edge<Vertex>> entry : g.getNeighbours(v).entrySet()) {
+                Vertex w = entry.getKey();
+                if (!w.equals(skipVertex) && !entry.getValue().equals(skipEdge) && seen.add(w)) {
+                    queue.add(w);
+                }
+            }
+        }
+
+        return seen;
+    }
+
+    /**
+     * Thin a triangulation out until it has many bridges and cut vertices, and compare
+     * every answer with a search that leaves the edge or vertex out.
+     */
+    @Test
+    public void testMatchesSearch() {
+        Graph<Vertex, Edge<Vertex>> g = GraphBenchmark.delaunayGraph(150, 221);
+        g.pruneRandomEdges(new Random(221), 170);
+        Biconnectivity<Vertex, Edge<Vertex>> analysis = g.biconnectivity();
+        Set<Edge<Vertex>> bridges = new HashSet<>(analysis.bridges());
+        Set<Vertex> points = new HashSet<>(analysis.articulationPoints());
+
+        for (Edge<Vertex> e : g.allEdges()) {
+            Set<Vertex> beyond = reachable(g, e.v2(), null, e);
+            boolean bridge = !beyond.contains(e.v1());
+
+            assertEquals(bridge, analysis.isBridge(e.v1(), e.v2()));
+            assertEquals(bridge, analysis.isBridge(e.v2(), e.v1()));
+            assertEquals(bridge, bridges.contains(e));
+            assertEquals(beyond.size(), analysis.verticesBeyond(e.v1(), e.v2()));
+            assertEquals(reachable(g, e.v1(), null, e).size(), analysis.verticesBeyond(e.v2(), e.v1()));
+        }
+
+        for (Vertex v : g.allVertices()) {
+            Set<Vertex> neighbours = g.getNeighbours(v).keySet();
+            boolean cut = false;
+            if (!neighbours.isEmpty()) {
+                Set<Vertex> seen = reachable(g, neighbours.iterator().next(), v, null);
+                cut = !seen.containsAll(neighbours);
+            }
+
+            assertEquals(cut, analysis.isArticulationPoint(v));
+            assertEquals(cut, points.contains(v));
+        }
+        assertFalse(bridges.isEmpty());
+        assertFalse(points.isEmpty());
+
+        // the components partition the edges, and only meet at articulation points
+        List<List<Edge<Vertex>>> components = analysis.biconnectedComponents();
+        assertEquals(components.size(), analysis.componentCount());
+        Map<Vertex, Set<Integer>> touching = new HashMap<>();
+        Set<Edge<Vertex>> covered = new HashSet<>();
+        for (int c = 0; c < components.size(); c++) {
+            for (Edge<Vertex> e : components.get(c)) {
+                assertTrue(covered.add(e));
+                assertEquals(c, analysis.componentOf(e.v1(), e.v2()));
+                touching.computeIfAbsent(e.v1(), v -> new HashSet<>()).add(c);
+                touching.computeIfAbsent(e.v2(), v -> new HashSet<>()).add(c);
+            }
+            assertEquals(components.get(c).size() == 1, bridges.contains(components.get(c).get(0)));
+        }
+        assertEquals(g.allEdges(), covered);
+        for (Map.Entry<Vertex, Set<Integer>> entry : touching.entrySet()) {
+            assertEquals(entry.getValue().size() > 1, points.contains(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testBridgeBetweenTriangles() {
+        List<Vertex> v = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            v.add(new Vertex(i, "v" + i));
+        }
+        Edge<Vertex> bridge = new Edge<>(v.get(2), v.get(3), 5);
+        Edge<Vertex> pendant = new Edge<>(v.get(5), v.get(6), 1);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertices(v);
+        g.addEdges(Arrays.asList(
+                new Edge<>(v.get(0), v.get(1), 1), new Edge<>(v.get(1), v.get(2), 1),
+                new Edge<>(v.get(0), v.get(2), 1), bridge,
+                new Edge<>(v.get(3), v.get(4), 1), new Edge<>(v.get(4), v.get(5), 1),
+                new Edge<>(v.get(3), v.get(5), 1), pendant));
+
+        Biconnectivity<Vertex, Edge<Vertex>> analysis = g.freeze().biconnectivity();
+        assertEquals(new HashSet<>(Arrays.asList(bridge, pendant)), new HashSet<>(analysis.bridges()));
+        assertEquals(Arrays.asList(v.get(2), v.get(3), v.get(5)), analysis.articulationPoints());
+        assertFalse(analysis.isArticulationPoint(v.get(7)));
+        assertEquals(4, analysis.componentCount());
+        assertEquals(analysis.componentOf(v.get(0), v.get(1)), analysis.componentOf(v.get(2), v.get(0)));
+        assertNotEquals(analysis.componentOf(v.get(0), v.get(1)), analysis.componentOf(v.get(3), v.get(4)));
+
+        assertEquals(4, analysis.verticesBeyond(v.get(2), v.get(3)));
+        assertEquals(3, analysis.verticesBeyond(v.get(3), v.get(2)));
+        assertEquals(1, analysis.verticesBeyond(v.get(5), v.get(6)));
+        assertEquals(7, analysis.verticesBeyond(v.get(0), v.get(1)));
+    }
+
+    @Test
+    public void testLongPath() {
+        int n = 100000;
+        List<Vertex> v = new ArrayList<>();
+        List<Edge<Vertex>> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            v.add(new Vertex(i, "v" + i));
+            if (i > 0) {
+                edges.add(new Edge<>(v.get(i - 1), v.get(i), 1));
+            }
+        }
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertices(v);
+        g.addEdges(edges);
+
+        Biconnectivity<Vertex, Edge<Vertex>> analysis = g.biconnectivity();
+        assertEquals(n - 1, analysis.bridges().size());
+        assertEquals(n - 2, analysis.articulationPoints().size());
+        assertEquals(n - 1, analysis.componentCount());
+        assertEquals(n - 10, analysis.verticesBeyond(v.get(9), v.get(10)));
+    }
+
+    @Test
+    public void testCachedPerUniverse() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                .planetBounds(200, 200).spiceBounds(0, 5000).edgeDensity(1.25).build();
+
+        Biconnectivity<Planet, Link> analysis = universe.biconnectivity();
+
+        assertSame(analysis, universe.biconnectivity());
+        assertSame(analysis, universe.planetGraph().biconnectivity());
+        assertFalse(analysis.bridges().isEmpty());
+        for (Link bridge : analysis.bridges()) {
+            assertTrue(universe.connected(bridge.v1(), bridge.v2()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsBridgeOfMissingEdge() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+
+        g.biconnectivity().isBridge(v1, v2);
+    }
+}
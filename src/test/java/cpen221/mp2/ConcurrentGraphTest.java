@@ -0,0 +1,223 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.ConcurrentGraph;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.Vertex;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentGraphTest {
+
+    /**
+     * Apply the same random mutations to a Graph and a ConcurrentGraph and compare them.
+     */
+    @Test
+    public void testMatchesGraph() {
+        Random r = new Random(221);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+        }
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        ConcurrentGraph<Vertex, Edge<Vertex>> cg = new ConcurrentGraph<>();
+        g.addVertices(vertices);
+        assertTrue(cg.addVertices(vertices));
+
+        for (int step = 0; step < 600; step++) {
+            Vertex a = vertices.get(r.nextInt(vertices.size()));
+            Vertex b = vertices.get(r.nextInt(vertices.size()));
+
+            switch (r.nextInt(6)) {
+                case 0:
+                    assertEquals(g.remove(a), cg.remove(a));
+                    break;
+                case 1:
+                    assertEquals(g.addVertex(a), cg.addVertex(a));
+                    break;
+                case 2:
+                    if (a != b) {
+                        Edge<Vertex> e = new Edge<>(a, b);
+                        assertEquals(g.remove(e), cg.remove(e));
+                    }
+                    break;
+                default:
+                    if (a != b) {
+                        Edge<Vertex> f = new Edge<>(a, b, 1 + r.nextInt(20));
+                        assertEquals(g.addEdge(f), cg.addEdge(f));
+                    }
+            }
+
+            assertEquals(g.vertex(a), cg.vertex(a));
+            assertEquals(g.edge(a, b), cg.edge(a, b));
+            if (g.edge(a, b)) {
+                assertEquals(g.edgeLength(a, b), cg.edgeLength(a, b));
+                assertSame(g.getEdge(a, b), cg.getEdge(a, b));
+            }
+            if (g.vertex(a)) {
+                assertEquals(g.allEdges(a), cg.allEdges(a));
+                assertEquals(g.getNeighbours(a), cg.getNeighbours(a));
+                assertEquals(g.degree(a), cg.degree(a));
+            }
+            if (g.vertex(a) && g.vertex(b)) {
+                assertEquals(g.distance(a, b), cg.distance(a, b));
+            }
+        }
+
+        assertEquals(g.allVertices(), cg.allVertices());
+        assertEquals(g.allEdges(), cg.allEdges());
+        assertEquals(g.edgeLengthSum(), cg.edgeLengthSum());
+        assertEquals(g.minimumSpanningTree().size(), cg.minimumSpanningTree().size());
+        assertEquals(g.diameter(), cg.diameter());
+    }
+
+    @Test
+    public void testFreezeIsUnaffectedByLaterMutations() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Edge<Vertex> e = new Edge<>(v1, v2, 3);
+
+        ConcurrentGraph<Vertex, Edge<Vertex>> cg = new ConcurrentGraph<>();
+        cg.addVertex(v1);
+        cg.addVertex(v2);
+        cg.addEdge(e);
+
+        Set<Edge<Vertex>> edges = cg.allEdges();
+        assertSame(cg.freeze(), cg.freeze());
+        assertEquals(3, cg.freeze().distance(v1, v2));
+
+        assertTrue(cg.remove(e));
+        assertFalse(cg.remove(e));
+
+        assertEquals(Collections.singleton(e), edges);
+        assertEquals(Collections.emptySet(), cg.allEdges());
+        assertEquals(Integer.MAX_VALUE, cg.distance(v1, v2));
+        assertEquals(0, cg.edgeLengthSum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEdgeLengthException() {
+        ConcurrentGraph<Vertex, Edge<Vertex>> cg = new ConcurrentGraph<>();
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        cg.addVertex(v1);
+        cg.addVertex(v2);
+
+        cg.edgeLength(v1, v2);
+    }
+
+    /**
+     * One thread adds and removes two shortcuts on a path 0-1-...-9 while others search it.
+     * The writer cycles the graph through four states, each with its own shortest 0-9 path.
+     * A search must return the path of a state the graph was in at some moment during the
+     * search: no earlier than the last mutation that returned before the search was called,
+     * and no later than the last mutation that started before the search returned.
+     */
+    @Test
+    public void testMutationsAreLinearizableAgainstShortestPath() throws InterruptedException {
+        Vertex[] v = new Vertex[10];
+        ConcurrentGraph<Vertex, Edge<Vertex>> cg = new ConcurrentGraph<>();
+        for (int i = 0; i < v.length; i++) {
+            v[i] = new Vertex(i, "v" + i);
+            cg.addVertex(v[i]);
+        }
+        for (int i = 0; i + 1 < v.length; i++) {
+            cg.addEdge(new Edge<>(v[i], v[i + 1], 10));
+        }
+        Edge<Vertex> a = new Edge<>(v[0], v[5], 1);
+        Edge<Vertex> b = new Edge<>(v[5], v[9], 1);
+
+        List<List<Vertex>> paths = Arrays.asList(
+                Arrays.asList(v),
+                Arrays.asList(v[0], v[5], v[6], v[7], v[8], v[9]),
+                Arrays.asList(v[0], v[5], v[9]),
+                Arrays.asList(v[0], v[1], v[2], v[3], v[4], v[5], v[9]));
+        int[] distances = {90, 41, 2, 51};
+
+        int reads = 2000;
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+        Thread writer = new Thread(() -> {
+            for (int k = 0; !done.get(); k++) {
+                started.incrementAndGet();
+                boolean changed;
+                switch (k % 4) {
+                    case 0:
+                        changed = cg.addEdge(a);
+                        break;
+                    case 1:
+                        changed = cg.addEdge(b);
+                        break;
+                    case 2:
+                        changed = cg.remove(a);
+                        break;
+                    default:
+                        changed = cg.remove(b);
+                }
+                if (!changed) {
+                    failures.add("mutation " + k + " did not change the graph");
+                }
+                completed.incrementAndGet();
+                Thread.yield();
+            }
+        });
+
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            readers.add(new Thread(() -> {
+                for (int i = 0; i < reads && failures.isEmpty(); i++) {
+                    int lo = completed.get();
+                    List<Vertex> path = cg.shortestPath(v[0], v[9]);
+                    int hi = started.get();
+                    if (!seenBetween(lo, hi, k -> paths.get(k % 4).equals(path))) {
+                        failures.add("path " + path + " not seen in states " + lo + ".." + hi);
+                    }
+
+                    lo = completed.get();
+                    int distance = cg.distance(v[0], v[9]);
+                    hi = started.get();
+                    if (!seenBetween(lo, hi, k -> distances[k % 4] == distance)) {
+                        failures.add("distance " + distance + " not seen in states " + lo + ".." + hi);
+                    }
+                    Thread.yield();
+                }
+            }));
+        }
+
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        done.set(true);
+        writer.join();
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertEquals(paths.get(completed.get() % 4), cg.shortestPath(v[0], v[9]));
+    }
+
+    /**
+     * Check if the graph matches in one of the states lo..hi, where state k is the
+     * state after the first k mutations.
+     */
+    private static boolean seenBetween(int lo, int hi, java.util.function.IntPredicate matches) {
+        for (int k = lo; k <= hi; k++) {
+            if (matches.test(k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,594 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.AllPairsIndex;
+import cpen221.mp2.graph.ContractionHierarchy;
+import cpen221.mp2.graph.CsrGraph;
+import cpen221.mp2.graph.EccentricityEngine;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.ImGraph;
+import cpen221.mp2.graph.MstAlgorithm;
+import cpen221.mp2.graph.PathResult;
+import cpen221.mp2.graph.PriorityQueueStrategy;
+import cpen221.mp2.graph.ShortestPathTree;
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.models.Link;
+import cpen221.mp2.models.Planet;
+import cpen221.mp2.models.Universe;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CsrGraphTest {
+
+    private Vertex v0 = new Vertex(0,"0");
+    private Vertex v1 = new Vertex(1,"1");
+    private Vertex v2 = new Vertex(2,"2");
+    private Vertex v3 = new Vertex(3,"3");
+    private Vertex v4 = new Vertex(4,"4");
+    private Vertex v5 = new Vertex(5,"5");
+    private Vertex v6 = new Vertex(6,"6");
+    private Vertex v7 = new Vertex(7,"7");
+    private Vertex v8 = new Vertex(8,"8");
+
+    private Edge<Vertex> e1 = new Edge<>(v7,v6,1);
+    private Edge<Vertex> e2 = new Edge<>(v8,v2,2);
+    private Edge<Vertex> e3 = new Edge<>(v6,v5,2);
+    private Edge<Vertex> e4 = new Edge<>(v0,v1,4);
+    private Edge<Vertex> e5 = new Edge<>(v2,v5,4);
+    private Edge<Vertex> e6 = new Edge<>(v8,v6,6);
+    private Edge<Vertex> e7 = new Edge<>(v2,v3,7);
+    private Edge<Vertex> e8 = new Edge<>(v7,v8,7);
+    private Edge<Vertex> e9 = new Edge<>(v0,v7,8);
+    private Edge<Vertex> e10 = new Edge<>(v1,v2,8);
+    private Edge<Vertex> e11 = new Edge<>(v3,v4,9);
+    private Edge<Vertex> e12 = new Edge<>(v5,v4,10);
+    private Edge<Vertex> e13 = new Edge<>(v1,v7,11);
+    private Edge<Vertex> e14 = new Edge<>(v3,v5,14);
+
+    private Graph<Vertex, Edge<Vertex>> buildGraph() {
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        for (Vertex v : Arrays.asList(v0, v1, v2, v3, v4, v5, v6, v7, v8)) {
+            g.addVertex(v);
+        }
+        for (Edge<Vertex> e : Arrays.asList(e1, e2, e3, e4, e5, e6, e7, e8, e9, e10, e11, e12, e13, e14)) {
+            g.addEdge(e);
+        }
+
+        return g;
+    }
+
+    @Test
+    public void testFreezeCounts() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = buildGraph().freeze();
+
+        assertEquals(9, csr.vertexCount());
+        assertEquals(14, csr.edgeCount());
+        assertTrue(csr.vertex(v4));
+        assertFalse(csr.vertex(new Vertex(9, "9")));
+    }
+
+    @Test
+    public void testShortestPathMatchesGraph() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        for (Vertex source : g.allVertices()) {
+            for (Vertex sink : g.allVertices()) {
+                List<Vertex> path = csr.shortestPath(source, sink);
+                assertEquals(g.pathLength(g.shortestPath(source, sink)), csr.pathLength(path));
+                assertEquals(source, path.get(0));
+                assertEquals(sink, path.get(path.size() - 1));
+            }
+        }
+
+        assertEquals(Arrays.asList(v0, v1, v2, v8), csr.shortestPath(v0, v8));
+    }
+
+    @Test
+    public void testAStarMatchesDijkstra() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        for (Vertex sink : g.allVertices()) {
+            ShortestPathTree<Vertex> toSink = csr.shortestPathTree(sink);
+            for (Vertex source : g.allVertices()) {
+                int expected = toSink.distanceTo(source);
+
+                PathResult<Vertex> exact = csr.findPath(source, sink, toSink::distanceTo);
+                PathResult<Vertex> blind = csr.findPath(source, sink, v -> 0);
+                assertEquals(expected, exact.length());
+                assertEquals(expected, csr.pathLength(exact.path()));
+                assertEquals(expected, blind.length());
+                assertTrue(exact.expanded() <= blind.expanded());
+
+                //the exact distance for even ids and zero for odd ids is admissible but not consistent
+                List<Vertex> path = csr.shortestPath(source, sink, v -> v.id() % 2 == 0 ? toSink.distanceTo(v) : 0);
+                assertEquals(expected, csr.pathLength(path));
+                assertEquals(expected, g.pathLength(g.shortestPath(source, sink, toSink::distanceTo)));
+            }
+        }
+    }
+
+    @Test
+    public void testAStarOnUniverse() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build();
+        CsrGraph<Planet, Link> graph = (CsrGraph<Planet, Link>) universe.planetGraph();
+
+        PathResult<Planet> astar = universe.findPath(universe.earth(), universe.target());
+        PathResult<Planet> dijkstra = graph.findPath(universe.earth(), universe.target(), p -> 0);
+
+        assertEquals(universe.distanceToTarget(), astar.length());
+        assertEquals(universe.distanceToTarget(), graph.pathLength(universe.shortestPath(universe.earth(), universe.target())));
+        assertTrue(astar.expanded() <= dijkstra.expanded());
+    }
+
+    @Test
+    public void testBidirectionalMatchesDijkstra() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+        Map<Vertex, ShortestPathTree<Vertex>> trees = new HashMap<>();
+        for (Vertex v : g.allVertices()) {
+            trees.put(v, csr.shortestPathTree(v));
+        }
+
+        for (Vertex source : g.allVertices()) {
+            for (Vertex sink : g.allVertices()) {
+                int expected = trees.get(source).distanceTo(sink);
+
+                PathResult<Vertex> plain = csr.bidirectionalPath(source, sink);
+                assertEquals(expected, plain.length());
+                assertEquals(expected, csr.pathLength(plain.path()));
+                assertEquals(source, plain.path().get(0));
+                assertEquals(sink, plain.path().get(plain.path().size() - 1));
+
+                //the true distance is the tightest possible lower bound
+                PathResult<Vertex> guided = csr.bidirectionalPath(source, sink, (v, w) -> trees.get(v).distanceTo(w));
+                assertEquals(expected, guided.length());
+                assertEquals(expected, csr.pathLength(guided.path()));
+
+                assertEquals(expected, csr.distance(source, sink));
+                assertEquals(expected, g.distance(source, sink));
+                assertEquals(expected, g.distance(source, sink, (v, w) -> trees.get(v).distanceTo(w)));
+            }
+        }
+    }
+
+    @Test
+    public void testBidirectionalDisconnected() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        g.remove(e11);
+        g.remove(e12);
+        g.remove(e14);
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        assertEquals(Integer.MAX_VALUE, csr.distance(v0, v4));
+        assertEquals(Integer.MAX_VALUE, g.distance(v0, v4));
+        assertTrue(csr.bidirectionalPath(v4, v0).path().isEmpty());
+    }
+
+    @Test
+    public void testGraphDistanceOnTriangulation() {
+        Graph<Vertex, Edge<Vertex>> g = GraphBenchmark.delaunayGraph(300, 7);
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+        List<Vertex> vertices = new ArrayList<>(g.allVertices());
+        //by the triangle inequality, distances to a landmark differ by no more than the distance between two vertices
+        ShortestPathTree<Vertex> landmark = csr.shortestPathTree(vertices.get(0));
+
+        Random r = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            Vertex source = vertices.get(r.nextInt(vertices.size()));
+            Vertex sink = vertices.get(r.nextInt(vertices.size()));
+            int expected = csr.shortestPathTree(source).distanceTo(sink);
+
+            assertEquals(expected, g.distance(source, sink));
+            assertEquals(expected, g.distance(source, sink,
+                    (v, w) -> Math.abs(landmark.distanceTo(v) - landmark.distanceTo(w))));
+        }
+    }
+
+    @Test
+    public void testPathQueriesShareBuffers() {
+        Graph<Vertex, Edge<Vertex>> g = GraphBenchmark.delaunayGraph(300, 11);
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+        List<Vertex> vertices = new ArrayList<>(g.allVertices());
+        ShortestPathTree<Vertex> landmark = csr.shortestPathTree(vertices.get(0));
+
+        //every kind of query runs on the same buffers of this thread, which each must leave clean
+        Random r = new Random(11);
+        for (int i = 0; i < 100; i++) {
+            Vertex source = vertices.get(r.nextInt(vertices.size()));
+            Vertex sink = vertices.get(r.nextInt(vertices.size()));
+            ShortestPathTree<Vertex> tree = csr.shortestPathTree(source);
+            int expected = tree.distanceTo(sink);
+
+            assertEquals(tree.pathTo(sink), csr.shortestPath(source, sink));
+            assertEquals(expected, csr.bidirectionalPath(source, sink,
+                    (v, w) -> Math.abs(landmark.distanceTo(v) - landmark.distanceTo(w))).length());
+            assertEquals(expected, csr.findPath(source, sink, v -> Math.abs(
+                    landmark.distanceTo(v) - landmark.distanceTo(sink))).length());
+            assertEquals(expected, csr.distance(source, sink));
+        }
+    }
+
+    @Test
+    public void testBidirectionalOnUniverse() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(7)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build();
+        CsrGraph<Planet, Link> graph = (CsrGraph<Planet, Link>) universe.planetGraph();
+        List<Planet> planets = new ArrayList<>();
+        universe.planets().forEach(planets::add);
+
+        Random r = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            Planet source = planets.get(r.nextInt(planets.size()));
+            Planet sink = planets.get(r.nextInt(planets.size()));
+            int expected = graph.shortestPathTree(source).distanceTo(sink);
+
+            assertEquals(expected, graph.bidirectionalPath(source, sink).length());
+            PathResult<Planet> guided = graph.bidirectionalPath(source, sink, universe.distanceBound());
+            assertEquals(expected, guided.length());
+            assertEquals(expected, graph.pathLength(guided.path()));
+        }
+    }
+
+    @Test
+    public void testContractionHierarchy() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+        ContractionHierarchy<Vertex> ch = csr.contractionHierarchy();
+
+        assertSame(ch, csr.contractionHierarchy());
+        for (Vertex source : g.allVertices()) {
+            ShortestPathTree<Vertex> tree = csr.shortestPathTree(source);
+            for (Vertex sink : g.allVertices()) {
+                List<Vertex> path = ch.shortestPath(source, sink);
+                assertEquals(tree.distanceTo(sink), ch.distance(source, sink));
+                assertEquals(tree.distanceTo(sink), csr.pathLength(path));
+                assertEquals(source, path.get(0));
+                assertEquals(sink, path.get(path.size() - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testContractionHierarchyDisconnected() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        g.remove(e11);
+        g.remove(e12);
+        g.remove(e14);
+        ContractionHierarchy<Vertex> ch = g.contractionHierarchy();
+
+        assertEquals(Integer.MAX_VALUE, ch.distance(v0, v4));
+        assertTrue(ch.shortestPath(v4, v0).isEmpty());
+        assertEquals(0, ch.distance(v4, v4));
+    }
+
+    @Test
+    public void testContractionHierarchyOnUniverse() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(11)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build();
+        ImGraph<Planet, Link> graph = universe.planetGraph();
+        ContractionHierarchy<Planet> ch = graph.contractionHierarchy();
+        List<Planet> planets = new ArrayList<>();
+        universe.planets().forEach(planets::add);
+
+        Random r = new Random(11);
+        for (int i = 0; i < 20; i++) {
+            Planet source = planets.get(r.nextInt(planets.size()));
+            ShortestPathTree<Planet> tree = graph.shortestPathTree(source);
+            for (Planet sink : planets) {
+                assertEquals(tree.distanceTo(sink), ch.distance(source, sink));
+            }
+            Planet sink = planets.get(r.nextInt(planets.size()));
+            List<Planet> path = ch.shortestPath(source, sink);
+            for (int k = 1; k < path.size(); k++) {
+                assertNotNull(graph.getEdge(path.get(k - 1), path.get(k)));
+            }
+            assertEquals(tree.distanceTo(sink), graph.pathLength(path));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContractionHierarchyMissingVertex() {
+        buildGraph().contractionHierarchy().distance(v0, new Vertex(9, "9"));
+    }
+
+    @Test
+    public void testAllPairsIndexPools() {
+        Graph<Vertex, Edge<Vertex>> g = GraphBenchmark.delaunayGraph(300, 221);
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+        AllPairsIndex<Vertex> common = new AllPairsIndex<>(csr);
+        AllPairsIndex<Vertex> pooled = new AllPairsIndex<>(csr, AllPairsIndex.DEFAULT_MAX_BYTES, 4);
+        List<Vertex> vertices = new ArrayList<>(g.allVertices());
+
+        Random r = new Random(221);
+        for (int i = 0; i < 50; i++) {
+            Vertex source = vertices.get(r.nextInt(vertices.size()));
+            Vertex sink = vertices.get(r.nextInt(vertices.size()));
+            int expected = csr.distance(source, sink);
+
+            assertEquals(expected, common.distance(source, sink));
+            assertEquals(expected, pooled.distance(source, sink));
+        }
+        assertEquals(csr.diameter(), common.diameter());
+        assertEquals(csr.diameter(), pooled.diameter());
+    }
+
+    @Test
+    public void testAllPairsIndex() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        g.addVertex(new Vertex(9, "9"));
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+        AllPairsIndex<Vertex> table = new AllPairsIndex<>(csr, AllPairsIndex.DEFAULT_MAX_BYTES, 2);
+        AllPairsIndex<Vertex> onDemand = new AllPairsIndex<>(csr, 0, 1);
+
+        assertTrue(table.isPrecomputed());
+        assertFalse(onDemand.isPrecomputed());
+        for (Vertex source : g.allVertices()) {
+            ShortestPathTree<Vertex> tree = csr.shortestPathTree(source);
+            for (Vertex sink : g.allVertices()) {
+                assertEquals(tree.distanceTo(sink), table.distance(source, sink));
+                assertEquals(tree.distanceTo(sink), onDemand.distance(source, sink));
+
+                List<Vertex> path = table.shortestPath(source, sink);
+                if (tree.hasPathTo(sink)) {
+                    assertEquals(source, path.get(0));
+                    assertEquals(sink, path.get(path.size() - 1));
+                    assertEquals(tree.distanceTo(sink), csr.pathLength(path));
+                } else {
+                    assertTrue(path.isEmpty());
+                }
+            }
+        }
+        assertEquals(csr.diameter(), table.diameter());
+        assertEquals(csr.diameter(), onDemand.diameter());
+    }
+
+    @Test
+    public void testAllPairsIndexOnUniverse() {
+        Universe.UniverseBuilder builder = new Universe.UniverseBuilder().size(4096, 4096).seed(3)
+                .planetBounds(300, 300).spiceBounds(0, 5000);
+        Universe plain = builder.build();
+        Universe indexed = builder.allPairsDistances().build();
+        ImGraph<Planet, Link> graph = indexed.planetGraph();
+        List<Planet> planets = new ArrayList<>();
+        indexed.planets().forEach(planets::add);
+
+        assertEquals(plain.distanceToTarget(), indexed.distanceToTarget());
+        assertEquals(plain.links(), indexed.links());
+
+        Random r = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            Planet source = planets.get(r.nextInt(planets.size()));
+            Planet sink = planets.get(r.nextInt(planets.size()));
+            assertEquals(plain.distance(source, sink), indexed.distance(source, sink));
+            assertEquals(indexed.distance(source, sink), graph.pathLength(indexed.shortestPath(source, sink)));
+        }
+    }
+
+    @Test
+    public void testShortestPathTree() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        ShortestPathTree<Vertex> tree = g.freeze().shortestPathTree(v0);
+
+        assertEquals(v0, tree.source());
+        for (Vertex sink : g.allVertices()) {
+            assertTrue(tree.hasPathTo(sink));
+            assertEquals(g.pathLength(g.shortestPath(v0, sink)), tree.distanceTo(sink));
+            assertEquals(tree.distanceTo(sink), g.pathLength(tree.pathTo(sink)));
+        }
+        assertEquals(0, tree.distanceTo(v0));
+        assertEquals(Collections.singletonList(v0), tree.pathTo(v0));
+        assertEquals(Arrays.asList(v0, v1, v2, v8), tree.pathTo(v8));
+    }
+
+    @Test
+    public void testShortestPathTreeStrategies() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(5)
+                .planetBounds(300, 300).spiceBounds(0, 5000).build();
+        CsrGraph<Planet, Link> graph = (CsrGraph<Planet, Link>) universe.planetGraph();
+        ShortestPathTree<Planet> expected = graph.shortestPathTree(universe.earth());
+
+        for (PriorityQueueStrategy strategy : PriorityQueueStrategy.values()) {
+            ShortestPathTree<Planet> tree = graph.shortestPathTree(universe.earth(), strategy);
+            for (Planet planet : universe.planets()) {
+                assertEquals(expected.distanceTo(planet), tree.distanceTo(planet));
+                assertEquals(tree.distanceTo(planet), graph.pathLength(tree.pathTo(planet)));
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPathTreeReusesQueues() {
+        Universe.UniverseBuilder builder = new Universe.UniverseBuilder().size(4096, 4096).seed(5)
+                .planetBounds(300, 300).spiceBounds(0, 5000);
+        Universe universe = builder.build();
+        CsrGraph<Planet, Link> graph = (CsrGraph<Planet, Link>) universe.planetGraph();
+        List<Planet> planets = new ArrayList<Planet>();
+        universe.planets().forEach(planets::add);
+
+        for (PriorityQueueStrategy strategy : PriorityQueueStrategy.values()) {
+            for (int k = 0; k < 5; k++) {
+                Planet source = planets.get(37 * k % planets.size());
+                Planet sink = planets.get(91 * k % planets.size());
+
+                // the early exit leaves vertices in the queue, which the next search must not see
+                List<Planet> path = graph.shortestPath(source, sink);
+                ShortestPathTree<Planet> tree = graph.shortestPathTree(source, strategy);
+                // a graph built from the same seed that no earlier search has touched
+                CsrGraph<Planet, Link> twin = (CsrGraph<Planet, Link>) builder.build().planetGraph();
+                ShortestPathTree<Planet> fresh = twin.shortestPathTree(source, strategy);
+
+                assertEquals(tree.distanceTo(sink), graph.pathLength(path));
+                for (Planet planet : planets) {
+                    assertEquals(fresh.distanceTo(planet), tree.distanceTo(planet));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPathTreeDisconnected() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        g.remove(e11);
+        g.remove(e12);
+        g.remove(e14);
+        ShortestPathTree<Vertex> tree = g.shortestPathTree(v0);
+
+        assertFalse(tree.hasPathTo(v4));
+        assertEquals(Integer.MAX_VALUE, tree.distanceTo(v4));
+        assertEquals(new ArrayList<Vertex>(), tree.pathTo(v4));
+    }
+
+    @Test
+    public void testShortestPathDisconnected() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        g.remove(e11);
+        g.remove(e12);
+        g.remove(e14);
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        assertEquals(new ArrayList<Vertex>(), csr.shortestPath(v0, v4));
+    }
+
+    @Test
+    public void testDiameter() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+
+        assertEquals(g.diameter(), g.freeze().diameter());
+        assertEquals(Integer.MAX_VALUE, new Graph<Vertex, Edge<Vertex>>().freeze().diameter());
+    }
+
+    @Test
+    public void testEccentricitiesParallelMatchesSequential() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = buildGraph().freeze();
+        EccentricityEngine<Vertex> sequential = new EccentricityEngine<>(csr, 1);
+        EccentricityEngine<Vertex> parallel = new EccentricityEngine<>(csr, 4);
+
+        assertEquals(sequential.eccentricities(), parallel.eccentricities());
+        assertEquals(sequential.diameter(), parallel.diameter());
+        assertEquals(sequential.radius(), parallel.radius());
+        assertEquals(sequential.center(), parallel.center());
+    }
+
+    @Test
+    public void testEccentricitiesOnCommonPool() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = GraphBenchmark.delaunayGraph(300, 221).freeze();
+        EccentricityEngine<Vertex> sequential = new EccentricityEngine<>(csr, 1);
+        EccentricityEngine<Vertex> pooled = new EccentricityEngine<>(csr, 4);
+        EccentricityEngine<Vertex> common = new EccentricityEngine<>(csr);
+
+        assertEquals(sequential.eccentricities(), pooled.eccentricities());
+        assertEquals(sequential.eccentricities(), common.eccentricities());
+        assertEquals(sequential.diameter(), csr.diameter());
+        assertEquals(csr.diameter(), csr.diameter());
+    }
+
+    @Test
+    public void testRadiusAndCenter() {
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertices(Arrays.asList(v0, v1, v2, v3));
+        g.addEdge(new Edge<>(v0, v1, 3));
+        g.addEdge(new Edge<>(v1, v2, 1));
+        g.addEdge(new Edge<>(v2, v3, 3));
+
+        EccentricityEngine<Vertex> engine = new EccentricityEngine<>(g.freeze(), 2);
+
+        assertEquals(7, engine.diameter());
+        assertEquals(4, engine.radius());
+        assertEquals(new HashSet<>(Arrays.asList(v1, v2)), engine.center());
+        assertEquals(Integer.valueOf(7), engine.eccentricities().get(v3));
+    }
+
+    @Test
+    public void testSearch() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = buildGraph().freeze();
+
+        assertEquals(new HashSet<>(Arrays.asList(v1, v7)), csr.search(v0, 1));
+        assertEquals(new HashSet<>(Arrays.asList(v1, v2, v6, v7, v8)), csr.search(v0, 2));
+    }
+
+    @Test
+    public void testMinimumSpanningTree() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+
+        assertEquals(g.minimumSpanningTree(), g.freeze().minimumSpanningTree());
+    }
+
+    @Test
+    public void testMstAlgorithmsAgree() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = buildGraph().freeze();
+
+        for (MstAlgorithm algorithm : MstAlgorithm.values()) {
+            assertEquals(csr.minimumSpanningTree(MstAlgorithm.KRUSKAL), csr.minimumSpanningTree(algorithm));
+        }
+    }
+
+    @Test
+    public void testMinimumSpanningForest() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        g.remove(e11);
+        g.remove(e12);
+        g.remove(e14);
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        for (MstAlgorithm algorithm : MstAlgorithm.values()) {
+            List<Edge<Vertex>> forest = csr.minimumSpanningTree(algorithm);
+            assertEquals(7, forest.size());
+            assertFalse(forest.contains(e11));
+        }
+    }
+
+    @Test
+    public void testNeighbourCursor() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        for (Vertex v : g.allVertices()) {
+            Map<Vertex, Edge<Vertex>> visited = new HashMap<>();
+            csr.forEachNeighbour(v, visited::put);
+            assertEquals(g.getNeighbours(v), visited);
+
+            Map<Vertex, Edge<Vertex>> cursor = new HashMap<>();
+            for (int i = 0; i < csr.degree(v); i++) {
+                cursor.put(csr.neighbour(v, i), csr.incidentEdge(v, i));
+            }
+            assertEquals(visited, cursor);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNeighbourCursorOutOfRange() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = buildGraph().freeze();
+
+        csr.neighbour(v4, csr.degree(v4));
+    }
+
+    @Test
+    public void testGetEdge() {
+        CsrGraph<Vertex, Edge<Vertex>> csr = buildGraph().freeze();
+
+        assertEquals(e13, csr.getEdge(v7, v1));
+        assertEquals(11, csr.getEdge(v1, v7).length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetEdgeException() {
+        buildGraph().freeze().getEdge(v0, v4);
+    }
+
+    @Test
+    public void testFreezeIsSnapshot() {
+        Graph<Vertex, Edge<Vertex>> g = buildGraph();
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        g.remove(e9);
+
+        assertEquals(e9, csr.getEdge(v0, v7));
+    }
+}
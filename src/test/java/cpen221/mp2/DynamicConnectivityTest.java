@@ -0,0 +1,141 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.DynamicConnectivity;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.ShortestPathTree;
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.models.Planet;
+import cpen221.mp2.models.Universe;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DynamicConnectivityTest {
+
+    /**
+     * Label each vertex of g with its connected component, by breadth-first search.
+     */
+    private static Map<Vertex, Integer> components(Graph<Vertex, Edge<Vertex>> g) {
+        Map<Vertex, Integer> component = new HashMap<>();
+        int label = 0;
+
+        for (Vertex start : g.allVertices()) {
+            if (component.containsKey(start)) {
+                continue;
+            }
+            Deque<Vertex> queue = new ArrayDeque<>();
+            component.put(start, label);
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                for (Vertex w : g.getNeighbours(queue.poll()).keySet()) {
+                    if (component.putIfAbsent(w, label) == null) {
+                        queue.add(w);
+                    }
+                }
+            }
+            label++;
+        }
+
+        return component;
+    }
+
+    /**
+     * Add and remove random edges among 40 vertices, which keeps the graph near the point
+     * where it falls apart, and compare every answer with a search from scratch.
+     */
+    @Test
+    public void testMatchesSearch() {
+        Random r = new Random(221);
+        List<Vertex> vertices = new ArrayList<>();
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        for (int i = 0; i < 40; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+        }
+        g.addVertices(vertices);
+
+        DynamicConnectivity<Vertex, Edge<Vertex>> connectivity = new DynamicConnectivity<>(g);
+        List<Edge<Vertex>> edges = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            int op = r.nextInt(4);
+            if (op <= 1 || edges.isEmpty()) {
+                Vertex a = vertices.get(r.nextInt(vertices.size()));
+                Vertex b = vertices.get(r.nextInt(vertices.size()));
+                if (a != b) {
+                    Edge<Vertex> e = new Edge<>(a, b, 1);
+                    boolean absent = !g.edge(e);
+                    assertEquals(absent, connectivity.addEdge(e));
+                    if (absent) {
+                        edges.add(e);
+                    }
+                }
+            } else if (op == 2) {
+                Edge<Vertex> e = edges.remove(r.nextInt(edges.size()));
+                assertTrue(connectivity.remove(e));
+                assertFalse(connectivity.remove(e));
+                assertFalse(g.edge(e));
+            } else {
+                Edge<Vertex> e = edges.get(r.nextInt(edges.size()));
+                g.remove(e);
+                boolean bridge = !components(g).get(e.v1()).equals(components(g).get(e.v2()));
+                g.addEdge(e);
+
+                assertEquals(bridge, connectivity.isBridge(e));
+                assertTrue(g.edge(e));
+                assertEquals(!bridge, connectivity.removeIfNotBridge(e));
+                assertEquals(bridge, g.edge(e));
+                if (!bridge) {
+                    edges.remove(e);
+                }
+            }
+
+            Map<Vertex, Integer> component = components(g);
+            assertEquals(new HashSet<>(component.values()).size(), connectivity.componentCount());
+            for (int k = 0; k < 5; k++) {
+                Vertex a = vertices.get(r.nextInt(vertices.size()));
+                Vertex b = vertices.get(r.nextInt(vertices.size()));
+                assertEquals(component.get(a).equals(component.get(b)), connectivity.connected(a, b));
+            }
+        }
+    }
+
+    @Test
+    public void testPruneToEdgeCount() {
+        Graph<Vertex, Edge<Vertex>> g = GraphBenchmark.delaunayGraph(500, 221);
+        int n = g.allVertices().size();
+
+        g.pruneRandomEdges(new Random(1), 2 * n);
+        assertEquals(2 * n, g.allEdges().size());
+        assertEquals(1, new HashSet<>(components(g).values()).size());
+
+        g.pruneRandomEdges(new Random(1), 0);
+        assertEquals(n - 1, g.allEdges().size());
+        assertEquals(1, new HashSet<>(components(g).values()).size());
+    }
+
+    @Test
+    public void testUniverseEdgeDensity() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                .planetBounds(200, 200).spiceBounds(0, 5000).edgeDensity(1.25).build();
+
+        assertEquals(250, universe.links().size());
+        ShortestPathTree<Planet> tree = universe.planetGraph().shortestPathTree(universe.earth());
+        for (Planet p : universe.planets()) {
+            assertTrue(tree.hasPathTo(p));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsBridgeOfMissingEdge() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertex(v1);
+        g.addVertex(v2);
+
+        new DynamicConnectivity<>(g).isBridge(new Edge<>(v1, v2));
+    }
+}
@@ -0,0 +1,100 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.DynamicShortestPathTree;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.ShortestPathTree;
+import cpen221.mp2.graph.Vertex;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DynamicShortestPathTreeTest {
+
+    /**
+     * Remove and add random edges of a triangulation through the tree, and after each
+     * change compare every distance with a search from scratch and check every path.
+     */
+    @Test
+    public void testMatchesRecomputation() {
+        Graph<Vertex, Edge<Vertex>> g = GraphBenchmark.delaunayGraph(200, 221);
+        List<Vertex> vertices = new ArrayList<>(g.allVertices());
+        List<Edge<Vertex>> present = new ArrayList<>(g.allEdges());
+        List<Edge<Vertex>> removed = new ArrayList<>();
+        Vertex source = vertices.get(0);
+        DynamicShortestPathTree<Vertex, Edge<Vertex>> tree = new DynamicShortestPathTree<>(g, source);
+        Random r = new Random(221);
+
+        for (int step = 0; step < 300; step++) {
+            if (removed.isEmpty() || present.size() > 300 && r.nextInt(3) != 0) {
+                Edge<Vertex> e = present.remove(r.nextInt(present.size()));
+                assertTrue(tree.remove(e));
+                assertFalse(tree.remove(e));
+                removed.add(e);
+            } else {
+                Edge<Vertex> e = removed.remove(r.nextInt(removed.size()));
+                assertTrue(tree.addEdge(e));
+                assertFalse(tree.addEdge(e));
+                present.add(e);
+            }
+
+            ShortestPathTree<Vertex> expected = g.shortestPathTree(source);
+            for (Vertex v : vertices) {
+                assertEquals(expected.distanceTo(v), tree.distanceTo(v));
+                assertEquals(expected.hasPathTo(v), tree.hasPathTo(v));
+
+                List<Vertex> path = tree.pathTo(v);
+                if (tree.hasPathTo(v)) {
+                    assertEquals(source, path.get(0));
+                    assertEquals(v, path.get(path.size() - 1));
+                    assertEquals(tree.distanceTo(v), g.pathLength(path));
+                } else {
+                    assertTrue(path.isEmpty());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDisconnectAndReconnect() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 2);
+        Edge<Vertex> e2 = new Edge<>(v2, v3, 3);
+        Edge<Vertex> e3 = new Edge<>(v1, v3, 9);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertices(Arrays.asList(v1, v2, v3));
+        g.addEdges(Arrays.asList(e1, e2, e3));
+
+        DynamicShortestPathTree<Vertex, Edge<Vertex>> tree = new DynamicShortestPathTree<>(g, v1);
+        assertEquals(Arrays.asList(v1, v2, v3), tree.pathTo(v3));
+
+        assertTrue(tree.remove(e2));
+        assertEquals(Arrays.asList(v1, v3), tree.pathTo(v3));
+        assertEquals(9, tree.distanceTo(v3));
+
+        assertTrue(tree.remove(e3));
+        assertFalse(tree.hasPathTo(v3));
+        assertEquals(Integer.MAX_VALUE, tree.distanceTo(v3));
+        assertEquals(Collections.emptyList(), tree.pathTo(v3));
+
+        g.addVertex(v4);
+        assertFalse(tree.hasPathTo(v4));
+        assertTrue(tree.addEdge(new Edge<>(v3, v4, 1)));
+        assertFalse(tree.hasPathTo(v4));
+        assertTrue(tree.addEdge(e2));
+        assertEquals(Arrays.asList(v1, v2, v3, v4), tree.pathTo(v4));
+        assertEquals(6, tree.distanceTo(v4));
+        assertEquals(Collections.singletonList(v1), tree.pathTo(v1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSourceNotInGraph() {
+        new DynamicShortestPathTree<>(new Graph<Vertex, Edge<Vertex>>(), new Vertex(1, "A"));
+    }
+}
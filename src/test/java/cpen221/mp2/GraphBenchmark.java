@@ -0,0 +1,457 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.ContractionHierarchy;
+import cpen221.mp2.graph.CsrGraph;
+import cpen221.mp2.graph.DynamicShortestPathTree;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.Graph;
+import cpen221.mp2.graph.MstAlgorithm;
+import cpen221.mp2.graph.OffHeapGraph;
+import cpen221.mp2.graph.PriorityQueueStrategy;
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.initialization.DelaunayTriangulation;
+import cpen221.mp2.initialization.UEdge;
+import cpen221.mp2.models.Link;
+import cpen221.mp2.models.Planet;
+import cpen221.mp2.models.Universe;
+import cpen221.mp2.util.Util;
+
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Micro-benchmarks for the graph algorithms, run on Delaunay triangulations
+ * like the ones Universe generates. This is not a JUnit test; run its main
+ * method with the names of the benchmarks to run (or none to run them all).
+ * <p>
+ * Each measurement is preceded by untimed warm-up runs and reports the mean
+ * time per operation.
+ */
+public class GraphBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+    private static final int[] SIZES = {750, 5000, 50000};
+
+    public static void main(String[] args) {
+        Set<String> selected = new HashSet<>(Arrays.asList(args));
+
+        if (selected.isEmpty() || selected.contains("mst")) {
+            mst();
+        }
+        if (selected.isEmpty() || selected.contains("universe")) {
+            universe();
+        }
+        if (selected.isEmpty() || selected.contains("astar")) {
+            astar();
+        }
+        if (selected.isEmpty() || selected.contains("bidirectional")) {
+            bidirectional();
+        }
+        if (selected.isEmpty() || selected.contains("ch")) {
+            contractionHierarchy();
+        }
+        if (selected.isEmpty() || selected.contains("queues")) {
+            queues();
+        }
+        if (selected.isEmpty() || selected.contains("lookup")) {
+            lookup();
+        }
+        if (selected.isEmpty() || selected.contains("offheap")) {
+            offHeap();
+        }
+        if (selected.isEmpty() || selected.contains("dynamic")) {
+            dynamic();
+        }
+    }
+
+    /**
+     * Compare the spanning tree algorithms.
+     */
+    private static void mst() {
+        for (int n : SIZES) {
+            CsrGraph<Vertex, Edge<Vertex>> g = delaunayGraph(n, 42).freeze();
+            for (MstAlgorithm algorithm : MstAlgorithm.values()) {
+                time("mst " + algorithm + " n=" + n, () -> g.minimumSpanningTree(algorithm));
+            }
+        }
+    }
+
+    /**
+     * Time universe generation, which is dominated by pruneRandomEdges,
+     * and pruning on its own for larger triangulations.
+     */
+    private static void universe() {
+        long[] seed = {0};
+        time("universe build", () -> new Universe.UniverseBuilder().size(4096, 4096).seed(seed[0]++)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build());
+
+        for (int n : new int[]{750, 5000}) {
+            time("build and prune n=" + n, () -> delaunayGraph(n, 42).pruneRandomEdges(new Random(42)));
+        }
+    }
+
+    /**
+     * Compare A* with the straight-line heuristic against Dijkstra's algorithm
+     * on random planet pairs of 4096 x 4096 universes, by mean expanded planets
+     * and time per batch of queries.
+     */
+    private static void astar() {
+        // universes cannot hold more planets than there are planet names
+        for (int n : new int[]{200, 750}) {
+            Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                    .planetBounds(n, n).spiceBounds(0, 5000).build();
+            CsrGraph<Planet, Link> graph = (CsrGraph<Planet, Link>) universe.planetGraph();
+            List<Planet> planets = new ArrayList<>();
+            universe.planets().forEach(planets::add);
+            planets.sort(Comparator.comparingInt(Planet::id));
+
+            Random r = new Random(42);
+            int queries = 200;
+            Planet[] sources = new Planet[queries];
+            Planet[] sinks = new Planet[queries];
+            long dijkstraExpanded = 0;
+            long astarExpanded = 0;
+            for (int i = 0; i < queries; i++) {
+                sources[i] = planets.get(r.nextInt(planets.size()));
+                sinks[i] = planets.get(r.nextInt(planets.size()));
+                dijkstraExpanded += graph.findPath(sources[i], sinks[i], p -> 0).expanded();
+                astarExpanded += universe.findPath(sources[i], sinks[i]).expanded();
+            }
+            System.out.printf("expanded n=%d: dijkstra %.1f, astar %.1f%n",
+                    n, (double) dijkstraExpanded / queries, (double) astarExpanded / queries);
+
+            time("dijkstra x" + queries + " n=" + n, () -> {
+                for (int i = 0; i < queries; i++) {
+                    graph.findPath(sources[i], sinks[i], p -> 0);
+                }
+            });
+            time("astar x" + queries + " n=" + n, () -> {
+                for (int i = 0; i < queries; i++) {
+                    universe.findPath(sources[i], sinks[i]);
+                }
+            });
+        }
+    }
+
+    /**
+     * Compare point-to-point distance queries on the largest universes the game
+     * generates: the map-based Graph search, a single-source tree on the frozen
+     * graph, and bidirectional Dijkstra with and without the A* potential.
+     */
+    private static void bidirectional() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build();
+        CsrGraph<Planet, Link> graph = (CsrGraph<Planet, Link>) universe.planetGraph();
+        List<Planet> planets = new ArrayList<>();
+        universe.planets().forEach(planets::add);
+        planets.sort(Comparator.comparingInt(Planet::id));
+
+        Graph<Planet, Link> mutable = new Graph<>();
+        mutable.addVertices(planets);
+        mutable.addEdges(new ArrayList<>(universe.links()));
+
+        Random r = new Random(42);
+        int queries = 200;
+        Planet[] sources = new Planet[queries];
+        Planet[] sinks = new Planet[queries];
+        long dijkstraExpanded = 0;
+        long plainExpanded = 0;
+        long guidedExpanded = 0;
+        for (int i = 0; i < queries; i++) {
+            sources[i] = planets.get(r.nextInt(planets.size()));
+            sinks[i] = planets.get(r.nextInt(planets.size()));
+            dijkstraExpanded += graph.findPath(sources[i], sinks[i], p -> 0).expanded();
+            plainExpanded += graph.bidirectionalPath(sources[i], sinks[i]).expanded();
+            guidedExpanded += graph.bidirectionalPath(sources[i], sinks[i], universe.distanceBound()).expanded();
+        }
+        System.out.printf("expanded n=750: dijkstra %.1f, bidirectional %.1f, bidirectional astar %.1f%n",
+                (double) dijkstraExpanded / queries, (double) plainExpanded / queries,
+                (double) guidedExpanded / queries);
+
+        time("Graph.distance x" + queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                mutable.distance(sources[i], sinks[i]);
+            }
+        });
+        time("shortestPathTree x" + queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                graph.shortestPathTree(sources[i]).distanceTo(sinks[i]);
+            }
+        });
+        time("bidirectional x" + queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                graph.distance(sources[i], sinks[i]);
+            }
+        });
+        time("bidirectional astar x" + queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                graph.distance(sources[i], sinks[i], universe.distanceBound());
+            }
+        });
+    }
+
+    /**
+     * Weigh the one-off cost of building a contraction hierarchy against its queries,
+     * compared with bidirectional Dijkstra on the same pairs. Universes cannot hold
+     * 50000 planets, so the larger graph is a plain triangulation of the same map.
+     */
+    private static void contractionHierarchy() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build();
+        List<Planet> planets = new ArrayList<>();
+        universe.planets().forEach(planets::add);
+        planets.sort(Comparator.comparingInt(Planet::id));
+        compareWithHierarchy("n=750", (CsrGraph<Planet, Link>) universe.planetGraph(), planets);
+
+        Graph<Vertex, Edge<Vertex>> triangulation = delaunayGraph(50000, 42);
+        List<Vertex> vertices = new ArrayList<>(triangulation.allVertices());
+        vertices.sort(Comparator.comparingInt(Vertex::id));
+        compareWithHierarchy("n=50000", triangulation.freeze(), vertices);
+    }
+
+    /**
+     * Time building the hierarchy of graph once, then 200 random distance queries
+     * answered by the hierarchy and by bidirectional Dijkstra.
+     */
+    private static <V extends Vertex> void compareWithHierarchy(String label, CsrGraph<V, ?> graph, List<V> vertices) {
+        long start = System.nanoTime();
+        ContractionHierarchy<V> hierarchy = graph.contractionHierarchy();
+        System.out.printf("%-40s %10.3f ms (%d shortcuts for %d edges)%n", "ch preprocessing " + label,
+                (System.nanoTime() - start) / 1e6, hierarchy.shortcutCount(), graph.edgeCount());
+
+        Random r = new Random(42);
+        int queries = 200;
+        List<V> sources = new ArrayList<>();
+        List<V> sinks = new ArrayList<>();
+        for (int i = 0; i < queries; i++) {
+            sources.add(vertices.get(r.nextInt(vertices.size())));
+            sinks.add(vertices.get(r.nextInt(vertices.size())));
+        }
+
+        time("ch x" + queries + " " + label, () -> {
+            for (int i = 0; i < queries; i++) {
+                hierarchy.distance(sources.get(i), sinks.get(i));
+            }
+        });
+        time("bidirectional x" + queries + " " + label, () -> {
+            for (int i = 0; i < queries; i++) {
+                graph.distance(sources.get(i), sinks.get(i));
+            }
+        });
+    }
+
+    /**
+     * Compare the priority queues of Dijkstra's algorithm by the time to build full
+     * shortest path trees, on a 750-planet universe and on larger triangulations.
+     */
+    private static void queues() {
+        Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+                .planetBounds(750, 750).spiceBounds(0, 5000).build();
+        List<Planet> planets = new ArrayList<>();
+        universe.planets().forEach(planets::add);
+        planets.sort(Comparator.comparingInt(Planet::id));
+        compareQueues("n=750", (CsrGraph<Planet, Link>) universe.planetGraph(), planets);
+
+        for (int n : new int[]{5000, 50000}) {
+            Graph<Vertex, Edge<Vertex>> triangulation = delaunayGraph(n, 42);
+            List<Vertex> vertices = new ArrayList<>(triangulation.allVertices());
+            vertices.sort(Comparator.comparingInt(Vertex::id));
+            compareQueues("n=" + n, triangulation.freeze(), vertices);
+        }
+    }
+
+    /**
+     * Time 10 shortest path trees from random sources of graph with each strategy.
+     */
+    private static <V extends Vertex> void compareQueues(String label, CsrGraph<V, ?> graph, List<V> vertices) {
+        Random r = new Random(42);
+        List<V> sources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sources.add(vertices.get(r.nextInt(vertices.size())));
+        }
+
+        for (PriorityQueueStrategy strategy : PriorityQueueStrategy.values()) {
+            time("sssp x10 " + strategy + " " + label, () -> {
+                for (V source : sources) {
+                    graph.shortestPathTree(source, strategy);
+                }
+            });
+        }
+    }
+
+    /**
+     * Time edge lookups by endpoints, which hash and compare vertices on every call:
+     * each edge of a triangulation is found once in each direction and its length read.
+     */
+    private static void lookup() {
+        for (int n : SIZES) {
+            Graph<Vertex, Edge<Vertex>> g = delaunayGraph(n, 42);
+            List<Edge<Vertex>> edges = new ArrayList<>(g.allEdges());
+
+            time("edge lookups x" + 2 * edges.size() + " n=" + n, () -> {
+                long sum = 0;
+                for (Edge<Vertex> e : edges) {
+                    if (g.edge(e.v2(), e.v1())) {
+                        sum += g.edgeLength(e.v1(), e.v2());
+                    }
+                }
+                if (sum == 0) {
+                    throw new AssertionError();
+                }
+            });
+        }
+    }
+
+    /**
+     * Build a grid with about ten million edges off the heap, without creating vertex or
+     * edge objects, and time one corner-to-corner path and one spanning tree on it,
+     * with the heap in use afterwards and the time spent in garbage collection.
+     */
+    private static void offHeap() {
+        int side = 2237;
+        Random r = new Random(42);
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+
+        OffHeapGraph.Builder<Vertex, Edge<Vertex>> builder = new OffHeapGraph.Builder<>(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int id = row * side + col;
+                if (col + 1 < side) {
+                    builder.addEdge(id, id + 1, 1 + r.nextInt(100));
+                }
+                if (row + 1 < side) {
+                    builder.addEdge(id, id + side, 1 + r.nextInt(100));
+                }
+            }
+        }
+        OffHeapGraph<Vertex, Edge<Vertex>> g = builder.build(id -> new Vertex(id, "v"), Edge::new);
+        report("offheap build", start, g.vertexCount() + " vertices, " + g.edgeCount() + " edges");
+
+        Vertex corner = new Vertex(0, "v");
+        Vertex opposite = new Vertex(side * side - 1, "v");
+        start = System.nanoTime();
+        List<Vertex> path = g.shortestPath(corner, opposite);
+        report("offheap shortest path", start, path.size() + " vertices long");
+
+        start = System.nanoTime();
+        List<Edge<Vertex>> tree = g.minimumSpanningTree();
+        report("offheap spanning tree", start, tree.size() + " edges");
+        tree = null;
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%-40s %10d MB heap in use, %d ms in gc%n", "offheap memory",
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20, gcMillis() - gcBefore);
+    }
+
+    /**
+     * Compare keeping a shortest path tree up to date through batches of 1, 10 and 100
+     * edge removals, each followed by putting the edges back, with recomputing the tree
+     * after each batch.
+     */
+    private static void dynamic() {
+        for (int n : new int[]{5000, 50000}) {
+            Graph<Vertex, Edge<Vertex>> g = delaunayGraph(n, 42);
+            List<Edge<Vertex>> edges = new ArrayList<>(g.allEdges());
+            DynamicShortestPathTree<Vertex, Edge<Vertex>> tree =
+                    new DynamicShortestPathTree<>(g, edges.get(0).v1());
+            Random r = new Random(42);
+
+            for (int batch : new int[]{1, 10, 100}) {
+                List<Edge<Vertex>> chosen = new ArrayList<>();
+                time("dynamic incremental x" + batch + " n=" + n, () -> {
+                    chosen.clear();
+                    for (int i = 0; i < batch; i++) {
+                        chosen.add(edges.get(r.nextInt(edges.size())));
+                    }
+                    for (Edge<Vertex> e : chosen) {
+                        tree.remove(e);
+                    }
+                    for (Edge<Vertex> e : chosen) {
+                        tree.addEdge(e);
+                    }
+                });
+                time("dynamic recompute x" + batch + " n=" + n, () -> {
+                    chosen.clear();
+                    for (int i = 0; i < batch; i++) {
+                        chosen.add(edges.get(r.nextInt(edges.size())));
+                    }
+                    for (Edge<Vertex> e : chosen) {
+                        g.remove(e);
+                    }
+                    tree.recompute();
+                    for (Edge<Vertex> e : chosen) {
+                        g.addEdge(e);
+                    }
+                    tree.recompute();
+                });
+            }
+        }
+    }
+
+    /**
+     * Print the time since start, in ms, with a note.
+     */
+    private static void report(String label, long start, String note) {
+        System.out.printf("%-40s %10.3f ms (%s)%n", label, (System.nanoTime() - start) / 1e6, note);
+    }
+
+    /**
+     * Return the total time every garbage collector has spent collecting so far.
+     */
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Build a Delaunay triangulation of n random points on a 4096 x 4096 map,
+     * with edge lengths equal to the rounded Euclidean distance.
+     */
+    static Graph<Vertex, Edge<Vertex>> delaunayGraph(int n, long seed) {
+        Random r = new Random(seed);
+        DelaunayTriangulation dt = new DelaunayTriangulation(n, r, 4096, 4096);
+        Map<Point, Vertex> vertices = new HashMap<>();
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        int id = 0;
+        for (Point p : dt.getVertices()) {
+            Vertex v = new Vertex(id, "v" + id);
+            id++;
+            vertices.put(p, v);
+        }
+        g.addVertices(vertices.values());
+
+        List<Edge<Vertex>> edges = new ArrayList<>();
+        for (UEdge ue : dt.getEdges()) {
+            double d = Util.distance(ue.p1().x, ue.p1().y, ue.p2().x, ue.p2().y);
+            edges.add(new Edge<>(vertices.get(ue.p1()), vertices.get(ue.p2()), Math.max(1, (int) d)));
+        }
+        g.addEdges(edges);
+
+        return g;
+    }
+
+    /**
+     * Print the mean time of one run of op, after warming it up.
+     */
+    static void time(String label, Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            op.run();
+        }
+        double ms = (System.nanoTime() - start) / 1e6 / RUNS;
+        System.out.printf("%-40s %10.3f ms/op%n", label, ms);
+    }
+}
@@ -1,5 +1,6 @@
 package cpen221.mp2;
 
+import cpen221.mp2.graph.CsrGraph;
 import cpen221.mp2.graph.Edge;
 import cpen221.mp2.graph.Graph;
 import cpen221.mp2.graph.Vertex;
@@ -48,6 +49,48 @@ public class GraphTest {
         assertTrue(!g.addVertex(v4));
     }
 
+    @Test
+    public void testAddVertices() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(-1, "Z");
+        Vertex v3 = new Vertex(4, "C");
+        Vertex v4 = new Vertex(4, "F");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        assertTrue(g.addVertices(Arrays.asList(v1, v2, v3, v4)));
+        assertEquals(new HashSet<>(Arrays.asList(v1, v2, v3)), g.allVertices());
+
+        //failure when every vertex is already present
+        assertTrue(!g.addVertices(Arrays.asList(v1, v4)));
+
+        g.remove(v3);
+        assertTrue(!g.vertex(v4));
+        assertTrue(g.addVertex(v4));
+    }
+
+    @Test
+    public void testAddEdges() {
+        Vertex v1 = new Vertex(1,"A");
+        Vertex v2 = new Vertex(2,"B");
+        Vertex v3 = new Vertex(3,"C");
+        Edge<Vertex> e1 = new Edge<>(v1,v2,5);
+        Edge<Vertex> e2 = new Edge<>(v2,v3,6);
+        Edge<Vertex> e3 = new Edge<>(v1,v3,7);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertices(Arrays.asList(v1, v2));
+
+        assertTrue(g.addEdges(Arrays.asList(e1, e2)));
+        assertTrue(g.edge(e1));
+        assertTrue(g.edge(v2, v1));
+
+        g.addVertex(v3);
+        assertTrue(g.addEdges(Arrays.asList(e1, e2, e3)));
+        assertEquals(18, g.edgeLengthSum());
+    }
+
     @Test
     public void testCheckEdgeFalse() {
         Vertex v1 = new Vertex(1, "A");
@@ -172,6 +215,40 @@ public class GraphTest {
         assertTrue(g.remove(v1));
     }
 
+    @Test
+    public void testRemoveConnectedVertex() {
+        Vertex v1 = new Vertex(1,"A");
+        Vertex v2 = new Vertex(2,"B");
+        Vertex v3 = new Vertex(3,"C");
+        Vertex v4 = new Vertex(4,"D");
+
+        Edge<Vertex> e1 = new Edge<>(v1,v2,5);
+        Edge<Vertex> e2 = new Edge<>(v2,v3,12);
+        Edge<Vertex> e3 = new Edge<>(v1,v4,25);
+        Edge<Vertex> e4 = new Edge<>(v3,v4,3);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+        g.addEdge(e4);
+
+        assertTrue(g.remove(v1));
+        assertFalse(g.vertex(v1));
+        assertFalse(g.edge(e1));
+        assertFalse(g.edge(e3));
+        assertEquals(new HashSet<>(Arrays.asList(e2, e4)), g.allEdges());
+        assertEquals(Collections.singleton(e2), g.allEdges(v2));
+        assertEquals(1, g.degree(v4));
+        assertEquals(e4, g.incidentEdge(v4, 0));
+        assertTrue(g.allEdges(v1).isEmpty());
+    }
+
     @Test
     public void testRemoveVertexFail() {
         Vertex v1 = new Vertex(1,"A");
@@ -279,6 +356,131 @@ public class GraphTest {
         assertEquals(edgeSet, g.allEdges());
     }
 
+    @Test
+    public void testAllVerticesAndEdgesViews() {
+        Vertex v1 = new Vertex(1,"A");
+        Vertex v2 = new Vertex(2,"B");
+        Vertex v3 = new Vertex(3,"C");
+
+        Edge<Vertex> e1 = new Edge<>(v1,v2,5);
+        Edge<Vertex> e2 = new Edge<>(v2,v3,12);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addEdge(e1);
+
+        Set<Vertex> vertices = g.allVertices();
+        Set<Edge<Vertex>> edges = g.allEdges();
+        Set<Edge<Vertex>> incident = g.allEdges(v2);
+
+        assertSame(vertices, g.allVertices());
+        assertSame(edges, g.allEdges());
+        assertSame(incident, g.allEdges(v2));
+        assertTrue(vertices.contains(new Vertex(1,"A")));
+        assertFalse(vertices.contains(new Vertex(1,"Z")));
+        assertTrue(edges.contains(new Edge<>(v2,v1)));
+        assertFalse(edges.contains(new Edge<>(v1,v3)));
+        assertTrue(incident.contains(new Edge<>(v2,v1)));
+        assertFalse(g.allEdges(v3).contains(e1));
+
+        g.addVertex(v3);
+        g.addEdge(e2);
+        g.remove(v1);
+
+        assertEquals(new HashSet<>(Arrays.asList(v2, v3)), vertices);
+        assertEquals(Collections.singleton(e2), edges);
+        assertEquals(Collections.singleton(e2), incident);
+        assertFalse(vertices.contains(v1));
+        assertFalse(edges.contains(e1));
+        assertTrue(edges.contains(e2));
+        assertTrue(g.allEdges(v1).isEmpty());
+
+        Iterator<Vertex> it = vertices.iterator();
+        it.next();
+        g.remove(e2);
+        try {
+            it.hasNext();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+        assertTrue(incident.isEmpty());
+    }
+
+    /**
+     * allVertices and allEdges(v) iterate in the order of the HashSets Graph used to copy
+     * out of a HashMap of vertices and a HashMap of edges keyed by Pair, which seeded
+     * universes depend on.
+     */
+    @Test
+    public void testViewsKeepCopyOrder() {
+        Random r = new Random(221);
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        Map<Vertex, Boolean> vertexTable = new HashMap<>();
+        Map<Pair<Vertex>, Edge<Vertex>> edgeTable = new HashMap<>();
+        List<Vertex> vertices = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            g.addVertex(v);
+            vertexTable.put(v, true);
+            assertEquals(new ArrayList<>(new HashSet<>(vertexTable.keySet())), new ArrayList<>(g.allVertices()));
+        }
+
+        for (int step = 0; step < 3000; step++) {
+            Vertex a = vertices.get(r.nextInt(vertices.size()));
+            Vertex b = vertices.get(r.nextInt(vertices.size()));
+            Edge<Vertex> e = a.equals(b) ? null : new Edge<>(a, b, 1 + r.nextInt(50));
+
+            if (step % 500 == 499) {
+                g.remove(a);
+                vertexTable.remove(a);
+                vertices.remove(a);
+                edgeTable.values().removeIf(x -> x.v1().equals(a) || x.v2().equals(a));
+            } else if (e != null && r.nextInt(4) == 0) {
+                g.remove(e);
+                edgeTable.remove(new Pair<>(a, b));
+            } else if (e != null && g.addEdge(e)) {
+                edgeTable.put(new Pair<>(a, b), e);
+            }
+
+            Set<Edge<Vertex>> expected = new HashSet<>();
+            for (Edge<Vertex> x : edgeTable.values()) {
+                if (x.v1().equals(b) || x.v2().equals(b)) {
+                    expected.add(x);
+                }
+            }
+            assertEquals(new ArrayList<>(expected), new ArrayList<>(g.allEdges(b)));
+        }
+
+        assertEquals(new ArrayList<>(new HashSet<>(vertexTable.keySet())), new ArrayList<>(g.allVertices()));
+        assertEquals(new HashSet<>(edgeTable.values()), g.allEdges());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAllVerticesUnmodifiable() {
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(new Vertex(1,"A"));
+        g.allVertices().add(new Vertex(2,"B"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAllEdgesUnmodifiable() {
+        Vertex v1 = new Vertex(1,"A");
+        Vertex v2 = new Vertex(2,"B");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addEdge(new Edge<>(v1,v2,5));
+        g.allEdges().clear();
+    }
+
     @Test
     public void testGetNeighbours() {
 
@@ -337,6 +539,52 @@ public class GraphTest {
         assertEquals(neigbhourMap, g.getNeighbours(v2));
     }
 
+    @Test
+    public void testNeighbourCursor() {
+        Vertex v1 = new Vertex(1,"A");
+        Vertex v2 = new Vertex(2,"B");
+        Vertex v3 = new Vertex(3,"C");
+        Vertex v4 = new Vertex(4,"D");
+
+        Edge<Vertex> e1 = new Edge<>(v1,v2,5);
+        Edge<Vertex> e2 = new Edge<>(v2,v3,12);
+        Edge<Vertex> e3 = new Edge<>(v1,v4,25);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addVertex(v4);
+        g.addEdge(e1);
+        g.addEdge(e2);
+        g.addEdge(e3);
+
+        Map<Vertex, Edge<Vertex>> visited = new HashMap<>();
+        g.forEachNeighbour(v1, visited::put);
+        assertEquals(g.getNeighbours(v1), visited);
+
+        assertEquals(2, g.degree(v1));
+        Map<Vertex, Edge<Vertex>> cursor = new HashMap<>();
+        for (int i = 0; i < g.degree(v1); i++) {
+            cursor.put(g.neighbour(v1, i), g.incidentEdge(v1, i));
+        }
+        assertEquals(visited, cursor);
+
+        //the neighbour and edge lists stay aligned after removals
+        g.remove(e1);
+        assertEquals(1, g.degree(v1));
+        assertEquals(v4, g.neighbour(v1, 0));
+        assertEquals(e3, g.incidentEdge(v1, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDegreeException() {
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.degree(new Vertex(1,"A"));
+    }
+
     @Test
     public void testMinimumSpanningTree() {
         Vertex v0 = new Vertex(0,"0");
@@ -506,6 +754,33 @@ public class GraphTest {
         assertEquals(vertexSet, g.search(v0, 2));
     }
 
+    @Test
+    public void testSearchWithinRange() {
+        Vertex v0 = new Vertex(0,"0");
+        Vertex v1 = new Vertex(1,"1");
+        Vertex v2 = new Vertex(2,"2");
+        Vertex v3 = new Vertex(3,"3");
+        Vertex v4 = new Vertex(4,"4");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertices(Arrays.asList(v0, v1, v2, v3, v4));
+        g.addEdge(new Edge<>(v0,v1,1));
+        g.addEdge(new Edge<>(v1,v2,1));
+        g.addEdge(new Edge<>(v2,v3,1));
+        g.addEdge(new Edge<>(v3,v4,1));
+
+        //vertices closer than range are included, not just those exactly range away
+        assertEquals(new HashSet<>(Arrays.asList(v1, v2, v3)), g.search(v0, 3));
+        assertEquals(new HashSet<>(Arrays.asList(v0, v1, v3, v4)), g.search(v2, 10));
+
+        List<Vertex> visited = new ArrayList<>();
+        g.forEachWithin(v2, 2, visited::add);
+        assertEquals(4, visited.size());
+        assertEquals(new HashSet<>(Arrays.asList(v0, v1, v3, v4)), new HashSet<>(visited));
+        assertEquals(new HashSet<>(visited), g.freeze().search(v2, 2));
+    }
+
     @Test
     public void testShortestPath() {
         Vertex v0 = new Vertex(0,"0");
@@ -627,6 +902,88 @@ public class GraphTest {
         assertEquals(vertexList, g.shortestPath(v0, v4));
     }
 
+    @Test
+    public void testShortestPathSameVertex() {
+        Vertex v1 = new Vertex(1,"1");
+        Vertex v2 = new Vertex(2,"2");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addEdge(new Edge<>(v1,v2,3));
+
+        assertEquals(Collections.singletonList(v1), g.shortestPath(v1, v1));
+        assertEquals(Arrays.asList(v2, v1), g.shortestPath(v2, v1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortestPathMissingVertex() {
+        Vertex v1 = new Vertex(1,"1");
+        Vertex v2 = new Vertex(2,"2");
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+
+        g.shortestPath(v1, v2);
+    }
+
+    /**
+     * shortestPath searches with a bucket queue on short edges; its paths must match
+     * the heap search (A* with a zero heuristic) even where many shortest paths tie.
+     */
+    @Test
+    public void testShortestPathMatchesHeapSearch() {
+        Random r = new Random(221);
+        List<Vertex> vertices = new ArrayList<>();
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        for (int i = 0; i < 40; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+            g.addVertex(vertices.get(i));
+        }
+        for (int i = 0; i < 120; i++) {
+            Vertex a = vertices.get(r.nextInt(vertices.size()));
+            Vertex b = vertices.get(r.nextInt(vertices.size()));
+            if (!a.equals(b)) {
+                // few distinct lengths, and some of length 0, so that paths often tie
+                g.addEdge(new Edge<>(a, b, r.nextInt(4)));
+            }
+        }
+
+        for (Vertex s : vertices) {
+            for (Vertex t : vertices) {
+                List<Vertex> expected = g.shortestPath(s, t, v -> 0);
+                List<Vertex> path = g.shortestPath(s, t);
+                assertEquals(expected, path);
+                if (!path.isEmpty()) {
+                    assertEquals(g.distance(s, t), g.pathLength(path));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPathAfterLongerEdge() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        g.addVertices(Arrays.asList(v1, v2, v3, v4));
+        g.addEdge(new Edge<>(v1, v2, 1));
+        g.addEdge(new Edge<>(v2, v3, 2));
+
+        // the search stops at v2 with v3 still queued
+        assertEquals(Arrays.asList(v1, v2), g.shortestPath(v1, v2));
+
+        g.addEdge(new Edge<>(v3, v4, 50));
+        g.addEdge(new Edge<>(v1, v4, 60));
+        assertEquals(Arrays.asList(v1, v2, v3, v4), g.shortestPath(v1, v4));
+        assertEquals(Arrays.asList(v4, v3), g.shortestPath(v4, v3));
+    }
+
     @Test
     public void testDiameter() {
         Vertex v0 = new Vertex(0,"0");
@@ -762,6 +1119,39 @@ public class GraphTest {
         assertEquals(e1, g.getEdge(v1, v2));
     }
 
+    @Test
+    public void testFreezeCachedUntilMutation() {
+        Vertex v1 = new Vertex(1,"1");
+        Vertex v2 = new Vertex(2,"2");
+        Vertex v3 = new Vertex(3,"3");
+
+        Edge<Vertex> e1 = new Edge<>(v1,v2,6);
+        Edge<Vertex> e2 = new Edge<>(v2,v3,7);
+
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+
+        g.addVertex(v1);
+        g.addVertex(v2);
+        g.addVertex(v3);
+        g.addEdge(e1);
+
+        CsrGraph<Vertex, Edge<Vertex>> csr = g.freeze();
+
+        assertSame(csr, g.freeze());
+        assertSame(csr.biconnectivity(), g.biconnectivity());
+        assertSame(g.contractionHierarchy(), g.contractionHierarchy());
+        assertEquals(6, g.diameter());
+
+        g.addEdge(e2);
+
+        assertNotSame(csr, g.freeze());
+        assertEquals(2, g.freeze().edgeCount());
+        assertEquals(1, csr.edgeCount());
+        assertEquals(13, g.diameter());
+        assertEquals(13, g.shortestPathTree(v1).distanceTo(v3));
+        assertTrue(g.biconnectivity().isBridge(v2, v3));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testGetEdgeException() throws IllegalArgumentException {
         Vertex v1 = new Vertex(1,"1");
@@ -0,0 +1,69 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.util.Groups;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GroupsTest {
+
+    @Test
+    public void testAddAndFind() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+
+        Groups<Vertex> groups = new Groups<>();
+
+        groups.add(v1);
+        groups.add(v1);
+
+        assertEquals(v1, groups.find(v1));
+        assertNull(groups.find(v2));
+        assertEquals(1, groups.groupCount());
+    }
+
+    @Test
+    public void testMerge() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+        Vertex v3 = new Vertex(3, "C");
+        Vertex v4 = new Vertex(4, "D");
+
+        Groups<Vertex> groups = new Groups<>();
+
+        groups.add(v1);
+        groups.add(v2);
+        groups.add(v3);
+        groups.add(v4);
+        assertEquals(4, groups.groupCount());
+
+        groups.merge(v1, v2);
+        groups.merge(v3, v4);
+        assertEquals(2, groups.groupCount());
+        assertTrue(groups.sameGroup(v1, v2));
+        assertFalse(groups.sameGroup(v2, v3));
+
+        groups.merge(v2, v4);
+        assertEquals(1, groups.groupCount());
+        assertEquals(groups.find(v1), groups.find(v3));
+
+        //merging elements of the same group does nothing
+        groups.merge(v1, v3);
+        assertEquals(1, groups.groupCount());
+    }
+
+    @Test
+    public void testMergeMissing() {
+        Vertex v1 = new Vertex(1, "A");
+        Vertex v2 = new Vertex(2, "B");
+
+        Groups<Vertex> groups = new Groups<>();
+
+        groups.add(v1);
+        groups.merge(v1, v2);
+
+        assertEquals(1, groups.groupCount());
+        assertFalse(groups.sameGroup(v1, v2));
+    }
+}
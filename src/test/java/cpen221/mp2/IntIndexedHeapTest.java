@@ -0,0 +1,94 @@
+package cpen221.mp2;
+
+import cpen221.mp2.util.Heap;
+import cpen221.mp2.util.IntIndexedHeap;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntIndexedHeapTest {
+
+    @Test
+    public void testPollOrder() {
+        IntIndexedHeap heap = new IntIndexedHeap(5);
+
+        heap.add(3, 2.5);
+        heap.add(0, 7);
+        heap.add(4, -1);
+        heap.updatePriority(0, 1);
+
+        assertEquals(3, heap.size());
+        assertTrue(heap.contains(0));
+        assertFalse(heap.contains(1));
+        assertEquals(4, heap.peek());
+        assertEquals(-1, heap.peekPriority(), 0);
+        assertEquals(4, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(3, heap.poll());
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(3));
+    }
+
+    @Test
+    public void testMatchesHeapWithTies() {
+        Random r = new Random(221);
+        int n = 200;
+        IntIndexedHeap primitive = new IntIndexedHeap(n);
+        Heap<Integer> boxed = new Heap<Integer>(true);
+
+        // few distinct priorities, so that most comparisons are ties
+        for (int step = 0; step < 20000; step++) {
+            int v = r.nextInt(n);
+            int p = r.nextInt(8);
+            int op = r.nextInt(3);
+
+            if (op == 0 && !primitive.contains(v)) {
+                primitive.add(v, p);
+                boxed.add(v, p);
+            } else if (op == 1 && primitive.contains(v)) {
+                primitive.updatePriority(v, p);
+                boxed.updatePriority(v, p);
+            } else if (op == 2 && primitive.size() > 0) {
+                assertEquals((int) boxed.poll(), primitive.poll());
+            }
+            assertEquals(boxed.size(), primitive.size());
+        }
+        while (primitive.size() > 0) {
+            assertEquals((int) boxed.poll(), primitive.poll());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        IntIndexedHeap heap = new IntIndexedHeap(3);
+        heap.add(0, 1);
+        heap.add(2, 0);
+
+        heap.clear();
+
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(2));
+        heap.add(2, 5);
+        assertEquals(2, heap.poll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTwice() {
+        IntIndexedHeap heap = new IntIndexedHeap(2);
+        heap.add(1, 0);
+        heap.add(1, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateMissing() {
+        new IntIndexedHeap(2).updatePriority(1, 0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPollEmpty() {
+        new IntIndexedHeap(2).poll();
+    }
+}
@@ -0,0 +1,123 @@
+package cpen221.mp2;
+
+import cpen221.mp2.util.BucketQueue;
+import cpen221.mp2.util.DaryHeap;
+import cpen221.mp2.util.IntIndexedHeap;
+import cpen221.mp2.util.IntPriorityQueue;
+import cpen221.mp2.util.PairingHeap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntPriorityQueueTest {
+
+    private static final int N = 300;
+    private static final int MAX_GAP = 20;
+
+    private List<IntPriorityQueue> queues() {
+        return Arrays.asList(new IntIndexedHeap(N), new DaryHeap(N, 4), new DaryHeap(N, 2),
+                new PairingHeap(N), new BucketQueue(N, MAX_GAP));
+    }
+
+    /**
+     * Run a random monotone workload, like the one Dijkstra's algorithm generates,
+     * on every queue and check each poll against the smallest priority left.
+     */
+    @Test
+    public void testMonotoneWorkload() {
+        for (IntPriorityQueue queue : queues()) {
+            Random r = new Random(221);
+            // priority[v] is the priority of v while v is in the queue, -1 otherwise
+            int[] priority = new int[N];
+            Arrays.fill(priority, -1);
+            int last = 0;
+
+            for (int step = 0; step < 20000; step++) {
+                int v = r.nextInt(N);
+                int p = last + r.nextInt(MAX_GAP + 1);
+
+                if (r.nextInt(3) == 0 && queue.size() > 0) {
+                    int min = Integer.MAX_VALUE;
+                    for (int q : priority) {
+                        if (q != -1) {
+                            min = Math.min(min, q);
+                        }
+                    }
+                    int u = queue.poll();
+                    assertEquals(min, priority[u]);
+                    last = priority[u];
+                    priority[u] = -1;
+                } else if (priority[v] == -1) {
+                    assertFalse(queue.contains(v));
+                    queue.add(v, p);
+                    priority[v] = p;
+                } else if (p <= priority[v]) {
+                    assertTrue(queue.contains(v));
+                    queue.decreasePriority(v, p);
+                    priority[v] = p;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        for (IntPriorityQueue queue : queues()) {
+            queue.add(3, 1);
+            queue.add(7, 4);
+            queue.add(5, 2);
+            queue.poll();
+
+            queue.clear();
+
+            assertEquals(0, queue.size());
+            assertFalse(queue.contains(7));
+            queue.add(7, 9);
+            assertEquals(7, queue.poll());
+        }
+    }
+
+    @Test
+    public void testExceptions() {
+        for (IntPriorityQueue queue : queues()) {
+            queue.add(1, 5);
+            try {
+                queue.add(1, 6);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                queue.decreasePriority(1, 7);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                queue.decreasePriority(2, 0);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            queue.poll();
+            try {
+                queue.poll();
+                fail();
+            } catch (NoSuchElementException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBucketQueueWindow() {
+        BucketQueue queue = new BucketQueue(4, 10);
+        queue.add(0, 100);
+        queue.add(1, 111);
+    }
+}
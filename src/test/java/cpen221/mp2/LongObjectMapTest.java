@@ -0,0 +1,55 @@
+package cpen221.mp2;
+
+import cpen221.mp2.util.LongObjectMap;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LongObjectMapTest {
+
+    /**
+     * Run random puts and removes, with keys that collide in the low and high halves,
+     * against a LinkedHashMap, which also keeps insertion order.
+     */
+    @Test
+    public void testMatchesLinkedHashMap() {
+        Random r = new Random(221);
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> model = new LinkedHashMap<>();
+
+        for (int step = 0; step < 20000; step++) {
+            long key = ((long) (r.nextInt(40) - 20) << 32) | (r.nextInt(40) & 0xFFFFFFFFL);
+
+            if (r.nextInt(3) == 0) {
+                assertEquals(model.remove(key), map.remove(key));
+            } else if (model.containsKey(key)) {
+                assertEquals(model.put(key, step), map.put(key, step));
+            } else {
+                assertNull(map.put(key, step));
+                model.put(key, step);
+            }
+
+            assertEquals(model.size(), map.size());
+            assertEquals(model.containsKey(key), map.containsKey(key));
+            assertEquals(model.get(key), map.get(key));
+        }
+
+        assertEquals(new ArrayList<>(model.values()), map.valuesInInsertionOrder());
+        assertEquals(new HashSet<>(model.values()), new HashSet<>(map.values()));
+        List<Integer> iterated = new ArrayList<>();
+        map.valueIterator().forEachRemaining(iterated::add);
+        assertEquals(map.values(), iterated);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.values().isEmpty());
+        assertFalse(map.valueIterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValue() {
+        new LongObjectMap<String>().put(1L, null);
+    }
+}
@@ -0,0 +1,169 @@
+package cpen221.mp2;
+
+import cpen221.mp2.graph.Biconnectivity;
+import cpen221.mp2.graph.ContractionHierarchy;
+import cpen221.mp2.graph.CsrGraph;
+import cpen221.mp2.graph.Edge;
+import cpen221.mp2.graph.OffHeapGraph;
+import cpen221.mp2.graph.ShortestPathTree;
+import cpen221.mp2.graph.Vertex;
+import cpen221.mp2.models.Link;
+import cpen221.mp2.models.Planet;
+import cpen221.mp2.models.Universe;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class OffHeapGraphTest {
+
+    private final Universe universe = new Universe.UniverseBuilder().size(4096, 4096).seed(42)
+            .planetBounds(200, 200).spiceBounds(0, 5000).build();
+    private final CsrGraph<Planet, Link> csr = (CsrGraph<Planet, Link>) universe.planetGraph();
+    private final OffHeapGraph<Planet, Link> offHeap = OffHeapGraph.of(csr);
+
+    private List<Planet> planets() {
+        List<Planet> planets = new ArrayList<>();
+        universe.planets().forEach(planets::add);
+        planets.sort(Comparator.comparingInt(Planet::id));
+        return planets;
+    }
+
+    @Test
+    public void testPathsMatchCsrGraph() {
+        List<Planet> planets = planets();
+        Random r = new Random(221);
+
+        for (int i = 0; i < 200; i++) {
+            Planet s = planets.get(r.nextInt(planets.size()));
+            Planet t = planets.get(r.nextInt(planets.size()));
+
+            assertEquals(csr.shortestPath(s, t), offHeap.shortestPath(s, t));
+            assertEquals(csr.distance(s, t), offHeap.distance(s, t));
+            assertEquals(csr.distance(s, t), offHeap.distance(s, t, universe.distanceBound()));
+            assertEquals(csr.distance(s, t), offHeap.pathLength(offHeap.shortestPath(s, t, p -> 0)));
+        }
+    }
+
+    @Test
+    public void testShortestPathTree() {
+        Planet earth = universe.earth();
+        ShortestPathTree<Planet> expected = csr.shortestPathTree(earth);
+        ShortestPathTree<Planet> tree = offHeap.shortestPathTree(earth);
+
+        assertEquals(earth, tree.source());
+        for (Planet p : planets()) {
+            assertEquals(expected.distanceTo(p), tree.distanceTo(p));
+            assertEquals(expected.pathTo(p), tree.pathTo(p));
+        }
+    }
+
+    @Test
+    public void testNeighbourhood() {
+        for (Planet p : planets()) {
+            assertEquals(csr.degree(p), offHeap.degree(p));
+            assertEquals(csr.search(p, 2), offHeap.search(p, 2));
+
+            Map<Planet, Link> expected = new HashMap<>();
+            Map<Planet, Link> neighbours = new HashMap<>();
+            csr.forEachNeighbour(p, expected::put);
+            offHeap.forEachNeighbour(p, neighbours::put);
+            assertEquals(expected, neighbours);
+
+            for (Planet w : neighbours.keySet()) {
+                assertSame(csr.getEdge(p, w), offHeap.getEdge(p, w));
+            }
+        }
+    }
+
+    @Test
+    public void testMinimumSpanningTreeAndDiameter() {
+        int expected = 0;
+        for (Link e : csr.minimumSpanningTree()) {
+            expected += e.length();
+        }
+        List<Link> tree = offHeap.minimumSpanningTree();
+        int length = 0;
+        for (Link e : tree) {
+            length += e.length();
+        }
+
+        assertEquals(csr.minimumSpanningTree().size(), tree.size());
+        assertEquals(expected, length);
+        assertEquals(csr.diameter(), offHeap.diameter());
+    }
+
+    @Test
+    public void testAnalysesAreCached() {
+        ContractionHierarchy<Planet> hierarchy = offHeap.contractionHierarchy();
+        Biconnectivity<Planet, Link> biconnectivity = offHeap.biconnectivity();
+
+        assertSame(hierarchy, offHeap.contractionHierarchy());
+        assertSame(biconnectivity, offHeap.biconnectivity());
+        assertEquals(new HashSet<>(csr.biconnectivity().bridges()), new HashSet<>(biconnectivity.bridges()));
+        assertEquals(csr.biconnectivity().articulationPoints(), biconnectivity.articulationPoints());
+        for (Planet p : planets()) {
+            assertEquals(csr.distance(universe.earth(), p), hierarchy.distance(universe.earth(), p));
+        }
+    }
+
+    /**
+     * Vertices and edges of a graph built from ids are created only when a query returns them.
+     */
+    @Test
+    public void testBuilder() {
+        OffHeapGraph.Builder<Vertex, Edge<Vertex>> builder = new OffHeapGraph.Builder<>(5);
+        builder.addEdge(0, 1, 4).addEdge(1, 2, 1).addEdge(0, 2, 7).addEdge(2, 3, 2);
+        OffHeapGraph<Vertex, Edge<Vertex>> g = builder.build(id -> new Vertex(id, "v" + id), Edge::new);
+
+        Vertex v0 = new Vertex(0, "v0");
+        Vertex v2 = new Vertex(2, "v2");
+        Vertex v3 = new Vertex(3, "v3");
+        Vertex v4 = new Vertex(4, "v4");
+
+        assertEquals(5, g.vertexCount());
+        assertEquals(4, g.edgeCount());
+        assertEquals(Arrays.asList(v0, new Vertex(1, "v1"), v2, v3), g.shortestPath(v0, v3));
+        assertEquals(7, g.distance(v0, v3));
+        assertEquals(Collections.emptyList(), g.shortestPath(v0, v4));
+        assertEquals(Integer.MAX_VALUE, g.distance(v0, v4));
+        assertEquals(new Edge<>(v0, v2), g.getEdge(v2, v0));
+        assertEquals(7, g.getEdge(v2, v0).length());
+        assertEquals(3, g.minimumSpanningTree().size());
+        assertEquals(7, g.diameter());
+        assertEquals(0, g.degree(v4));
+        assertEquals(g.toCsrGraph().shortestPath(v0, v3), g.shortestPath(v0, v3));
+    }
+
+    @Test
+    public void testBuilderExceptions() {
+        OffHeapGraph.Builder<Vertex, Edge<Vertex>> builder = new OffHeapGraph.Builder<>(2);
+        try {
+            builder.addEdge(0, 2, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            builder.addEdge(1, 1, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        builder.addEdge(0, 1, 1);
+        OffHeapGraph<Vertex, Edge<Vertex>> g = builder.build(id -> new Vertex(id, "v" + id), Edge::new);
+        try {
+            builder.addEdge(0, 1, 1);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            g.degree(new Vertex(2, "v2"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -48,4 +48,16 @@ public class VertexTest {
         assertEquals("B",v1.name());
     }
 
+    @Test
+    public void testHashCodeAfterUpdateName() {
+        Vertex v1 = new Vertex(1,"A");
+        Vertex v2 = new Vertex(1,"B");
+        v1.updateName("B");
+
+        assertEquals("B".hashCode() + 1, v1.hashCode());
+        assertEquals(v2.hashCode(), v1.hashCode());
+        assertTrue(v1.equals(v2));
+        assertTrue(!v1.equals(new Vertex(1,"A")));
+    }
+
 }